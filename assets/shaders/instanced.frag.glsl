@@ -0,0 +1,35 @@
+#ifdef GL_ES
+precision highp float;
+#endif
+
+uniform vec3 u_ambientLight;
+uniform vec3 u_lightColor;
+uniform vec3 u_lightDirection;
+uniform int u_shadowEnabled;
+uniform sampler2D u_shadowTexture;
+uniform float u_shadowPCFOffset;
+
+varying vec3 v_normal;
+varying vec4 v_color;
+varying vec3 v_shadowMapUv;
+
+// Same packing and filtering as the default libGDX shader, the depth map is written by a packed depth shader
+float getShadowness(vec2 offset) {
+    const vec4 bitShifts = vec4(1.0, 1.0 / 255.0, 1.0 / 65025.0, 1.0 / 16581375.0);
+    return step(v_shadowMapUv.z, dot(texture2D(u_shadowTexture, v_shadowMapUv.xy + offset), bitShifts));
+}
+
+float getShadow() {
+    return (getShadowness(vec2(u_shadowPCFOffset, u_shadowPCFOffset)) +
+            getShadowness(vec2(-u_shadowPCFOffset, u_shadowPCFOffset)) +
+            getShadowness(vec2(u_shadowPCFOffset, -u_shadowPCFOffset)) +
+            getShadowness(vec2(-u_shadowPCFOffset, -u_shadowPCFOffset))) * 0.25;
+}
+
+void main() {
+    float diffuse = max(dot(normalize(v_normal), -u_lightDirection), 0.0);
+    float shadow = u_shadowEnabled == 1 ? getShadow() : 1.0;
+
+    vec3 light = u_ambientLight + u_lightColor * diffuse * shadow;
+    gl_FragColor = vec4(v_color.rgb * light, v_color.a);
+}
@@ -0,0 +1,29 @@
+// Lit instanced primitives, the world matrix and color come per instance, see InstancePacker
+attribute vec3 a_position;
+attribute vec3 a_normal;
+attribute vec4 i_worldTrans0;
+attribute vec4 i_worldTrans1;
+attribute vec4 i_worldTrans2;
+attribute vec4 i_worldTrans3;
+attribute vec4 i_color;
+
+uniform mat4 u_projViewTrans;
+uniform mat4 u_shadowMapProjViewTrans;
+
+varying vec3 v_normal;
+varying vec4 v_color;
+varying vec3 v_shadowMapUv;
+
+void main() {
+    mat4 worldTrans = mat4(i_worldTrans0, i_worldTrans1, i_worldTrans2, i_worldTrans3);
+    vec4 position = worldTrans * vec4(a_position, 1.0);
+
+    v_normal = normalize((worldTrans * vec4(a_normal, 0.0)).xyz);
+    v_color = i_color;
+
+    vec4 shadowPosition = u_shadowMapProjViewTrans * position;
+    v_shadowMapUv = (shadowPosition.xyz / shadowPosition.w) * 0.5 + 0.5;
+    v_shadowMapUv.z = min(v_shadowMapUv.z, 0.998);
+
+    gl_Position = u_projViewTrans * position;
+}
@@ -0,0 +1,12 @@
+#ifdef GL_ES
+precision highp float;
+#endif
+
+varying float v_depth;
+
+// Packed the same way as the libGDX depth shader, the shadow map is an RGBA texture
+void main() {
+    const vec4 bias = vec4(1.0 / 255.0, 1.0 / 255.0, 1.0 / 255.0, 0.0);
+    vec4 color = vec4(v_depth, fract(v_depth * 255.0), fract(v_depth * 65025.0), fract(v_depth * 16581375.0));
+    gl_FragColor = color - (color.yzww * bias);
+}
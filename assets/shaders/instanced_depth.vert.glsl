@@ -0,0 +1,18 @@
+// Depth of instanced primitives for the shadow map, see InstancePacker for the instance layout
+attribute vec3 a_position;
+attribute vec4 i_worldTrans0;
+attribute vec4 i_worldTrans1;
+attribute vec4 i_worldTrans2;
+attribute vec4 i_worldTrans3;
+
+uniform mat4 u_projViewTrans;
+
+varying float v_depth;
+
+void main() {
+    mat4 worldTrans = mat4(i_worldTrans0, i_worldTrans1, i_worldTrans2, i_worldTrans3);
+    vec4 position = u_projViewTrans * worldTrans * vec4(a_position, 1.0);
+
+    v_depth = position.z / position.w * 0.5 + 0.5;
+    gl_Position = position;
+}
@@ -0,0 +1,15 @@
+#ifdef GL_ES
+precision highp float;
+#endif
+
+uniform sampler2D u_texture;
+
+varying vec2 v_texCoords;
+
+// Copies the cached shadow map and unpacks its depth into the depth buffer, so later casters are depth tested
+// against the cached ones
+void main() {
+    vec4 depthColor = texture2D(u_texture, v_texCoords);
+    gl_FragColor = depthColor;
+    gl_FragDepth = dot(depthColor, vec4(1.0, 1.0 / 255.0, 1.0 / 65025.0, 1.0 / 16581375.0));
+}
@@ -0,0 +1,9 @@
+// Fullscreen quad over the shadow map, the positions are already in clip space
+attribute vec2 a_position;
+
+varying vec2 v_texCoords;
+
+void main() {
+    v_texCoords = a_position * 0.5 + 0.5;
+    gl_Position = vec4(a_position, 0.0, 1.0);
+}
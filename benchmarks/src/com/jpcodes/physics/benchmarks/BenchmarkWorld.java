@@ -0,0 +1,273 @@
+package com.jpcodes.physics.benchmarks;
+
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Quaternion;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.physics.bullet.Bullet;
+import com.badlogic.gdx.physics.bullet.collision.CollisionConstants;
+import com.badlogic.gdx.physics.bullet.collision.btBoxShape;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionShape;
+import com.badlogic.gdx.physics.bullet.dynamics.btRigidBody;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.jpcodes.physics.BulletPhysicsSystem;
+import com.jpcodes.physics.MotionState;
+import com.jpcodes.physics.PhysicsWorldBuilder;
+import com.jpcodes.physics.ShardedPhysicsSystem;
+import com.jpcodes.physics.utils.PrimitiveShape;
+
+/**
+ * Builds a headless physics world the same way BaseScreen.createObjects() does, minus the models.
+ * Bodies are laid out on a square grid above a static floor, with a seeded random generator so
+ * every run gets the same world.
+ * <p>
+ * A pile settles within a few seconds of simulation and goes to sleep, a world stepped for longer than that times
+ * sleeping islands. Benchmarks timing steady steps build the world once per trial and call {@link #keepAwake()},
+ * or {@link #settle(int)} to time the sleeping pile on purpose.
+ *
+ * @author JamesTKhan
+ * @version October 18, 2026
+ */
+public class BenchmarkWorld implements Disposable {
+    public static final long DEFAULT_SEED = 1234L;
+
+    /** Spacing between bodies on the grid, matches createObjects() */
+    private static final float SPACING = 2f;
+
+    private static boolean nativesLoaded = false;
+
+    private final BulletPhysicsSystem physicsSystem;
+    private final ShardedPhysicsSystem shardedSystem;
+    private final Array<btRigidBody> bodies = new Array<>();
+    private final Array<btCollisionShape> shapes = new Array<>();
+    private final Array<MotionState> motionStates = new Array<>();
+    private final Array<Matrix4> transforms = new Array<>();
+
+    /**
+     * The shape mix of the bodies in the world
+     */
+    public enum ShapeMix {
+        /** A random primitive per body, like createObjects() */
+        MIXED,
+        BOX,
+        CONE,
+        SPHERE,
+        CYLINDER;
+
+        PrimitiveShape pick(RandomXS128 random) {
+            if (this == MIXED) {
+                PrimitiveShape[] values = PrimitiveShape.values();
+                return values[random.nextInt(values.length)];
+            }
+            return PrimitiveShape.valueOf(name());
+        }
+    }
+
+    public BenchmarkWorld(int bodyCount, ShapeMix shapeMix) {
+        this(bodyCount, shapeMix, DEFAULT_SEED);
+    }
+
+    public BenchmarkWorld(int bodyCount, ShapeMix shapeMix, long seed) {
+        this(bodyCount, shapeMix, seed, (PhysicsWorldBuilder) null);
+    }
+
+    /**
+     * @param builder configures the physics system, null for the defaults
+     */
+    public BenchmarkWorld(int bodyCount, ShapeMix shapeMix, long seed, PhysicsWorldBuilder builder) {
+        this(bodyCount, shapeMix, seed, createSystem(builder), null);
+    }
+
+    /**
+     * Fills a sharded system instead of a single one, the world disposes it along with the bodies.
+     * The natives must be loaded before the sharded system is created.
+     */
+    public BenchmarkWorld(int bodyCount, ShapeMix shapeMix, long seed, ShardedPhysicsSystem shardedSystem) {
+        this(bodyCount, shapeMix, seed, null, shardedSystem);
+    }
+
+    private BenchmarkWorld(int bodyCount, ShapeMix shapeMix, long seed, BulletPhysicsSystem physicsSystem,
+                           ShardedPhysicsSystem shardedSystem) {
+        this.physicsSystem = physicsSystem;
+        this.shardedSystem = shardedSystem;
+        RandomXS128 random = new RandomXS128(seed);
+
+        int side = (int) Math.ceil(Math.sqrt(bodyCount));
+        float halfExtent = side * SPACING / 2f;
+
+        createFloor(halfExtent + 10f);
+
+        Quaternion rotation = new Quaternion();
+        Vector3 localInertia = new Vector3();
+        for (int n = 0; n < bodyCount; n++) {
+            float x = (n % side) * SPACING - halfExtent;
+            float z = (n / side) * SPACING - halfExtent;
+
+            btCollisionShape shape = shapeMix.pick(random).createCollisionShape();
+
+            Matrix4 transform = new Matrix4();
+            transform.setToTranslation(x, 10 + random.nextInt(11), z);
+            transform.rotate(rotation.set(Vector3.Z, random.nextFloat() * 270f));
+
+            float mass = 1f;
+            shape.calculateLocalInertia(mass, localInertia);
+
+            btRigidBody.btRigidBodyConstructionInfo info = new btRigidBody.btRigidBodyConstructionInfo(mass, null, shape, localInertia);
+            btRigidBody body = new btRigidBody(info);
+            info.dispose();
+
+            if (shardedSystem != null) {
+                // Strips step in parallel, sharded bodies are read after the step instead of through a motion state
+                body.setWorldTransform(transform);
+                shardedSystem.addBody(body);
+            } else {
+                MotionState motionState = new MotionState(transform);
+                body.setMotionState(motionState);
+                physicsSystem.addBody(body);
+                motionStates.add(motionState);
+            }
+
+            bodies.add(body);
+            shapes.add(shape);
+            transforms.add(transform);
+        }
+    }
+
+    /**
+     * Keeps the dynamic bodies from ever going to sleep, so every step simulates the whole pile
+     * @return this world
+     */
+    public BenchmarkWorld keepAwake() {
+        for (btRigidBody body : bodies) {
+            if (!body.isStaticObject()) {
+                body.setActivationState(CollisionConstants.DISABLE_DEACTIVATION);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Steps a single system, then puts every dynamic body to sleep where it is, for benchmarks timing a settled
+     * world. Bodies that rolled off the floor would never go to sleep on their own.
+     * @param steps the steps to let the pile settle first
+     * @return this world
+     */
+    public BenchmarkWorld settle(int steps) {
+        for (int step = 0; step < steps; step++) {
+            physicsSystem.step();
+        }
+
+        for (btRigidBody body : bodies) {
+            if (!body.isStaticObject()) {
+                body.setLinearVelocity(Vector3.Zero);
+                body.setAngularVelocity(Vector3.Zero);
+                body.forceActivationState(CollisionConstants.ISLAND_SLEEPING);
+            }
+        }
+
+        // Islands made only of sleeping bodies stay asleep
+        physicsSystem.step();
+        for (btRigidBody body : bodies) {
+            if (!body.isStaticObject() && body.isActive()) {
+                throw new GdxRuntimeException("A body woke up after the pile was put to sleep");
+            }
+        }
+        return this;
+    }
+
+    private static BulletPhysicsSystem createSystem(PhysicsWorldBuilder builder) {
+        loadNatives();
+        return builder != null ? builder.build() : new BulletPhysicsSystem();
+    }
+
+    /**
+     * Loads the gdx and Bullet natives without starting a libGDX application
+     */
+    public static synchronized void loadNatives() {
+        if (nativesLoaded) return;
+        GdxNativesLoader.load();
+        Bullet.init();
+        nativesLoaded = true;
+    }
+
+    private void createFloor(float halfExtent) {
+        btBoxShape floorShape = new btBoxShape(new Vector3(halfExtent, 0.5f, halfExtent));
+        btRigidBody.btRigidBodyConstructionInfo info = new btRigidBody.btRigidBodyConstructionInfo(0, null, floorShape, Vector3.Zero);
+        btRigidBody floor = new btRigidBody(info);
+        info.dispose();
+
+        floor.setWorldTransform(new Matrix4().trn(0, -0.5f, 0f));
+        if (shardedSystem != null) {
+            shardedSystem.addStaticBody(floor);
+        } else {
+            physicsSystem.addBody(floor);
+        }
+
+        bodies.add(floor);
+        shapes.add(floorShape);
+    }
+
+    /**
+     * @return the physics system, null when the world fills a sharded system
+     */
+    public BulletPhysicsSystem getPhysicsSystem() {
+        return physicsSystem;
+    }
+
+    /**
+     * @return the sharded system, null when the world fills a single physics system
+     */
+    public ShardedPhysicsSystem getShardedSystem() {
+        return shardedSystem;
+    }
+
+    /**
+     * Updates whichever system the world fills
+     */
+    public void update(float delta) {
+        if (shardedSystem != null) {
+            shardedSystem.update(delta);
+        } else {
+            physicsSystem.update(delta);
+        }
+    }
+
+    public Array<btRigidBody> getBodies() {
+        return bodies;
+    }
+
+    /**
+     * @return the transforms of the bodies, kept up to date by their motion states in a single system, the start
+     * transforms in a sharded one
+     */
+    public Array<Matrix4> getTransforms() {
+        return transforms;
+    }
+
+    @Override
+    public void dispose() {
+        // The sharded system removes the bodies from its worlds when disposed
+        if (shardedSystem != null) {
+            shardedSystem.dispose();
+        }
+
+        for (btRigidBody body : bodies) {
+            if (physicsSystem != null) {
+                physicsSystem.removeBody(body);
+            }
+            body.dispose();
+        }
+        for (MotionState motionState : motionStates) {
+            motionState.dispose();
+        }
+        for (btCollisionShape shape : shapes) {
+            shape.dispose();
+        }
+        if (physicsSystem != null) {
+            physicsSystem.dispose();
+        }
+    }
+}
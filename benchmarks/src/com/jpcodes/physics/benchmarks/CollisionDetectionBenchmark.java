@@ -0,0 +1,131 @@
+package com.jpcodes.physics.benchmarks;
+
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.physics.bullet.collision.btBoxShape;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionObject;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionShape;
+import com.badlogic.gdx.utils.Array;
+import com.jpcodes.physics.BulletPhysicsSystem;
+import com.jpcodes.physics.ContactQuery;
+import com.jpcodes.physics.ContactResults;
+import com.jpcodes.physics.utils.PrimitiveShape;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares finding the objects touching the floor the way BasicCollisionDetection used to, a narrowphase
+ * query per object, against a collision only world that lets the broadphase reject the distant pairs.
+ * Objects are scattered between 0 and 20 units above the floor, so only a few percent of them touch it.
+ *
+ * @author JamesTKhan
+ * @version October 17, 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CollisionDetectionBenchmark {
+
+    @Param({"1000", "10000"})
+    public int objectCount;
+
+    private BulletPhysicsSystem bruteForceSystem;
+    private BulletPhysicsSystem collisionSystem;
+    private ContactQuery contactQuery;
+    private final ContactResults contacts = new ContactResults();
+    private final Array<btCollisionObject> objects = new Array<>();
+    private final Array<btCollisionShape> shapes = new Array<>();
+    private btCollisionObject floor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkWorld.loadNatives();
+
+        bruteForceSystem = new BulletPhysicsSystem();
+        contactQuery = bruteForceSystem.getContactQuery();
+        collisionSystem = new BulletPhysicsSystem(true);
+
+        RandomXS128 random = new RandomXS128(BenchmarkWorld.DEFAULT_SEED);
+        float halfExtent = (float) Math.sqrt(objectCount) * 2f;
+
+        btBoxShape floorShape = new btBoxShape(new Vector3(halfExtent, 0.5f, halfExtent));
+        shapes.add(floorShape);
+        floor = new btCollisionObject();
+        floor.setCollisionShape(floorShape);
+        floor.setWorldTransform(new Matrix4().trn(0, -0.5f, 0));
+        collisionSystem.addCollisionObject(floor);
+
+        Matrix4 transform = new Matrix4();
+        for (int i = 0; i < objectCount; i++) {
+            PrimitiveShape primitive = PrimitiveShape.values()[random.nextInt(PrimitiveShape.values().length)];
+            btCollisionShape shape = primitive.createCollisionShape();
+            shapes.add(shape);
+
+            transform.setToTranslation(random.nextFloat() * halfExtent * 2 - halfExtent, random.nextFloat() * 20f,
+                    random.nextFloat() * halfExtent * 2 - halfExtent);
+
+            btCollisionObject object = new btCollisionObject();
+            object.setCollisionShape(shape);
+            object.setWorldTransform(transform);
+            objects.add(object);
+            collisionSystem.addCollisionObject(object);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        for (btCollisionObject object : objects) {
+            collisionSystem.removeCollisionObject(object);
+            object.dispose();
+        }
+        collisionSystem.removeCollisionObject(floor);
+        floor.dispose();
+        for (btCollisionShape shape : shapes) {
+            shape.dispose();
+        }
+        collisionSystem.dispose();
+        bruteForceSystem.dispose();
+    }
+
+    @Benchmark
+    public int bruteForce() {
+        int touching = 0;
+        for (int i = 0; i < objects.size; i++) {
+            if (contactQuery.hasContact(objects.get(i), floor)) {
+                touching++;
+            }
+        }
+        return touching;
+    }
+
+    @Benchmark
+    public int collisionWorld() {
+        collisionSystem.update(0);
+        collisionSystem.collectContacts(contacts);
+
+        int touching = 0;
+        for (int i = 0; i < contacts.getPairCount(); i++) {
+            if (contacts.getObjectA(i) == floor || contacts.getObjectB(i) == floor) {
+                touching++;
+            }
+        }
+        return touching;
+    }
+}
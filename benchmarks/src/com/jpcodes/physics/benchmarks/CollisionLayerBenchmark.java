@@ -0,0 +1,156 @@
+package com.jpcodes.physics.benchmarks;
+
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.physics.bullet.collision.CollisionConstants;
+import com.badlogic.gdx.physics.bullet.collision.btBoxShape;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionObject;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionShape;
+import com.badlogic.gdx.physics.bullet.collision.btSphereShape;
+import com.badlogic.gdx.physics.bullet.dynamics.btRigidBody;
+import com.badlogic.gdx.utils.Array;
+import com.jpcodes.physics.BulletPhysicsSystem;
+import com.jpcodes.physics.CollisionLayers;
+import com.jpcodes.physics.PhysicsWorldBuilder;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Step time of a debris heavy world with and without collision layers. Debris is piled up on a floor next to static
+ * level pieces covered by sensors. With layers debris does not collide with debris and sensors ignore static
+ * geometry, the pairs counter shows how many overlapping pairs reach the narrowphase per step in either case.
+ * <p>
+ * The world is built once per trial and the debris is kept awake, a sleeping pile would skip most of the pairs
+ * the layers are meant to filter.
+ *
+ * @author JamesTKhan
+ * @version October 18, 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CollisionLayerBenchmark {
+    private static final float STEP = 1 / 60f;
+    private static final int STATIC_PIECES = 100;
+
+    @Param({"2000", "10000"})
+    public int debrisCount;
+
+    @Param({"false", "true"})
+    public boolean layered;
+
+    private BulletPhysicsSystem physicsSystem;
+    private final Array<btCollisionObject> objects = new Array<>();
+    private final Array<btCollisionShape> shapes = new Array<>();
+
+    /**
+     * Narrowphase pairs after the last step of an iteration, summed over the iterations by JMH
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Pairs {
+        public long pairsPerStep;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkWorld.loadNatives();
+
+        CollisionLayers layers = new CollisionLayers();
+        if (layered) {
+            layers.setCollides(CollisionLayers.DEBRIS, CollisionLayers.DEBRIS, false);
+            layers.setCollides(CollisionLayers.SENSOR, CollisionLayers.STATIC, false);
+        }
+        physicsSystem = new PhysicsWorldBuilder().collisionLayers(layers).build();
+
+        RandomXS128 random = new RandomXS128(BenchmarkWorld.DEFAULT_SEED);
+        float halfExtent = (float) Math.ceil(Math.sqrt(debrisCount)) * 0.5f;
+
+        btBoxShape floorShape = new btBoxShape(new Vector3(halfExtent + 10, 0.5f, halfExtent + 10));
+        addStatic(floorShape, new Matrix4().trn(0, -0.5f, 0));
+
+        // Level pieces, each with a sensor volume around it
+        btBoxShape pieceShape = new btBoxShape(new Vector3(1, 1, 1));
+        btBoxShape sensorShape = new btBoxShape(new Vector3(1.5f, 1.5f, 1.5f));
+        shapes.add(pieceShape);
+        shapes.add(sensorShape);
+        for (int i = 0; i < STATIC_PIECES; i++) {
+            Matrix4 transform = new Matrix4().trn(random.nextFloat() * 2 * halfExtent - halfExtent, 1,
+                    random.nextFloat() * 2 * halfExtent - halfExtent);
+            addStatic(pieceShape, transform);
+
+            btCollisionObject sensor = new btCollisionObject();
+            sensor.setCollisionShape(sensorShape);
+            sensor.setCollisionFlags(sensor.getCollisionFlags() | btCollisionObject.CollisionFlags.CF_NO_CONTACT_RESPONSE);
+            sensor.setWorldTransform(transform);
+            physicsSystem.addCollisionObject(sensor, CollisionLayers.SENSOR);
+            objects.add(sensor);
+        }
+
+        // Small debris in a dense cloud that keeps churning on the floor
+        btSphereShape debrisShape = new btSphereShape(0.25f);
+        shapes.add(debrisShape);
+        Vector3 localInertia = new Vector3();
+        debrisShape.calculateLocalInertia(0.1f, localInertia);
+        for (int i = 0; i < debrisCount; i++) {
+            btRigidBody body = new btRigidBody(0.1f, null, debrisShape, localInertia);
+            body.setWorldTransform(new Matrix4().trn(random.nextFloat() * 2 * halfExtent - halfExtent,
+                    0.25f + random.nextFloat() * 2, random.nextFloat() * 2 * halfExtent - halfExtent));
+            body.setActivationState(CollisionConstants.DISABLE_DEACTIVATION);
+            physicsSystem.addBody(body, CollisionLayers.DEBRIS);
+            objects.add(body);
+        }
+    }
+
+    private void addStatic(btCollisionShape shape, Matrix4 transform) {
+        btRigidBody body = new btRigidBody(0, null, shape, Vector3.Zero);
+        body.setWorldTransform(transform);
+        physicsSystem.addBody(body, CollisionLayers.STATIC);
+        objects.add(body);
+        if (!shapes.contains(shape, true)) {
+            shapes.add(shape);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        for (btCollisionObject object : objects) {
+            if (object instanceof btRigidBody) {
+                physicsSystem.removeBody((btRigidBody) object);
+            } else {
+                physicsSystem.removeCollisionObject(object);
+            }
+            object.dispose();
+        }
+        objects.clear();
+        for (btCollisionShape shape : shapes) {
+            shape.dispose();
+        }
+        shapes.clear();
+        physicsSystem.dispose();
+    }
+
+    @Benchmark
+    public void step(Pairs pairs) {
+        physicsSystem.update(STEP);
+        pairs.pairsPerStep = physicsSystem.getOverlappingPairCount();
+    }
+}
@@ -0,0 +1,125 @@
+package com.jpcodes.physics.benchmarks;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.g3d.loader.ObjLoader;
+import com.badlogic.gdx.graphics.g3d.model.data.ModelData;
+import com.badlogic.gdx.graphics.g3d.model.data.ModelMesh;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ShortArray;
+import com.jpcodes.physics.utils.ObjParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to import a large .obj terrain, with an {@link ObjParser} against the libGDX ObjLoader. Both end with the
+ * vertices of the render meshes in memory, no GL context is needed, the parser also has the triangles for a
+ * Bullet mesh. The terrain is a grid of gridSize by gridSize quads with positions, texture coordinates and normals,
+ * written to a temporary file.
+ *
+ * @author JamesTKhan
+ * @version October 17, 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ObjParserBenchmark {
+    @Param({"100", "300"})
+    public int gridSize;
+
+    private File file;
+    private FileHandle fileHandle;
+    private final ObjParser parser = new ObjParser();
+    private final FloatArray vertices = new FloatArray();
+    private final ShortArray indices = new ShortArray();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = File.createTempFile("terrain", ".obj");
+        writeTerrain(file, gridSize);
+        fileHandle = new FileHandle(file);
+
+        // Both must read the same triangles
+        int loaderTriangles = 0;
+        for (ModelMesh mesh : objLoader().meshes) {
+            loaderTriangles += mesh.vertices.length / 8 / 3;
+        }
+        if (parser() != loaderTriangles) {
+            throw new GdxRuntimeException("The parser read " + parser.getTriangleCount() + " triangles, the loader "
+                    + loaderTriangles);
+        }
+    }
+
+    private static void writeTerrain(File file, int gridSize) throws IOException {
+        BufferedWriter writer = new BufferedWriter(new FileWriter(file));
+        try {
+            writer.write("o terrain\n");
+            for (int x = 0; x <= gridSize; x++) {
+                for (int z = 0; z <= gridSize; z++) {
+                    float height = MathUtils.sin(x * 0.2f) * MathUtils.cos(z * 0.3f) * 4f;
+                    writer.write(String.format(Locale.ROOT, "v %f %f %f\n", (float) x, height, (float) z));
+                    writer.write(String.format(Locale.ROOT, "vt %f %f\n", x / (float) gridSize, z / (float) gridSize));
+                    writer.write(String.format(Locale.ROOT, "vn %f %f %f\n", 0f, 1f, 0f));
+                }
+            }
+            for (int x = 0; x < gridSize; x++) {
+                for (int z = 0; z < gridSize; z++) {
+                    int a = x * (gridSize + 1) + z + 1;
+                    int b = a + gridSize + 1;
+                    writer.write(String.format(Locale.ROOT, "f %d/%d/%d %d/%d/%d %d/%d/%d %d/%d/%d\n",
+                            a, a, a, a + 1, a + 1, a + 1, b + 1, b + 1, b + 1, b, b, b));
+                }
+            }
+        } finally {
+            writer.close();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Benchmark
+    public ModelData objLoader() {
+        return new ObjLoader().loadModelData(fileHandle, new ObjLoader.ObjLoaderParameters());
+    }
+
+    @Benchmark
+    public int parser() {
+        parser.parse(fileHandle);
+
+        int triangles = 0;
+        for (int part = 0; part < parser.getPartCount(); part++) {
+            int partTriangles = parser.getPartTriangleCount(part);
+            for (int triangle = 0; triangle < partTriangles; ) {
+                int packed = parser.packMesh(part, triangle, vertices, indices);
+                triangle += packed;
+                triangles += packed;
+            }
+        }
+        return triangles;
+    }
+}
@@ -0,0 +1,159 @@
+package com.jpcodes.physics.benchmarks;
+
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.physics.bullet.collision.ClosestRayResultCallback;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.jpcodes.physics.BulletPhysicsSystem;
+import com.jpcodes.physics.QueryBatch;
+import com.jpcodes.physics.RaycastResults;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares casting many rays one at a time through {@link BulletPhysicsSystem#raycast(Vector3, Vector3,
+ * com.badlogic.gdx.physics.bullet.collision.RayResultCallback)}, the way RigidBodyPhysics does for a click, against
+ * the batch API and the parallel query phase. Rays are cast straight down onto the settled bodies of a benchmark world.
+ * The setup checks that the one at a time rays hit the same points as the batch.
+ *
+ * @author JamesTKhan
+ * @version October 18, 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RaycastBenchmark {
+
+    @Param({"1000", "10000"})
+    public int bodyCount;
+
+    @Param({"100", "1000"})
+    public int rayCount;
+
+    private BenchmarkWorld world;
+    private BulletPhysicsSystem physicsSystem;
+    private float[] origins;
+    private float[] ends;
+    private RaycastResults results;
+    // Hit points of the one at a time rays, apart from the batch results to compare them
+    private float[] hitPoints;
+    private final QueryBatch queryBatch = new QueryBatch();
+
+    private ClosestRayResultCallback callback;
+    private final Vector3 from = new Vector3();
+    private final Vector3 to = new Vector3();
+    private final Vector3 hitPoint = new Vector3();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        world = new BenchmarkWorld(bodyCount, BenchmarkWorld.ShapeMix.MIXED);
+        physicsSystem = world.getPhysicsSystem();
+
+        // Let the bodies fall onto the floor
+        for (int i = 0; i < 120; i++) {
+            physicsSystem.update(1f / 60f);
+        }
+
+        RandomXS128 random = new RandomXS128(BenchmarkWorld.DEFAULT_SEED);
+        float halfExtent = (float) Math.ceil(Math.sqrt(bodyCount));
+        origins = new float[rayCount * 3];
+        ends = new float[rayCount * 3];
+        for (int i = 0; i < rayCount; i++) {
+            float x = random.nextFloat() * halfExtent * 2 - halfExtent;
+            float z = random.nextFloat() * halfExtent * 2 - halfExtent;
+            origins[i * 3] = x;
+            origins[i * 3 + 1] = 30f;
+            origins[i * 3 + 2] = z;
+            ends[i * 3] = x;
+            ends[i * 3 + 1] = -10f;
+            ends[i * 3 + 2] = z;
+        }
+
+        results = new RaycastResults(rayCount);
+        for (int i = 0; i < rayCount; i++) {
+            from.set(origins[i * 3], origins[i * 3 + 1], origins[i * 3 + 2]);
+            to.set(ends[i * 3], ends[i * 3 + 1], ends[i * 3 + 2]);
+            queryBatch.addRay(from, to);
+        }
+        callback = new ClosestRayResultCallback(new Vector3(), new Vector3());
+        hitPoints = new float[rayCount * 3];
+        checkPerRayMatchesBatch();
+    }
+
+    private void checkPerRayMatchesBatch() {
+        int perRayHits = perRay();
+        int batchHits = batch();
+        if (perRayHits != batchHits || batchHits == 0) {
+            throw new GdxRuntimeException("One at a time rays hit " + perRayHits + " times, the batch " + batchHits);
+        }
+        for (int i = 0; i < rayCount; i++) {
+            if (!results.hasHit(i)) continue;
+            for (int axis = 0; axis < 3; axis++) {
+                if (hitPoints[i * 3 + axis] != results.hitPoints[i * 3 + axis]) {
+                    throw new GdxRuntimeException("Ray " + i + " hit at " + hitPoints[i * 3] + ", " + hitPoints[i * 3 + 1]
+                            + ", " + hitPoints[i * 3 + 2] + " one at a time, the batch at " + results.hitPoints[i * 3]
+                            + ", " + results.hitPoints[i * 3 + 1] + ", " + results.hitPoints[i * 3 + 2]);
+                }
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        callback.dispose();
+        world.dispose();
+    }
+
+    @Benchmark
+    public int perRay() {
+        int hits = 0;
+        for (int i = 0; i < rayCount; i++) {
+            int offset = i * 3;
+            from.set(origins[offset], origins[offset + 1], origins[offset + 2]);
+            to.set(ends[offset], ends[offset + 1], ends[offset + 2]);
+
+            // The callback interpolates the hit point between its own ray ends
+            callback.setClosestHitFraction(1.0f);
+            callback.setCollisionObject(null);
+            callback.setRayFromWorld(from);
+            callback.setRayToWorld(to);
+            physicsSystem.raycast(from, to, callback);
+
+            if (callback.hasHit()) {
+                callback.getHitPointWorld(hitPoint);
+                hitPoints[offset] = hitPoint.x;
+                hitPoints[offset + 1] = hitPoint.y;
+                hitPoints[offset + 2] = hitPoint.z;
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    @Benchmark
+    public int batch() {
+        return physicsSystem.raycast(origins, ends, rayCount, results);
+    }
+
+    @Benchmark
+    public QueryBatch parallel() {
+        physicsSystem.runQueries(queryBatch);
+        return queryBatch;
+    }
+}
@@ -0,0 +1,86 @@
+package com.jpcodes.physics.benchmarks;
+
+import com.badlogic.gdx.physics.bullet.dynamics.btRigidBody;
+import com.badlogic.gdx.utils.Array;
+import com.jpcodes.physics.RollbackBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Step time with and without the {@link RollbackBuffer} recording the state of every body after each step,
+ * the per tick cost of rollback netcode.
+ * <p>
+ * Recording copies the state of an active body over JNI but reuses the last copy of a sleeping one, so an awake
+ * pile and a settled one are timed apart. Either world is built once per trial.
+ *
+ * @author JamesTKhan
+ * @version October 18, 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RollbackBenchmark {
+    private static final int FRAMES = 64;
+    private static final int SETTLE_STEPS = 5 * 60;
+
+    public enum PileState {
+        AWAKE,
+        SLEEPING
+    }
+
+    @Param({"1000", "10000"})
+    public int bodyCount;
+
+    @Param({"false", "true"})
+    public boolean record;
+
+    @Param({"AWAKE", "SLEEPING"})
+    public PileState pile;
+
+    private BenchmarkWorld world;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        world = new BenchmarkWorld(bodyCount, BenchmarkWorld.ShapeMix.MIXED);
+        if (pile == PileState.AWAKE) {
+            world.keepAwake();
+        } else {
+            world.settle(SETTLE_STEPS);
+        }
+
+        if (record) {
+            // Ids must be unique, the floor comes first
+            Array<btRigidBody> bodies = world.getBodies();
+            for (int i = 0; i < bodies.size; i++) {
+                bodies.get(i).setUserValue(i);
+            }
+            world.getPhysicsSystem().enableRollback(FRAMES, bodies.size);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        world.dispose();
+    }
+
+    @Benchmark
+    public void step() {
+        world.getPhysicsSystem().step();
+    }
+}
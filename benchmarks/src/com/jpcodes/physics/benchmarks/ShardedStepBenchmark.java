@@ -0,0 +1,71 @@
+package com.jpcodes.physics.benchmarks;
+
+import com.jpcodes.physics.ShardedPhysicsSystem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Step time of a {@link ShardedPhysicsSystem} per number of strips, a single strip being the baseline.
+ * Strips only step in parallel up to the number of available cores.
+ * <p>
+ * The world is built once per trial and its bodies are kept awake, a settled pile would sleep and leave the
+ * strips nothing to step.
+ *
+ * @author JamesTKhan
+ * @version October 18, 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ShardedStepBenchmark {
+    private static final float STEP = 1 / 60f;
+
+    // Larger than any primitive of the benchmark world
+    private static final float GHOST_MARGIN = 3f;
+
+    @Param({"10000", "50000"})
+    public int bodyCount;
+
+    @Param({"1", "2", "4", "8"})
+    public int shardCount;
+
+    private BenchmarkWorld world;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkWorld.loadNatives();
+
+        // The grid of bodies spans the square root of the body count times the spacing of 2
+        float halfExtent = (float) Math.ceil(Math.sqrt(bodyCount));
+        ShardedPhysicsSystem shardedSystem = new ShardedPhysicsSystem(shardCount, -halfExtent, halfExtent, GHOST_MARGIN);
+
+        world = new BenchmarkWorld(bodyCount, BenchmarkWorld.ShapeMix.MIXED, BenchmarkWorld.DEFAULT_SEED, shardedSystem)
+                .keepAwake();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        world.dispose();
+    }
+
+    @Benchmark
+    public void step() {
+        world.getShardedSystem().step();
+    }
+}
@@ -0,0 +1,63 @@
+package com.jpcodes.physics.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures BulletPhysicsSystem.update(float) throughput per body count and shape mix.
+ * <p>
+ * AverageTime reports ns/step, SampleTime reports the step time percentiles (p99 included) and
+ * the gc profiler, attached by default by the jmh task, reports the allocation per step as gc.alloc.rate.norm.
+ * <p>
+ * The bodies are kept from sleeping, a pile settles within a few seconds of simulation and would otherwise go to sleep
+ * early in the first iteration, leaving the later ones to time a world with nothing to solve. The world is built once
+ * per trial, the warmup iterations cover the fall and the measured ones the contacts of the awake pile.
+ *
+ * @author JamesTKhan
+ * @version October 18, 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StepBenchmark {
+    private static final float STEP = 1 / 60f;
+
+    @Param({"100", "1000", "10000", "50000"})
+    public int bodyCount;
+
+    @Param({"MIXED", "BOX", "SPHERE"})
+    public BenchmarkWorld.ShapeMix shapeMix;
+
+    private BenchmarkWorld world;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        world = new BenchmarkWorld(bodyCount, shapeMix).keepAwake();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        world.dispose();
+    }
+
+    @Benchmark
+    public void step() {
+        world.getPhysicsSystem().update(STEP);
+    }
+}
@@ -0,0 +1,101 @@
+package com.jpcodes.physics.benchmarks;
+
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.physics.bullet.dynamics.btRigidBody;
+import com.badlogic.gdx.utils.Array;
+import com.jpcodes.physics.TransformExport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.FloatBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Step time when transforms reach Java through a MotionState per body, the upcall path, against the
+ * {@link TransformExport} writing them all into one buffer. Both cases read every position back once per step,
+ * as a renderer would.
+ * <p>
+ * The export is fed by the motion states Bullet called back in the step, EXPORT_POLLED drops the motion states so
+ * the export polls every body over JNI instead. The world is built once per trial and kept awake, a settled pile
+ * would leave nothing to write on either path.
+ *
+ * @author JamesTKhan
+ * @version October 18, 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransformExportBenchmark {
+
+    public enum TransformPath {
+        MOTION_STATE,
+        EXPORT,
+        EXPORT_POLLED
+    }
+
+    @Param({"1000", "10000"})
+    public int bodyCount;
+
+    @Param({"MOTION_STATE", "EXPORT", "EXPORT_POLLED"})
+    public TransformPath path;
+
+    private BenchmarkWorld world;
+    private TransformExport export;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        world = new BenchmarkWorld(bodyCount, BenchmarkWorld.ShapeMix.MIXED).keepAwake();
+
+        if (path != TransformPath.MOTION_STATE) {
+            // The floor comes first, every body gets its index as its id
+            Array<btRigidBody> bodies = world.getBodies();
+            for (int i = 0; i < bodies.size; i++) {
+                bodies.get(i).setUserValue(i);
+                if (path == TransformPath.EXPORT_POLLED) {
+                    bodies.get(i).setMotionState(null);
+                }
+            }
+            export = world.getPhysicsSystem().enableTransformExport(bodies.size);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        world.dispose();
+        export = null;
+    }
+
+    @Benchmark
+    public float step() {
+        world.getPhysicsSystem().step();
+
+        float sum = 0;
+        if (export != null) {
+            FloatBuffer buffer = export.getBuffer();
+            int count = export.getCapacity();
+            for (int i = 0; i < count; i++) {
+                sum += buffer.get(export.indexOf(TransformExport.POSITION_Y, i));
+            }
+        } else {
+            Array<Matrix4> transforms = world.getTransforms();
+            for (int i = 0; i < transforms.size; i++) {
+                sum += transforms.get(i).val[13];
+            }
+        }
+        return sum;
+    }
+}
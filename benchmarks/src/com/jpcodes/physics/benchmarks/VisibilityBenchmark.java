@@ -0,0 +1,124 @@
+package com.jpcodes.physics.benchmarks;
+
+import com.badlogic.gdx.graphics.PerspectiveCamera;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.math.collision.BoundingBox;
+import com.badlogic.gdx.physics.bullet.collision.btBoxShape;
+import com.badlogic.gdx.physics.bullet.dynamics.btRigidBody;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.jpcodes.physics.BulletPhysicsSystem;
+import com.jpcodes.physics.VisibilityQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to find the bodies inside a camera frustum, through the broadphase trees with a {@link VisibilityQuery}
+ * against testing the AABB of every body. The bodies are scattered over a square level, the camera looks over
+ * a corner of it with a draw distance, so a small share of the level is visible as in an open world.
+ *
+ * @author JamesTKhan
+ * @version October 17, 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VisibilityBenchmark {
+    private static final float DRAW_DISTANCE = 150f;
+
+    @Param({"10000", "100000"})
+    public int bodyCount;
+
+    private BulletPhysicsSystem physicsSystem;
+    private VisibilityQuery visibilityQuery;
+    private btBoxShape shape;
+    private final Array<btRigidBody> bodies = new Array<>();
+    private PerspectiveCamera camera;
+    private final IntArray visibleIds = new IntArray();
+
+    private final Vector3 aabbMin = new Vector3();
+    private final Vector3 aabbMax = new Vector3();
+    private final BoundingBox bounds = new BoundingBox();
+    private final Vector3 center = new Vector3();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkWorld.loadNatives();
+
+        physicsSystem = new BulletPhysicsSystem();
+        shape = new btBoxShape(new Vector3(0.5f, 0.5f, 0.5f));
+
+        // About 10 bodies per 100 square units
+        float halfExtent = (float) Math.sqrt(bodyCount * 10f) * 0.5f;
+        RandomXS128 random = new RandomXS128(BenchmarkWorld.DEFAULT_SEED);
+        for (int i = 0; i < bodyCount; i++) {
+            btRigidBody body = new btRigidBody(0, null, shape, Vector3.Zero);
+            body.setWorldTransform(new Matrix4().trn(random.nextFloat() * 2 * halfExtent - halfExtent,
+                    random.nextFloat() * 10, random.nextFloat() * 2 * halfExtent - halfExtent));
+            body.setUserValue(i + 1);
+            physicsSystem.addBody(body);
+            bodies.add(body);
+        }
+        // Builds the broadphase trees
+        physicsSystem.step();
+
+        camera = new PerspectiveCamera(60f, 1280, 720);
+        camera.near = 1f;
+        camera.far = 1000f;
+        camera.position.set(-halfExtent, 20, -halfExtent);
+        camera.lookAt(0, 0, 0);
+        camera.update();
+
+        visibilityQuery = physicsSystem.getVisibilityQuery();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        for (btRigidBody body : bodies) {
+            physicsSystem.removeBody(body);
+            body.dispose();
+        }
+        bodies.clear();
+        shape.dispose();
+        physicsSystem.dispose();
+    }
+
+    @Benchmark
+    public int broadphase() {
+        visibleIds.clear();
+        return visibilityQuery.cull(camera, DRAW_DISTANCE, visibleIds);
+    }
+
+    @Benchmark
+    public int linear() {
+        visibleIds.clear();
+        for (int i = 0; i < bodies.size; i++) {
+            btRigidBody body = bodies.get(i);
+            body.getAabb(aabbMin, aabbMax);
+            bounds.set(aabbMin, aabbMax);
+            if (camera.frustum.boundsInFrustum(bounds)
+                    && bounds.getCenter(center).sub(camera.position).dot(camera.direction) <= DRAW_DISTANCE) {
+                visibleIds.add(body.getUserValue());
+            }
+        }
+        return visibleIds.size;
+    }
+}
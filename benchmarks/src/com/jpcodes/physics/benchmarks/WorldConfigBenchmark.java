@@ -0,0 +1,80 @@
+package com.jpcodes.physics.benchmarks;
+
+import com.badlogic.gdx.math.Vector3;
+import com.jpcodes.physics.PhysicsWorldBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Step time for every combination of broadphase, solver and pool size a {@link PhysicsWorldBuilder} offers.
+ * The full matrix takes a while, narrow it down with -p, ex. -Pjmh="WorldConfigBenchmark -p bodyCount=10000".
+ * <p>
+ * The world is built once per trial and kept awake, the warmup covers the fall and the measured steps solve the
+ * whole pile, not sleeping islands or the construction of the world.
+ *
+ * @author JamesTKhan
+ * @version October 18, 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WorldConfigBenchmark {
+    private static final float STEP = 1 / 60f;
+
+    // Fits the largest benchmark world, 50000 bodies cover about 450 by 450 units
+    private static final Vector3 WORLD_MIN = new Vector3(-300, -50, -300);
+    private static final Vector3 WORLD_MAX = new Vector3(300, 100, 300);
+
+    @Param({"1000", "10000", "50000"})
+    public int bodyCount;
+
+    @Param({"DBVT", "AXIS_SWEEP"})
+    public PhysicsWorldBuilder.Broadphase broadphase;
+
+    @Param({"SEQUENTIAL_IMPULSE", "NNCG"})
+    public PhysicsWorldBuilder.Solver solver;
+
+    @Param({"4096", "65536"})
+    public int poolSize;
+
+    private BenchmarkWorld world;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        PhysicsWorldBuilder builder = new PhysicsWorldBuilder()
+                .broadphase(broadphase)
+                .worldBounds(WORLD_MIN, WORLD_MAX)
+                .maxObjects(bodyCount + 1)
+                .solver(solver)
+                .poolSizes(poolSize, poolSize);
+
+        world = new BenchmarkWorld(bodyCount, BenchmarkWorld.ShapeMix.MIXED, BenchmarkWorld.DEFAULT_SEED, builder)
+                .keepAwake();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        world.dispose();
+    }
+
+    @Benchmark
+    public void step() {
+        world.getPhysicsSystem().update(STEP);
+    }
+}
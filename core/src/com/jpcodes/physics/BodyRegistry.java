@@ -0,0 +1,172 @@
+package com.jpcodes.physics;
+
+import com.badlogic.gdx.physics.bullet.dynamics.btRigidBody;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Tracks which rigid bodies of a {@link BulletPhysicsSystem} moved, woke up or fell asleep, so systems downstream
+ * of the physics only touch the active bodies instead of every body of the world.
+ * <p>
+ * Bullet only calls the motion states of active bodies after a step, those calls are what the registry records.
+ * Only bodies with a {@link MotionState}, or an {@link InterpolatedMotionState}, are tracked. A frame is one
+ * update of the system that stepped at least once, or one direct step, the lists describe the last frame
+ * and stay as they are until the next one, see {@link #getFrame()}.
+ * <p>
+ * Everything here costs O(active bodies) per frame. Read the lists while holding the monitor of the system when
+ * it is stepped on another thread.
+ *
+ * @author JamesTKhan
+ * @version October 18, 2026
+ */
+public class BodyRegistry {
+    private int bodyCount;
+    private int frame;
+
+    // Motion states that moved in the current and in the previous frame
+    private Array<MotionState> moved = new Array<>(false, 64);
+    private Array<MotionState> previousMoved = new Array<>(false, 64);
+
+    // Motion states that moved in the current step, Bullet calls each of them at most once per step
+    private final Array<MotionState> stepMoved = new Array<>(false, 64);
+
+    private final Array<btRigidBody> dirtyBodies = new Array<>(false, 64);
+    private final Array<btRigidBody> wokenBodies = new Array<>(false, 16);
+    private final Array<btRigidBody> sleptBodies = new Array<>(false, 16);
+
+    /**
+     * @return whether the body is tracked, it needs a {@link MotionState}
+     */
+    boolean add(btRigidBody body) {
+        if (!(body.getMotionState() instanceof MotionState)) return false;
+
+        MotionState motionState = (MotionState) body.getMotionState();
+        motionState.registry = this;
+        motionState.body = body;
+        motionState.movedFrame = -1;
+        motionState.previousMovedFrame = -1;
+        bodyCount++;
+        return true;
+    }
+
+    void remove(btRigidBody body) {
+        if (!(body.getMotionState() instanceof MotionState)) return;
+
+        MotionState motionState = (MotionState) body.getMotionState();
+        if (motionState.registry != this) return;
+
+        moved.removeValue(motionState, true);
+        previousMoved.removeValue(motionState, true);
+        stepMoved.removeValue(motionState, true);
+        dirtyBodies.removeValue(body, true);
+        wokenBodies.removeValue(body, true);
+        sleptBodies.removeValue(body, true);
+
+        motionState.registry = null;
+        motionState.body = null;
+        bodyCount--;
+    }
+
+    /**
+     * Starts a new frame, called before its first step
+     */
+    void begin() {
+        Array<MotionState> swap = previousMoved;
+        previousMoved = moved;
+        moved = swap;
+        moved.clear();
+        frame++;
+    }
+
+    /**
+     * Starts a new step of the current frame, called before every step
+     */
+    void beginStep() {
+        stepMoved.clear();
+    }
+
+    /**
+     * Called from the motion state of a tracked body whenever Bullet moves it
+     */
+    void moved(MotionState motionState) {
+        stepMoved.add(motionState);
+        if (motionState.movedFrame == frame) return;
+
+        motionState.previousMovedFrame = motionState.movedFrame;
+        motionState.movedFrame = frame;
+        moved.add(motionState);
+    }
+
+    /**
+     * Builds the lists of the frame, called after its last step
+     */
+    void end() {
+        dirtyBodies.clear();
+        wokenBodies.clear();
+        sleptBodies.clear();
+
+        for (int i = 0; i < moved.size; i++) {
+            MotionState motionState = moved.get(i);
+            dirtyBodies.add(motionState.body);
+            if (motionState.previousMovedFrame != frame - 1) {
+                wokenBodies.add(motionState.body);
+            }
+        }
+
+        // Active last frame, not moved anymore, so deactivated by Bullet
+        for (int i = 0; i < previousMoved.size; i++) {
+            MotionState motionState = previousMoved.get(i);
+            if (motionState.movedFrame != frame) {
+                sleptBodies.add(motionState.body);
+            }
+        }
+    }
+
+    /**
+     * @return the number of bodies that moved so far in the current frame, the dirty bodies once it ends
+     */
+    int getMovedCount() {
+        return moved.size;
+    }
+
+    /**
+     * @return the motion states Bullet moved in the current step, or the last one between steps
+     */
+    Array<MotionState> getStepMoved() {
+        return stepMoved;
+    }
+
+    /**
+     * @return the bodies whose transform changed in the last frame, do not modify
+     */
+    public Array<btRigidBody> getDirtyBodies() {
+        return dirtyBodies;
+    }
+
+    /**
+     * @return the bodies that moved in the last frame but not in the one before, a subset of the dirty bodies
+     */
+    public Array<btRigidBody> getWokenBodies() {
+        return wokenBodies;
+    }
+
+    /**
+     * @return the bodies that moved in the frame before the last one but not anymore, they fell asleep
+     */
+    public Array<btRigidBody> getSleptBodies() {
+        return sleptBodies;
+    }
+
+    /**
+     * @return the number of tracked bodies, awake or not
+     */
+    public int getBodyCount() {
+        return bodyCount;
+    }
+
+    /**
+     * @return the number of frames so far, changes whenever the lists do
+     */
+    public int getFrame() {
+        return frame;
+    }
+}
@@ -10,6 +10,7 @@ import com.badlogic.gdx.physics.bullet.dynamics.btRigidBody;
 public class BulletEntity {
     private final btRigidBody body;
     private final ModelInstance modelInstance;
+    private int id = EntityRegistry.NO_ID;
 
     public BulletEntity(btRigidBody body, ModelInstance modelInstance) {
         this.body = body;
@@ -23,4 +24,15 @@ public class BulletEntity {
     public btRigidBody getBody() {
         return body;
     }
+
+    /**
+     * @return the id given by an {@link EntityRegistry}, also the user value of the body, or {@link EntityRegistry#NO_ID}
+     */
+    public int getId() {
+        return id;
+    }
+
+    void setId(int id) {
+        this.id = id;
+    }
 }
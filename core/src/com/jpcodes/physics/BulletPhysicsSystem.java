@@ -1,25 +1,39 @@
 package com.jpcodes.physics;
 
 import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.math.Matrix4;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.physics.bullet.DebugDrawer;
 import com.badlogic.gdx.physics.bullet.collision.ClosestRayResultCallback;
+import com.badlogic.gdx.physics.bullet.collision.CollisionJNI;
 import com.badlogic.gdx.physics.bullet.collision.RayResultCallback;
 import com.badlogic.gdx.physics.bullet.collision.btBroadphaseInterface;
 import com.badlogic.gdx.physics.bullet.collision.btCollisionConfiguration;
 import com.badlogic.gdx.physics.bullet.collision.btCollisionDispatcher;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionObject;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionObjectArray;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionWorld;
 import com.badlogic.gdx.physics.bullet.collision.btDbvtBroadphase;
-import com.badlogic.gdx.physics.bullet.collision.btDefaultCollisionConfiguration;
 import com.badlogic.gdx.physics.bullet.collision.btDispatcher;
+import com.badlogic.gdx.physics.bullet.collision.btManifoldPoint;
+import com.badlogic.gdx.physics.bullet.collision.btPersistentManifold;
 import com.badlogic.gdx.physics.bullet.dynamics.btConstraintSolver;
 import com.badlogic.gdx.physics.bullet.dynamics.btDiscreteDynamicsWorld;
 import com.badlogic.gdx.physics.bullet.dynamics.btDynamicsWorld;
 import com.badlogic.gdx.physics.bullet.dynamics.btRigidBody;
-import com.badlogic.gdx.physics.bullet.dynamics.btSequentialImpulseConstraintSolver;
 import com.badlogic.gdx.physics.bullet.linearmath.btIDebugDraw;
+import com.badlogic.gdx.physics.bullet.linearmath.btMotionState;
+import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.nio.FloatBuffer;
 
 /**
+ * The world is guarded by this system's monitor, when a {@link SimulationThread} steps the world any direct
+ * access to bodies from another thread must synchronize on this system as well.
+ *
  * @author JamesTKhan
  * @version September 29, 2022
  */
@@ -30,6 +44,11 @@ public class BulletPhysicsSystem implements Disposable {
      * Stores all btCollisionObjects and provides an interface to
      * perform queries.
      */
+    private final btCollisionWorld collisionWorld;
+
+    /**
+     * The same world as the collision world when simulating dynamics, null in collision only mode.
+     */
     private final btDynamicsWorld dynamicsWorld;
 
     /**
@@ -50,49 +69,271 @@ public class BulletPhysicsSystem implements Disposable {
      */
     private final btBroadphaseInterface broadphase;
 
+    /**
+     * Null in collision only mode
+     */
     private final btConstraintSolver constraintSolver;
 
-    private final DebugDrawer debugDrawer;
+    /**
+     * Which layers collide, read by the layered add methods
+     */
+    private final CollisionLayers collisionLayers;
+
+    /**
+     * Manual pairwise narrowphase queries, created on first use
+     */
+    private ContactQuery contactQuery;
+
+    /**
+     * Frustum queries on the broadphase trees, created on first use
+     */
+    private VisibilityQuery visibilityQuery;
+
+    /**
+     * Created on first debug render, the DebugDrawer needs a GL context which lets the
+     * system run headless as long as nothing is drawn.
+     */
+    private DebugDrawer debugDrawer;
+
+    private float fixedTimeStep = 1/60f;
+    private int maxSubSteps = 5;
+
+    /**
+     * Time not yet simulated, always less than one fixed time step after an update.
+     */
+    private float accumulator = 0f;
 
-    private final float fixedTimeStep = 1/60f;
+    private final Array<InterpolatedMotionState> interpolatedStates = new Array<>();
+
+    private final BodyRegistry bodyRegistry = new BodyRegistry();
 
     // Debug drawing ray casts
     private final Vector3 lastRayFrom = new Vector3();
     private final Vector3 lastRayTo = new Vector3();
     private final Vector3 rayColor = new Vector3(1, 0, 1);
 
+    private final Vector3 tmpPosition = new Vector3();
+    private final Vector3 tmpNormal = new Vector3();
+
+    // Batched raycasts
+    private final Vector3 rayFrom = new Vector3();
+    private final Vector3 rayTo = new Vector3();
+    private ClosestRayResultCallback batchCallback;
+
+    private QueryPhase queryPhase;
+
+    private TransformExport transformExport;
+
+    private ContactEvents contactEvents;
+
+    private RollbackBuffer rollbackBuffer;
+
+    /**
+     * Null unless built with profiling
+     */
+    private final StepProfiler profiler;
+
+    /**
+     * Fixed steps taken so far, rewound along with the world by the rollback buffer
+     */
+    private int stepCount;
+
+    // Filtering of the bodies being reinserted
+    private final IntArray reinsertGroups = new IntArray();
+    private final IntArray reinsertMasks = new IntArray();
+    // The plain collision objects being reinserted along with the bodies, and their filtering
+    private final Array<btCollisionObject> reinsertObjects = new Array<>();
+    private final IntArray reinsertObjectGroups = new IntArray();
+    private final IntArray reinsertObjectMasks = new IntArray();
+
     public BulletPhysicsSystem() {
-        collisionConfig = new btDefaultCollisionConfiguration();
-        dispatcher = new btCollisionDispatcher(collisionConfig);
+        this(false);
+    }
+
+    /**
+     * @param collisionOnly when true the system holds a btCollisionWorld without any dynamics, for pure collision
+     *                      queries between objects moved by hand. See {@link #addCollisionObject(btCollisionObject)}
+     *                      and {@link #collectContacts(ContactResults)}.
+     */
+    public BulletPhysicsSystem(boolean collisionOnly) {
+        this(new PhysicsWorldBuilder().collisionOnly(collisionOnly));
+    }
 
-        // General purpose, well optimized broadphase, adapts dynamically to the dimensions of the world.
-        broadphase = new btDbvtBroadphase();
-        constraintSolver = new btSequentialImpulseConstraintSolver();
-        dynamicsWorld = new btDiscreteDynamicsWorld(dispatcher, broadphase, constraintSolver, collisionConfig);
+    /**
+     * @param builder picks the broadphase, solver and pool sizes of the world, see {@link PhysicsWorldBuilder#build()}
+     */
+    public BulletPhysicsSystem(PhysicsWorldBuilder builder) {
+        collisionConfig = builder.createCollisionConfiguration();
+        dispatcher = new btCollisionDispatcher(collisionConfig);
+        broadphase = builder.createBroadphase();
+        collisionLayers = builder.getCollisionLayers();
 
-        debugDrawer = new DebugDrawer();
-        debugDrawer.setDebugMode(btIDebugDraw.DebugDrawModes.DBG_DrawWireframe);
+        if (builder.isCollisionOnly()) {
+            constraintSolver = null;
+            dynamicsWorld = null;
+            collisionWorld = new btCollisionWorld(dispatcher, broadphase, collisionConfig);
+        } else {
+            constraintSolver = builder.createConstraintSolver();
+            dynamicsWorld = new btDiscreteDynamicsWorld(dispatcher, broadphase, constraintSolver, collisionConfig);
+            dynamicsWorld.getSolverInfo().setNumIterations(builder.getSolverIterations());
+            collisionWorld = dynamicsWorld;
+        }
 
-        dynamicsWorld.setDebugDrawer(debugDrawer);
+        if (builder.isProfiling()) {
+            profiler = new StepProfiler(this);
+            if (dynamicsWorld != null) {
+                profiler.attach(dynamicsWorld);
+            }
+        } else {
+            profiler = null;
+        }
     }
 
     /**
-     * Update physics world, should be called every frame
+     * Update physics world, should be called every frame.
+     * In collision only mode this runs collision detection on the current object transforms.
      * @param delta deltaTime since last frame
      */
-    public void update(float delta) {
+    public synchronized void update(float delta) {
+        if (dynamicsWorld == null) {
+            detectCollisions();
+            return;
+        }
+
+        // The accumulator is kept here rather than in Bullet so the remainder can be used to interpolate
+        accumulator += delta;
+
+        int subSteps = 0;
+        while (accumulator >= fixedTimeStep && subSteps < maxSubSteps) {
+            if (subSteps == 0) {
+                bodyRegistry.begin();
+            }
+            stepWorld();
+            accumulator -= fixedTimeStep;
+            subSteps++;
+        }
+
+        // All the steps of one update make a single frame of the registry
+        if (subSteps > 0) {
+            bodyRegistry.end();
+        }
+        if (profiler != null) {
+            profiler.recordUpdate(subSteps);
+        }
+
+        // Too far behind, drop the time we could not simulate like Bullet does
+        if (accumulator >= fixedTimeStep) {
+            accumulator %= fixedTimeStep;
+        }
+
+        interpolate(accumulator / fixedTimeStep);
+    }
+
+    /**
+     * Blends the render transforms of the interpolated bodies between the last two steps. Only the bodies that moved
+     * or fell asleep in the last frame of the registry are blended, every other body already rests on its last step.
+     * @param alpha how far between the previous (0) and current (1) step the render time is
+     */
+    private void interpolate(float alpha) {
+        interpolate(bodyRegistry.getDirtyBodies(), alpha);
+        interpolate(bodyRegistry.getSleptBodies(), alpha);
+    }
+
+    private void interpolate(Array<btRigidBody> bodies, float alpha) {
+        for (int i = 0; i < bodies.size; i++) {
+            btMotionState motionState = bodies.get(i).getMotionState();
+            if (motionState instanceof InterpolatedMotionState) {
+                ((InterpolatedMotionState) motionState).interpolate(alpha);
+            }
+        }
+    }
+
+    /**
+     * Advance the physics world by exactly one fixed time step, used when stepping at a fixed rate
+     * from a {@link SimulationThread} instead of once per frame.
+     */
+    public synchronized void step() {
+        if (dynamicsWorld == null) {
+            detectCollisions();
+            return;
+        }
+
+        bodyRegistry.begin();
+        stepWorld();
+        bodyRegistry.end();
+    }
+
+    private void detectCollisions() {
+        if (profiler != null) {
+            profiler.beginStep();
+        }
+
+        // Broadphase then narrowphase only on the pairs whose AABBs overlap
+        collisionWorld.performDiscreteCollisionDetection();
+
+        if (profiler != null) {
+            profiler.endPhase(StepProfiler.Metric.SIMULATION_TIME);
+        }
+        updateContactEvents();
+        if (profiler != null) {
+            profiler.endStep(dispatcher, broadphase, -1);
+        }
+    }
+
+    private void stepWorld() {
+        if (profiler != null) {
+            profiler.beginStep();
+        }
+
+        for (int i = 0; i < interpolatedStates.size; i++) {
+            interpolatedStates.get(i).beginStep();
+        }
+        bodyRegistry.beginStep();
+
         // performs collision detection and physics simulation
-        dynamicsWorld.stepSimulation(delta, 5, fixedTimeStep);
+        // With maxSubSteps of 0 Bullet takes the time step as is, without its own accumulator
+        dynamicsWorld.stepSimulation(fixedTimeStep, 0, fixedTimeStep);
+
+        if (profiler != null) {
+            profiler.endPhase(StepProfiler.Metric.SYNC_TIME);
+        }
+
+        stepCount++;
+
+        if (transformExport != null) {
+            transformExport.update(bodyRegistry.getStepMoved());
+        }
+        updateContactEvents();
+
+        if (rollbackBuffer != null) {
+            rollbackBuffer.record(stepCount);
+        }
+
+        if (profiler != null) {
+            profiler.endStep(dispatcher, broadphase, bodyRegistry.getMovedCount());
+        }
+    }
+
+    private void updateContactEvents() {
+        if (contactEvents != null) {
+            contactEvents.update(dispatcher);
+        }
     }
 
     /**
      * Debug draw the physics world
      * @param camera camera to render to
      */
-    public void render(Camera camera) {
+    public synchronized void render(Camera camera) {
+        if (debugDrawer == null) {
+            debugDrawer = new DebugDrawer();
+            debugDrawer.setDebugMode(btIDebugDraw.DebugDrawModes.DBG_DrawWireframe);
+            collisionWorld.setDebugDrawer(debugDrawer);
+        }
+
         debugDrawer.begin(camera);
         debugDrawer.drawLine(lastRayFrom, lastRayTo, rayColor);
-        dynamicsWorld.debugDrawWorld();
+        collisionWorld.debugDrawWorld();
         debugDrawer.end();
     }
 
@@ -100,8 +341,138 @@ public class BulletPhysicsSystem implements Disposable {
      * Add a rigid body to the physics world
      * @param body the body to add
      */
-    public void addBody(btRigidBody body) {
+    public synchronized void addBody(btRigidBody body) {
+        if (dynamicsWorld == null) {
+            throw new GdxRuntimeException("Rigid bodies can not be added in collision only mode");
+        }
+
         dynamicsWorld.addRigidBody(body);
+        registerBody(body);
+    }
+
+    /**
+     * Add a rigid body to the physics world on a collision layer, it only collides with the layers the
+     * {@link CollisionLayers} of the system lets it collide with.
+     * @param body the body to add
+     * @param layer the layer of the body, ex. {@link CollisionLayers#DEBRIS}
+     */
+    public synchronized void addBody(btRigidBody body, int layer) {
+        if (dynamicsWorld == null) {
+            throw new GdxRuntimeException("Rigid bodies can not be added in collision only mode");
+        }
+
+        dynamicsWorld.addRigidBody(body, collisionLayers.getGroup(layer), collisionLayers.getMask(layer));
+        registerBody(body);
+    }
+
+    /**
+     * Adds a rigid body with a raw filter group and mask, used when loading a {@link PhysicsSnapshot}
+     */
+    synchronized void addRigidBody(btRigidBody body, int group, int mask) {
+        if (dynamicsWorld == null) {
+            throw new GdxRuntimeException("Rigid bodies can not be added in collision only mode");
+        }
+
+        dynamicsWorld.addRigidBody(body, group, mask);
+        registerBody(body);
+    }
+
+    private void registerBody(btRigidBody body) {
+        if (body.getMotionState() instanceof InterpolatedMotionState) {
+            interpolatedStates.add((InterpolatedMotionState) body.getMotionState());
+        }
+
+        bodyRegistry.add(body);
+
+        if (transformExport != null) {
+            transformExport.add(body);
+        }
+
+        if (rollbackBuffer != null) {
+            rollbackBuffer.add(body);
+        }
+    }
+
+    /**
+     * Remove a rigid body from the physics world, the body is not disposed
+     * @param body the body to remove
+     */
+    public synchronized void removeBody(btRigidBody body) {
+        if (dynamicsWorld == null) {
+            throw new GdxRuntimeException("Rigid bodies can not be removed in collision only mode");
+        }
+
+        dynamicsWorld.removeRigidBody(body);
+
+        if (body.getMotionState() instanceof InterpolatedMotionState) {
+            interpolatedStates.removeValue((InterpolatedMotionState) body.getMotionState(), true);
+        }
+
+        bodyRegistry.remove(body);
+        if (contactEvents != null) {
+            contactEvents.remove(body);
+        }
+
+        if (transformExport != null) {
+            transformExport.remove(body);
+        }
+
+        if (rollbackBuffer != null) {
+            rollbackBuffer.remove(body);
+        }
+    }
+
+    /**
+     * Add a plain collision object to the world, it is only moved by setting its world transform.
+     * @param collisionObject the collision object to add
+     */
+    public synchronized void addCollisionObject(btCollisionObject collisionObject) {
+        collisionWorld.addCollisionObject(collisionObject);
+    }
+
+    /**
+     * Add a plain collision object to the world on a collision layer, see {@link #addBody(btRigidBody, int)}
+     * @param collisionObject the collision object to add
+     * @param layer the layer of the object, ex. {@link CollisionLayers#SENSOR}
+     */
+    public synchronized void addCollisionObject(btCollisionObject collisionObject, int layer) {
+        collisionWorld.addCollisionObject(collisionObject, collisionLayers.getGroup(layer), collisionLayers.getMask(layer));
+    }
+
+    /**
+     * Remove a collision object from the world, the object is not disposed
+     * @param collisionObject the collision object to remove
+     */
+    public synchronized void removeCollisionObject(btCollisionObject collisionObject) {
+        collisionWorld.removeCollisionObject(collisionObject);
+        if (contactEvents != null) {
+            contactEvents.remove(collisionObject);
+        }
+    }
+
+    /**
+     * Collects every pair of objects in contact, along with their contact points, as found by the last update.
+     * One dispatcher pass covers the whole world, the broadphase has already rejected the pairs that are not close.
+     * @param results cleared and filled with the pairs in contact
+     */
+    public synchronized void collectContacts(ContactResults results) {
+        results.clear();
+
+        int numManifolds = dispatcher.getNumManifolds();
+        for (int i = 0; i < numManifolds; i++) {
+            // btPersistentManifold is a contact point cache to store contact points for a given pair of objects.
+            btPersistentManifold manifold = dispatcher.getManifoldByIndexInternal(i);
+            int numContacts = manifold.getNumContacts();
+            if (numContacts == 0) continue;
+
+            results.addPair(manifold.getBody0(), manifold.getBody1());
+            for (int j = 0; j < numContacts; j++) {
+                btManifoldPoint point = manifold.getContactPoint(j);
+                point.getPositionWorldOnB(tmpPosition);
+                point.getNormalWorldOnB(tmpNormal);
+                results.addPoint(tmpPosition, tmpNormal, point.getDistance());
+            }
+        }
     }
 
     /**
@@ -110,10 +481,13 @@ public class BulletPhysicsSystem implements Disposable {
      * @param to the end position of the ray
      * @param callback the callback object to use
      */
-    public void raycast(Vector3 from, Vector3 to, RayResultCallback callback) {
+    public synchronized void raycast(Vector3 from, Vector3 to, RayResultCallback callback) {
         lastRayFrom.set(from).sub(0, 5f, 0f);
+        if (profiler != null) {
+            profiler.countRaycasts(1);
+        }
 
-        dynamicsWorld.rayTest(from, to, callback);
+        collisionWorld.rayTest(from, to, callback);
 
         if (callback.hasHit() && callback instanceof ClosestRayResultCallback) {
             // Use interpolation to determine the hitpoint where the ray hit the object
@@ -125,12 +499,453 @@ public class BulletPhysicsSystem implements Disposable {
         }
     }
 
+    /**
+     * Perform a batch of raycasts in the physics world, with a single reusable callback and without
+     * the debug ray bookkeeping of {@link #raycast(Vector3, Vector3, RayResultCallback)}.
+     * @param origins xyz of each ray origin
+     * @param ends xyz of each ray end
+     * @param rayCount the number of rays to cast
+     * @param results filled with the closest hit of each ray, needs a capacity of at least rayCount
+     * @return the number of rays that hit something
+     */
+    public synchronized int raycast(float[] origins, float[] ends, int rayCount, RaycastResults results) {
+        ClosestRayResultCallback callback = getBatchCallback();
+        if (profiler != null) {
+            profiler.countRaycasts(rayCount);
+        }
+
+        int hits = 0;
+        for (int i = 0; i < rayCount; i++) {
+            int offset = i * 3;
+            rayFrom.set(origins[offset], origins[offset + 1], origins[offset + 2]);
+            rayTo.set(ends[offset], ends[offset + 1], ends[offset + 2]);
+
+            if (castBatchRay(callback, i, results)) hits++;
+        }
+
+        results.setHitCount(hits);
+        return hits;
+    }
+
+    /**
+     * Same as {@link #raycast(float[], float[], int, RaycastResults)}, reading the rays from buffers
+     * starting at their current position. The buffer positions are left unchanged.
+     */
+    public synchronized int raycast(FloatBuffer origins, FloatBuffer ends, int rayCount, RaycastResults results) {
+        ClosestRayResultCallback callback = getBatchCallback();
+        if (profiler != null) {
+            profiler.countRaycasts(rayCount);
+        }
+        int originStart = origins.position();
+        int endStart = ends.position();
+
+        int hits = 0;
+        for (int i = 0; i < rayCount; i++) {
+            int offset = i * 3;
+            rayFrom.set(origins.get(originStart + offset), origins.get(originStart + offset + 1), origins.get(originStart + offset + 2));
+            rayTo.set(ends.get(endStart + offset), ends.get(endStart + offset + 1), ends.get(endStart + offset + 2));
+
+            if (castBatchRay(callback, i, results)) hits++;
+        }
+
+        results.setHitCount(hits);
+        return hits;
+    }
+
+    private ClosestRayResultCallback getBatchCallback() {
+        if (batchCallback == null) {
+            batchCallback = new ClosestRayResultCallback(Vector3.Zero, Vector3.Z);
+        }
+        return batchCallback;
+    }
+
+    /**
+     * Casts the ray from rayFrom to rayTo and writes the closest hit to the results.
+     * @return true if the ray hit something
+     */
+    private boolean castBatchRay(ClosestRayResultCallback callback, int ray, RaycastResults results) {
+        // Reset the callback
+        callback.setClosestHitFraction(1.0f);
+        callback.setCollisionObject(null);
+        callback.setRayFromWorld(rayFrom);
+        callback.setRayToWorld(rayTo);
+
+        collisionWorld.rayTest(rayFrom, rayTo, callback);
+
+        if (!callback.hasHit()) {
+            results.hitFractions[ray] = 1f;
+            results.bodyIds[ray] = RaycastResults.NO_HIT;
+            return false;
+        }
+
+        int offset = ray * 3;
+        callback.getHitNormalWorld(tmpNormal);
+        callback.getHitPointWorld(tmpPosition);
+        results.hitFractions[ray] = callback.getClosestHitFraction();
+        results.bodyIds[ray] = callback.getCollisionObject().getUserValue();
+        results.hitNormals[offset] = tmpNormal.x;
+        results.hitNormals[offset + 1] = tmpNormal.y;
+        results.hitNormals[offset + 2] = tmpNormal.z;
+        results.hitPoints[offset] = tmpPosition.x;
+        results.hitPoints[offset + 1] = tmpPosition.y;
+        results.hitPoints[offset + 2] = tmpPosition.z;
+        return true;
+    }
+
+    /**
+     * Runs the queued ray and sweep queries of the batch in parallel, against the world as it is after the last step.
+     * Blocks until every result is written, holding the lock so the world is not stepped meanwhile.
+     */
+    public synchronized void runQueries(QueryBatch batch) {
+        if (queryPhase == null) {
+            queryPhase = new QueryPhase(Runtime.getRuntime().availableProcessors());
+        }
+        if (profiler != null) {
+            profiler.countQueries(batch);
+        }
+        queryPhase.run(collisionWorld, batch);
+    }
+
+    /**
+     * @return the service for manual pairwise contact queries, see {@link ContactQuery}
+     */
+    public synchronized ContactQuery getContactQuery() {
+        if (contactQuery == null) {
+            contactQuery = new ContactQuery(collisionConfig);
+        }
+        return contactQuery;
+    }
+
+    /**
+     * @return the service finding the objects inside a camera or light frustum, see {@link VisibilityQuery}.
+     * Needs the DBVT broadphase, the default.
+     */
+    public synchronized VisibilityQuery getVisibilityQuery() {
+        if (visibilityQuery == null) {
+            if (!(broadphase instanceof btDbvtBroadphase)) {
+                throw new GdxRuntimeException("Visibility queries need the DBVT broadphase");
+            }
+            visibilityQuery = new VisibilityQuery(this, (btDbvtBroadphase) broadphase);
+        }
+        return visibilityQuery;
+    }
+
+    /**
+     * @return the layer matrix of the layered add methods, changes only apply to objects added afterwards
+     */
+    public CollisionLayers getCollisionLayers() {
+        return collisionLayers;
+    }
+
+    /**
+     * @return the dispatcher holding the contact manifolds of the last step, for the package to inspect
+     */
+    btDispatcher getDispatcher() {
+        return dispatcher;
+    }
+
+    /**
+     * @return the number of overlapping pairs the broadphase let through, the pairs the narrowphase processes
+     */
+    public synchronized int getOverlappingPairCount() {
+        return broadphase.getOverlappingPairCache().getNumOverlappingPairs();
+    }
+
+    /**
+     * Turns on the contact events, from the next step on every pair of objects starting, staying or stopping
+     * in contact is reported. See {@link ContactEvents}.
+     * @param capacity the initial number of events the ring buffer holds
+     * @return the events, to be drained by the consumers
+     */
+    public synchronized ContactEvents enableContactEvents(int capacity) {
+        if (contactEvents == null) {
+            contactEvents = new ContactEvents(capacity);
+        }
+        return contactEvents;
+    }
+
+    /**
+     * @return the contact events, null unless enabled through {@link #enableContactEvents(int)}
+     */
+    public synchronized ContactEvents getContactEvents() {
+        return contactEvents;
+    }
+
+    /**
+     * @return the registry of the bodies that moved, woke up or fell asleep in the last update, see {@link BodyRegistry}
+     */
+    public BodyRegistry getBodyRegistry() {
+        return bodyRegistry;
+    }
+
+    /**
+     * Turns on the export of rigid body transforms into one direct buffer, see {@link TransformExport}.
+     * Every rigid body of the world, and every one added from now on, is exported in the slot of its user value,
+     * which must be unique and in [0, capacity).
+     * @param capacity the number of body slots
+     * @return the export, written after every step
+     */
+    public synchronized TransformExport enableTransformExport(int capacity) {
+        if (dynamicsWorld == null) {
+            throw new GdxRuntimeException("Transforms can not be exported in collision only mode");
+        }
+        if (transformExport != null) {
+            throw new GdxRuntimeException("The transform export is already enabled");
+        }
+        transformExport = new TransformExport(capacity);
+
+        btCollisionObjectArray objects = dynamicsWorld.getCollisionObjectArray();
+        for (int i = 0; i < objects.size(); i++) {
+            btCollisionObject object = objects.atConst(i);
+            if (object instanceof btRigidBody) {
+                transformExport.add((btRigidBody) object);
+            }
+        }
+        objects.dispose();
+        return transformExport;
+    }
+
+    /**
+     * @return the transform export, null unless enabled through {@link #enableTransformExport(int)}
+     */
+    public synchronized TransformExport getTransformExport() {
+        return transformExport;
+    }
+
+    /**
+     * @return the step profiler, null unless built with {@link PhysicsWorldBuilder#profiling(boolean)}
+     */
+    public StepProfiler getProfiler() {
+        return profiler;
+    }
+
+    /**
+     * Turns on the rollback buffer, from now on the state of every dynamic body is recorded after each fixed step
+     * so the world can be rewound to any of the last steps, see {@link RollbackBuffer}. The current state is
+     * recorded right away. Every rigid body needs a unique user value.
+     * @param frames the number of steps kept
+     * @param maxBodies the number of dynamic bodies a step can hold, its memory is allocated up front
+     * @return the rollback buffer
+     */
+    public synchronized RollbackBuffer enableRollback(int frames, int maxBodies) {
+        if (dynamicsWorld == null) {
+            throw new GdxRuntimeException("Rollback is not available in collision only mode");
+        }
+        if (rollbackBuffer != null) {
+            throw new GdxRuntimeException("The rollback buffer is already enabled");
+        }
+        rollbackBuffer = new RollbackBuffer(this, frames, maxBodies);
+
+        btCollisionObjectArray objects = dynamicsWorld.getCollisionObjectArray();
+        for (int i = 0; i < objects.size(); i++) {
+            btCollisionObject object = objects.atConst(i);
+            if (object instanceof btRigidBody) {
+                rollbackBuffer.add((btRigidBody) object);
+            }
+        }
+        objects.dispose();
+
+        rollbackBuffer.record(stepCount);
+        return rollbackBuffer;
+    }
+
+    /**
+     * @return the rollback buffer, null unless enabled through {@link #enableRollback(int, int)}
+     */
+    public synchronized RollbackBuffer getRollbackBuffer() {
+        return rollbackBuffer;
+    }
+
+    /**
+     * @return the number of fixed steps taken so far, the step whose state the world is in
+     */
+    public synchronized int getStepCount() {
+        return stepCount;
+    }
+
+    /**
+     * Same as {@link #reinsertBodies(Array, IntArray, IntArray)}, each body keeping the filtering it has
+     */
+    synchronized void reinsertBodies(Array<btRigidBody> bodies) {
+        reinsertGroups.clear();
+        reinsertMasks.clear();
+        for (int i = 0; i < bodies.size; i++) {
+            long proxyPtr = getBroadphaseHandle(bodies.get(i));
+            reinsertGroups.add(CollisionJNI.btBroadphaseProxy_collisionFilterGroup_get(proxyPtr, null));
+            reinsertMasks.add(CollisionJNI.btBroadphaseProxy_collisionFilterMask_get(proxyPtr, null));
+        }
+        reinsertBodies(bodies, reinsertGroups, reinsertMasks);
+    }
+
+    /**
+     * Removes every rigid body and adds them back in the given order, on a broadphase and solver reset to their
+     * initial state. Plain collision objects, ex. sensors, are taken out as well and go back first, in the order they
+     * are in. Stepping afterwards only depends on the objects and not on the history of the world, which is what
+     * makes restoring a {@link PhysicsSnapshot} reproducible.
+     * @param bodies every rigid body of the world
+     * @param groups the filter group per body
+     * @param masks the filter mask per body
+     */
+    synchronized void reinsertBodies(Array<btRigidBody> bodies, IntArray groups, IntArray masks) {
+        if (dynamicsWorld == null) {
+            throw new GdxRuntimeException("Rigid bodies can not be reinserted in collision only mode");
+        }
+
+        btCollisionObjectArray objects = dynamicsWorld.getCollisionObjectArray();
+        reinsertObjects.clear();
+        reinsertObjectGroups.clear();
+        reinsertObjectMasks.clear();
+        for (int i = 0; i < objects.size(); i++) {
+            btCollisionObject object = objects.atConst(i);
+            if (!(object instanceof btRigidBody)) {
+                long proxyPtr = getBroadphaseHandle(object);
+                reinsertObjects.add(object);
+                reinsertObjectGroups.add(CollisionJNI.btBroadphaseProxy_collisionFilterGroup_get(proxyPtr, null));
+                reinsertObjectMasks.add(CollisionJNI.btBroadphaseProxy_collisionFilterMask_get(proxyPtr, null));
+            }
+        }
+
+        // Removed from the back, Bullet then finds each object at the end of its arrays
+        for (int i = objects.size() - 1; i >= 0; i--) {
+            btCollisionObject object = objects.atConst(i);
+            if (object instanceof btRigidBody) {
+                dynamicsWorld.removeRigidBody((btRigidBody) object);
+            } else {
+                dynamicsWorld.removeCollisionObject(object);
+            }
+        }
+        objects.dispose();
+
+        // Only possible once no proxy is left
+        broadphase.resetPool(dispatcher);
+        if (broadphase instanceof btDbvtBroadphase) {
+            // Left out by resetPool, the pair cleanup resumes where it was and would visit other pairs
+            btDbvtBroadphase dbvt = (btDbvtBroadphase) broadphase;
+            dbvt.setCid(0);
+            dbvt.setPid(0);
+            dbvt.setGid(0);
+        }
+        constraintSolver.reset();
+
+        for (int i = 0; i < reinsertObjects.size; i++) {
+            dynamicsWorld.addCollisionObject(reinsertObjects.get(i), reinsertObjectGroups.get(i),
+                    reinsertObjectMasks.get(i));
+        }
+        reinsertObjects.clear();
+        for (int i = 0; i < bodies.size; i++) {
+            dynamicsWorld.addRigidBody(bodies.get(i), groups.get(i), masks.get(i));
+        }
+    }
+
+    /**
+     * Moves a body to a recorded state, as if it had been simulated there. Its motion state and exported transform
+     * follow right away, without the body counting as moved by Bullet.
+     */
+    synchronized void setBodyState(btRigidBody body, Matrix4 transform, Vector3 linearVelocity, Vector3 angularVelocity,
+                                   int activationState, float deactivationTime) {
+        // Unlike setWorldTransform, also turns the inertia tensor to the new rotation
+        body.setCenterOfMassTransform(transform);
+        body.setLinearVelocity(linearVelocity);
+        body.setAngularVelocity(angularVelocity);
+        body.setInterpolationLinearVelocity(linearVelocity);
+        body.setInterpolationAngularVelocity(angularVelocity);
+        body.clearForces();
+        body.forceActivationState(activationState);
+        body.setDeactivationTime(deactivationTime);
+
+        btMotionState motionState = body.getMotionState();
+        if (motionState instanceof InterpolatedMotionState) {
+            ((InterpolatedMotionState) motionState).reset(transform);
+        } else if (motionState instanceof MotionState) {
+            ((MotionState) motionState).transform.set(transform);
+        }
+
+        if (transformExport != null) {
+            transformExport.refresh(body);
+        }
+    }
+
+    /**
+     * @return the pointer to the broadphase proxy of the object, read without a wrapper per call
+     */
+    static long getBroadphaseHandle(btCollisionObject object) {
+        return CollisionJNI.btCollisionObject_getBroadphaseHandle__SWIG_0(btCollisionObject.getCPtr(object), object);
+    }
+
+    // For the PhysicsSnapshot, which runs holding the monitor of the system
+    btCollisionWorld getCollisionWorld() {
+        return collisionWorld;
+    }
+
+    float getAccumulator() {
+        return accumulator;
+    }
+
+    void setAccumulator(float accumulator) {
+        this.accumulator = accumulator;
+    }
+
+    void setStepCount(int stepCount) {
+        this.stepCount = stepCount;
+    }
+
+    public float getFixedTimeStep() {
+        return fixedTimeStep;
+    }
+
+    /**
+     * Sets the fixed time step of the simulation, for example 1/30f to halve the simulation cost of big worlds.
+     * Bodies with an {@link InterpolatedMotionState} still render smoothly at any display rate.
+     * @param fixedTimeStep the time step in seconds
+     */
+    public synchronized void setFixedTimeStep(float fixedTimeStep) {
+        this.fixedTimeStep = fixedTimeStep;
+    }
+
+    /**
+     * Sets the maximum number of fixed steps a single update may take to catch up
+     */
+    public synchronized void setMaxSubSteps(int maxSubSteps) {
+        this.maxSubSteps = maxSubSteps;
+    }
+
     @Override
     public void dispose() {
-        collisionConfig.dispose();
-        dispatcher.dispose();
+        if (contactQuery != null) {
+            contactQuery.dispose();
+        }
+
+        if (visibilityQuery != null) {
+            visibilityQuery.dispose();
+        }
+
+        if (batchCallback != null) {
+            batchCallback.dispose();
+        }
+
+        if (queryPhase != null) {
+            queryPhase.dispose();
+        }
+
+        if (contactEvents != null) {
+            contactEvents.dispose();
+        }
+
+        if (profiler != null && dynamicsWorld != null) {
+            profiler.dispose(dynamicsWorld);
+        }
+
+        // The world references everything below it, so it goes first
+        collisionWorld.dispose();
+        if (constraintSolver != null) {
+            constraintSolver.dispose();
+        }
         broadphase.dispose();
-        constraintSolver.dispose();
-        dynamicsWorld.dispose();
+        dispatcher.dispose();
+        collisionConfig.dispose();
+
+        if (debugDrawer != null) {
+            debugDrawer.dispose();
+        }
     }
 }
@@ -0,0 +1,85 @@
+package com.jpcodes.physics;
+
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/**
+ * A matrix of which collision layers collide with which, turned into the Bullet collision filter group and mask of
+ * each layer. Pairs of objects on layers that do not collide are rejected when the broadphase finds them overlapping,
+ * they never reach the narrowphase.
+ * <p>
+ * The first layers use the same bits as Bullet's btBroadphaseProxy.CollisionFilterGroups, more layers can be used up
+ * to {@link #MAX_LAYERS}. By default every layer collides with every other one, except static with static, like
+ * Bullet's own defaults. The matrix is read when an object is added, set it up before adding objects.
+ * <pre>
+ * layers.setCollides(CollisionLayers.DEBRIS, CollisionLayers.DEBRIS, false);
+ * layers.setCollides(CollisionLayers.SENSOR, CollisionLayers.STATIC, false);
+ * </pre>
+ *
+ * @author JamesTKhan
+ * @version October 17, 2026
+ */
+public class CollisionLayers {
+    /** Collision filters are 16 bit in Bullet's broadphase proxies */
+    public static final int MAX_LAYERS = 16;
+
+    public static final int DEFAULT = 0;
+    public static final int STATIC = 1;
+    public static final int KINEMATIC = 2;
+    public static final int DEBRIS = 3;
+    public static final int SENSOR = 4;
+    public static final int CHARACTER = 5;
+
+    private final int[] masks = new int[MAX_LAYERS];
+
+    public CollisionLayers() {
+        int all = (1 << MAX_LAYERS) - 1;
+        for (int i = 0; i < MAX_LAYERS; i++) {
+            masks[i] = all;
+        }
+        setCollides(STATIC, STATIC, false);
+    }
+
+    /**
+     * Sets whether objects of the two layers collide, in both directions
+     */
+    public CollisionLayers setCollides(int layerA, int layerB, boolean collides) {
+        checkLayer(layerA);
+        checkLayer(layerB);
+        if (collides) {
+            masks[layerA] |= getGroup(layerB);
+            masks[layerB] |= getGroup(layerA);
+        } else {
+            masks[layerA] &= ~getGroup(layerB);
+            masks[layerB] &= ~getGroup(layerA);
+        }
+        return this;
+    }
+
+    public boolean collides(int layerA, int layerB) {
+        checkLayer(layerA);
+        checkLayer(layerB);
+        return (masks[layerA] & getGroup(layerB)) != 0;
+    }
+
+    /**
+     * @return the collision filter group of the layer, its bit
+     */
+    public int getGroup(int layer) {
+        checkLayer(layer);
+        return 1 << layer;
+    }
+
+    /**
+     * @return the collision filter mask of the layer, the bits of the layers it collides with
+     */
+    public int getMask(int layer) {
+        checkLayer(layer);
+        return masks[layer];
+    }
+
+    private static void checkLayer(int layer) {
+        if (layer < 0 || layer >= MAX_LAYERS) {
+            throw new GdxRuntimeException("Collision layer " + layer + " is not in [0, " + MAX_LAYERS + ")");
+        }
+    }
+}
@@ -0,0 +1,470 @@
+package com.jpcodes.physics;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.g3d.model.Node;
+import com.badlogic.gdx.graphics.g3d.model.NodePart;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.physics.bullet.collision.PHY_ScalarType;
+import com.badlogic.gdx.physics.bullet.collision.btBvhTriangleMeshShape;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionShape;
+import com.badlogic.gdx.physics.bullet.collision.btCompoundShape;
+import com.badlogic.gdx.physics.bullet.collision.btIndexedMesh;
+import com.badlogic.gdx.physics.bullet.collision.btOptimizedBvh;
+import com.badlogic.gdx.physics.bullet.collision.btTriangleIndexVertexArray;
+import com.badlogic.gdx.physics.bullet.linearmath.LinearMath;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.BufferUtils;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntIntMap;
+import com.badlogic.gdx.utils.StreamUtils;
+import com.jpcodes.physics.utils.Utils3D;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * Keeps the static triangle mesh shapes of level models on disk, so loading a level again skips gathering the
+ * triangles from the model and building the BVH. The first load builds the shape the way Bullet.obtainStaticNodeShape
+ * does, one btBvhTriangleMeshShape for the parts of all nodes sharing a transform, in a btCompoundShape when there are
+ * several transforms or the one transform is not the identity. The triangles and the quantized BVH of every mesh shape
+ * are written to a file named after a hash of the source model.
+ * <p>
+ * Later loads map that file and point Bullet at it, the vertices and indices are read from the mapping as they are and
+ * the BVH is deserialized in place. The mapping is private, copy on write, as Bullet fixes up the BVH header where it
+ * lies. Cache files hold native structures, they are only valid for the Bullet version, architecture and byte order that
+ * wrote them, which are part of the hash. A file that cannot be read is rebuilt.
+ * <p>
+ * A {@link LevelStreamer} given a cache keeps each of its tiles in a file of its own, named after the hash of the level
+ * source, the tile size and the tile, so streaming a tile in again or in a later run skips its BVH build as well.
+ * <p>
+ * The cache owns the shapes it hands out, {@link #dispose()} them after the bodies using them, or {@link #release}
+ * single shapes earlier. Shapes may be obtained on a loader thread while others are released on the render thread.
+ *
+ * @author JamesTKhan
+ * @version October 18, 2026
+ */
+public class CollisionShapeCache implements Disposable {
+    private static final String TAG = "CollisionShapeCache";
+    private static final int MAGIC = 0x42564843;
+    private static final int FORMAT_VERSION = 1;
+
+    // Every section starts on 16 bytes, the in place BVH needs it and the mapping itself is page aligned
+    private static final int ALIGNMENT = 16;
+    // Magic, version, part count, padding
+    private static final int HEADER_SIZE = 16;
+    // Transform, vertex count, triangle count, BVH size, padding
+    private static final int PART_HEADER_SIZE = 16 * 4 + 16;
+
+    private final FileHandle directory;
+    private final Array<Entry> entries = new Array<>();
+
+    /**
+     * A shape handed out and everything native it is made of
+     */
+    private static class Entry {
+        btCollisionShape shape;
+        final Array<btBvhTriangleMeshShape> meshShapes = new Array<>();
+        final Array<btTriangleIndexVertexArray> meshes = new Array<>();
+        final Array<btIndexedMesh> indexedMeshes = new Array<>();
+        // The mapped file or the buffers of a fresh build, Bullet reads the triangles and BVH from them
+        final Array<ByteBuffer> buffers = new Array<>();
+    }
+
+    /**
+     * Triangles of the node parts sharing a transform, in the layout of the cache file
+     */
+    private static class PartData {
+        final Matrix4 transform = new Matrix4();
+        // Gathered from the nodes before they are packed into the buffers
+        final FloatArray positions = new FloatArray();
+        final IntArray triangles = new IntArray();
+
+        ByteBuffer vertices;
+        ByteBuffer indices;
+        int vertexCount;
+        int triangleCount;
+        ByteBuffer bvh;
+    }
+
+    /**
+     * @param directory where the cache files are kept, created when missing
+     */
+    public CollisionShapeCache(FileHandle directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Returns the static shape of the nodes, from the cache file of the source when there is a valid one
+     * @param source the file the nodes were loaded from, its content is the key of the cache
+     * @param nodes the nodes of the model, only read when the cache has no valid file for the source
+     */
+    public btCollisionShape obtainStaticShape(FileHandle source, Array<Node> nodes) {
+        FileHandle file = directory.child(hash(source) + ".bvh");
+        if (file.exists()) {
+            try {
+                return load(file, -1, -1);
+            } catch (IOException | GdxRuntimeException e) {
+                Gdx.app.error(TAG, "Rebuilding unreadable cache file " + file.path(), e);
+            }
+        }
+
+        Array<PartData> partData = new Array<>();
+        gatherNodes(nodes, new IntIntMap(), partData);
+        if (partData.size == 0) {
+            throw new GdxRuntimeException("The nodes have no triangles");
+        }
+        return buildAndWrite(file, partData);
+    }
+
+    /**
+     * Returns a btBvhTriangleMeshShape of the triangles, from the cache file of the name when there is a valid one
+     * @param name the name of the triangles in the cache, made of the {@link #hash(FileHandle)} of their source and
+     *             where in the source they are from
+     * @param vertices x, y and z of every vertex, only read when the cache has no valid file for the name
+     * @param indices three indices into the vertices per triangle
+     */
+    btCollisionShape obtainMeshShape(String name, float[] vertices, int[] indices) {
+        FileHandle file = directory.child(name + ".bvh");
+        if (file.exists()) {
+            try {
+                return load(file, vertices.length / 3, indices.length / 3);
+            } catch (IOException | GdxRuntimeException e) {
+                Gdx.app.error(TAG, "Rebuilding unreadable cache file " + file.path(), e);
+            }
+        }
+
+        PartData part = new PartData();
+        part.positions.addAll(vertices);
+        part.triangles.addAll(indices);
+        Array<PartData> partData = new Array<>();
+        partData.add(part);
+        return buildAndWrite(file, partData);
+    }
+
+    private btCollisionShape buildAndWrite(FileHandle file, Array<PartData> partData) {
+        Entry entry = build(partData);
+        try {
+            write(file, partData);
+        } catch (IOException e) {
+            Gdx.app.error(TAG, "Could not write cache file " + file.path(), e);
+        }
+        return entry.shape;
+    }
+
+    private Entry build(Array<PartData> out) {
+        Entry entry = new Entry();
+        for (PartData part : out) {
+            part.vertexCount = part.positions.size / 3;
+            part.triangleCount = part.triangles.size / 3;
+            part.vertices = BufferUtils.newByteBuffer(part.positions.size * 4);
+            part.vertices.asFloatBuffer().put(part.positions.items, 0, part.positions.size);
+            part.indices = BufferUtils.newByteBuffer(part.triangles.size * 4);
+            part.indices.asIntBuffer().put(part.triangles.items, 0, part.triangles.size);
+
+            btBvhTriangleMeshShape shape = new btBvhTriangleMeshShape(createMesh(entry, part), true);
+            entry.meshShapes.add(shape);
+            entry.buffers.add(part.vertices);
+            entry.buffers.add(part.indices);
+
+            // Serialized into an aligned window of a larger buffer, written to the file from there
+            btOptimizedBvh bvh = shape.getOptimizedBvh();
+            int size = (int) bvh.calculateSerializeBufferSize();
+            ByteBuffer buffer = BufferUtils.newByteBuffer(size + ALIGNMENT);
+            int offset = (int) (-BufferUtils.getUnsafeBufferAddress(buffer) & (ALIGNMENT - 1));
+            if (!bvh.serializeInPlace(BufferUtils.getUnsafeBufferAddress(buffer) + offset, size, false)) {
+                throw new GdxRuntimeException("Could not serialize the BVH");
+            }
+            part.bvh = slice(buffer, offset, size);
+        }
+        return finish(entry, out);
+    }
+
+    private static void gatherNodes(Iterable<Node> nodes, IntIntMap remap, Array<PartData> out) {
+        for (Node node : nodes) {
+            if (node.parts.size > 0) {
+                PartData data = null;
+                for (PartData part : out) {
+                    if (Arrays.equals(part.transform.val, node.globalTransform.val)) {
+                        data = part;
+                        break;
+                    }
+                }
+                if (data == null) {
+                    data = new PartData();
+                    data.transform.set(node.globalTransform);
+                    out.add(data);
+                }
+
+                for (NodePart nodePart : node.parts) {
+                    Utils3D.gatherTriangles(nodePart.meshPart, data.positions, data.triangles, remap);
+                }
+            }
+
+            if (node.hasChildren()) {
+                gatherNodes(node.getChildren(), remap, out);
+            }
+        }
+    }
+
+    /**
+     * @param vertexCount the vertices of the single mesh the file must hold, -1 for any meshes
+     * @param triangleCount the triangles of the single mesh the file must hold, -1 for any meshes
+     */
+    private btCollisionShape load(FileHandle file, int vertexCount, int triangleCount) throws IOException {
+        ByteBuffer buffer;
+        // Mapping privately needs a channel opened for writing, the file itself is never written
+        RandomAccessFile input = new RandomAccessFile(file.file(), "rw");
+        try {
+            buffer = input.getChannel().map(FileChannel.MapMode.PRIVATE, 0, input.length());
+        } finally {
+            StreamUtils.closeQuietly(input);
+        }
+        buffer.order(ByteOrder.nativeOrder());
+
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+            throw new GdxRuntimeException("Not a cache file of this version");
+        }
+
+        Array<PartData> partData = new Array<>();
+        int partCount = buffer.getInt(8);
+        int position = HEADER_SIZE;
+        for (int i = 0; i < partCount; i++) {
+            checkBounds(buffer, position, PART_HEADER_SIZE);
+            PartData part = new PartData();
+            for (int j = 0; j < 16; j++) {
+                part.transform.val[j] = buffer.getFloat(position + j * 4);
+            }
+            part.vertexCount = buffer.getInt(position + 64);
+            part.triangleCount = buffer.getInt(position + 68);
+            int bvhSize = buffer.getInt(position + 72);
+            position += PART_HEADER_SIZE;
+
+            int vertexSize = align(part.vertexCount * 12);
+            int indexSize = align(part.triangleCount * 12);
+            checkBounds(buffer, position, vertexSize + indexSize + bvhSize);
+            part.vertices = slice(buffer, position, part.vertexCount * 12);
+            position += vertexSize;
+            part.indices = slice(buffer, position, part.triangleCount * 12);
+            position += indexSize;
+            part.bvh = slice(buffer, position, bvhSize);
+            position += align(bvhSize);
+            partData.add(part);
+        }
+        if (vertexCount >= 0 && (partData.size != 1 || partData.first().vertexCount != vertexCount
+                || partData.first().triangleCount != triangleCount)) {
+            throw new GdxRuntimeException("The cache file holds other triangles");
+        }
+
+        Entry entry = new Entry();
+        entry.buffers.add(buffer);
+        for (PartData part : partData) {
+            btOptimizedBvh bvh = btOptimizedBvh.deSerializeInPlace(BufferUtils.getUnsafeBufferAddress(part.bvh),
+                    part.bvh.capacity(), false);
+            if (bvh == null) {
+                throw new GdxRuntimeException("Could not deserialize the BVH");
+            }
+
+            // The BVH stays in the mapping, the shape does not own it
+            btBvhTriangleMeshShape shape = new btBvhTriangleMeshShape(createMesh(entry, part), true, false);
+            shape.setOptimizedBvh(bvh);
+            entry.meshShapes.add(shape);
+        }
+        return finish(entry, partData).shape;
+    }
+
+    private static void checkBounds(ByteBuffer buffer, int position, int size) {
+        if (size < 0 || position + size > buffer.capacity()) {
+            throw new GdxRuntimeException("Truncated cache file");
+        }
+    }
+
+    private static btTriangleIndexVertexArray createMesh(Entry entry, PartData part) {
+        btIndexedMesh indexedMesh = new btIndexedMesh();
+        indexedMesh.setVertexBase(part.vertices);
+        indexedMesh.setVertexStride(12);
+        indexedMesh.setNumVertices(part.vertexCount);
+        indexedMesh.setVertexType(PHY_ScalarType.PHY_FLOAT);
+        indexedMesh.setTriangleIndexBase(part.indices);
+        indexedMesh.setTriangleIndexStride(12);
+        indexedMesh.setNumTriangles(part.triangleCount);
+        indexedMesh.setIndexType(PHY_ScalarType.PHY_INTEGER);
+        entry.indexedMeshes.add(indexedMesh);
+
+        btTriangleIndexVertexArray mesh = new btTriangleIndexVertexArray();
+        mesh.addIndexedMesh(indexedMesh, PHY_ScalarType.PHY_INTEGER);
+        entry.meshes.add(mesh);
+        return mesh;
+    }
+
+    /**
+     * Puts the mesh shapes of the parts together and registers the entry
+     */
+    private Entry finish(Entry entry, Array<PartData> partData) {
+        if (partData.size == 1 && isIdentity(partData.first().transform)) {
+            entry.shape = entry.meshShapes.first();
+        } else {
+            btCompoundShape compound = new btCompoundShape();
+            for (int i = 0; i < partData.size; i++) {
+                compound.addChildShape(partData.get(i).transform, entry.meshShapes.get(i));
+            }
+            entry.shape = compound;
+        }
+        synchronized (entries) {
+            entries.add(entry);
+        }
+        return entry;
+    }
+
+    private static boolean isIdentity(Matrix4 transform) {
+        for (int i = 0; i < 16; i++) {
+            if (transform.val[i] != (i % 5 == 0 ? 1f : 0f)) return false;
+        }
+        return true;
+    }
+
+    private void write(FileHandle file, Array<PartData> partData) throws IOException {
+        directory.mkdirs();
+        ByteBuffer header = ByteBuffer.allocate(Math.max(HEADER_SIZE, PART_HEADER_SIZE)).order(ByteOrder.nativeOrder());
+        ByteBuffer padding = ByteBuffer.allocate(ALIGNMENT);
+
+        // Written next to the cache file and moved over it, a crash never leaves half a file behind
+        FileHandle temp = directory.child(file.name() + ".tmp");
+        FileOutputStream output = new FileOutputStream(temp.file());
+        try {
+            FileChannel channel = output.getChannel();
+            header.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(partData.size).putInt(0).flip();
+            channel.write(header);
+
+            for (PartData part : partData) {
+                header.clear();
+                for (int i = 0; i < 16; i++) {
+                    header.putFloat(part.transform.val[i]);
+                }
+                header.putInt(part.vertexCount).putInt(part.triangleCount).putInt(part.bvh.capacity()).putInt(0).flip();
+                channel.write(header);
+
+                writeAligned(channel, part.vertices, padding);
+                writeAligned(channel, part.indices, padding);
+                writeAligned(channel, part.bvh, padding);
+            }
+        } finally {
+            StreamUtils.closeQuietly(output);
+        }
+        temp.moveTo(file);
+    }
+
+    private static void writeAligned(FileChannel channel, ByteBuffer data, ByteBuffer padding) throws IOException {
+        ByteBuffer view = data.duplicate();
+        view.clear();
+        while (view.hasRemaining()) {
+            channel.write(view);
+        }
+
+        padding.clear();
+        padding.limit(align(data.capacity()) - data.capacity());
+        channel.write(padding);
+    }
+
+    private static int align(int size) {
+        return (size + ALIGNMENT - 1) & -ALIGNMENT;
+    }
+
+    private static ByteBuffer slice(ByteBuffer buffer, int offset, int size) {
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset);
+        view.limit(offset + size);
+        return view.slice().order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * @return the hex SHA-1 of the source file, the cache format and the native layout of Bullet on this platform
+     */
+    static String hash(FileHandle source) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new GdxRuntimeException(e);
+        }
+
+        InputStream input = source.read();
+        try {
+            byte[] chunk = new byte[8192];
+            int read;
+            while ((read = input.read(chunk)) != -1) {
+                digest.update(chunk, 0, read);
+            }
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Could not read " + source.path(), e);
+        } finally {
+            StreamUtils.closeQuietly(input);
+        }
+
+        String layout = FORMAT_VERSION + "/" + LinearMath.btGetVersion() + "/" + System.getProperty("os.arch")
+                + "/" + ByteOrder.nativeOrder();
+        digest.update(layout.getBytes());
+
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * Disposes a shape handed out before the cache, ex. a streamed level tile going away, its body must be removed
+     * from the world first
+     */
+    public void release(btCollisionShape shape) {
+        synchronized (entries) {
+            for (int i = 0; i < entries.size; i++) {
+                if (entries.get(i).shape == shape) {
+                    dispose(entries.removeIndex(i));
+                    return;
+                }
+            }
+        }
+        throw new GdxRuntimeException("The shape is not one of this cache");
+    }
+
+    private static void dispose(Entry entry) {
+        if (entry.shape instanceof btCompoundShape) {
+            entry.shape.dispose();
+        }
+        for (btBvhTriangleMeshShape shape : entry.meshShapes) {
+            shape.dispose();
+        }
+        for (btTriangleIndexVertexArray mesh : entry.meshes) {
+            mesh.dispose();
+        }
+        for (btIndexedMesh indexedMesh : entry.indexedMeshes) {
+            indexedMesh.dispose();
+        }
+        entry.buffers.clear();
+    }
+
+    /**
+     * Disposes every shape handed out, the bodies using them must be removed from the world first
+     */
+    @Override
+    public void dispose() {
+        synchronized (entries) {
+            for (Entry entry : entries) {
+                dispose(entry);
+            }
+            entries.clear();
+        }
+    }
+}
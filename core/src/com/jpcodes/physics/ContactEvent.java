@@ -0,0 +1,63 @@
+package com.jpcodes.physics;
+
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionObject;
+
+/**
+ * A change in the contact between two collision objects, handed out by {@link ContactEvents#poll()}.
+ * Events are pooled, the fields of a polled event are only valid until the next step of the system.
+ *
+ * @author JamesTKhan
+ * @version October 17, 2026
+ */
+public class ContactEvent {
+    /** The objects started touching this step */
+    public static final int BEGIN = 0;
+    /** The objects were already touching and still are */
+    public static final int PERSIST = 1;
+    /** The objects stopped touching this step, the contact data is the one of their last step in contact */
+    public static final int END = 2;
+
+    /** One of BEGIN, PERSIST or END */
+    public int type;
+
+    public btCollisionObject objectA;
+    public btCollisionObject objectB;
+
+    /** The user values of the objects, their entity ids when registered in an {@link EntityRegistry} */
+    public int userValueA;
+    public int userValueB;
+
+    /** Contact points between the objects, 0 for END */
+    public int pointCount;
+
+    /** The deepest contact point, on objectB, with the normal on objectB and the distance, negative when penetrating */
+    public final Vector3 position = new Vector3();
+    public final Vector3 normal = new Vector3();
+    public float distance;
+
+    /** Sum of the impulses the solver applied at the contact points, 0 in collision only mode */
+    public float impulse;
+
+    void set(ContactEvent other) {
+        type = other.type;
+        objectA = other.objectA;
+        objectB = other.objectB;
+        userValueA = other.userValueA;
+        userValueB = other.userValueB;
+        pointCount = other.pointCount;
+        position.set(other.position);
+        normal.set(other.normal);
+        distance = other.distance;
+        impulse = other.impulse;
+    }
+
+    /**
+     * @return the other object of the pair, null if the object is not part of it
+     */
+    public btCollisionObject getOther(btCollisionObject object) {
+        if (object == objectA) return objectB;
+        if (object == objectB) return objectA;
+        return null;
+    }
+}
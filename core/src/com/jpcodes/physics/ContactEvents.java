@@ -0,0 +1,309 @@
+package com.jpcodes.physics;
+
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.physics.bullet.collision.CollisionJNI;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionObject;
+import com.badlogic.gdx.physics.bullet.collision.btDispatcher;
+import com.badlogic.gdx.physics.bullet.collision.btManifoldPoint;
+import com.badlogic.gdx.physics.bullet.collision.btPersistentManifold;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.LongMap;
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * Begin, persist and end events per pair of collision objects in contact, produced by the {@link BulletPhysicsSystem}
+ * after every step from the persistent manifolds of the dispatcher, and drained by consumers through {@link #poll()}.
+ * <p>
+ * A pair is the two objects, not a manifold. Compound shapes and triangle meshes touch with one manifold per child
+ * shape, the pair begins with the first of them and ends with the last, the point count and impulse are summed over
+ * all of them and the deepest point is the deepest of any.
+ * <p>
+ * Nothing is allocated per event or per step. Events live in a ring buffer of pooled {@link ContactEvent}s, pairs
+ * in contact are tracked in pooled records and the manifolds and contact points are read through reused wrappers,
+ * where the getters of gdx-bullet would create a new wrapper per call. The ring only grows when the
+ * events of a step do not fit, drain it every frame to keep it at its size.
+ * <p>
+ * Filled while holding the monitor of the system, consumers on another thread synchronize on the system as well.
+ *
+ * @author JamesTKhan
+ * @version October 18, 2026
+ */
+public class ContactEvents implements Disposable {
+    private ContactEvent[] ring;
+    private int head;
+    private int size;
+    private boolean reportPersist = true;
+
+    // Pairs in contact, keyed by a hash of the pointers of their objects, chained where two pairs share a hash
+    private final LongMap<Pair> pairsByObjects = new LongMap<>();
+    private final Array<Pair> pairs = new Array<>(false, 64);
+    private final Pool<Pair> pairPool = new Pool<Pair>() {
+        @Override
+        protected Pair newObject() {
+            return new Pair();
+        }
+    };
+    private int stamp;
+
+    private final ManifoldView manifold = new ManifoldView();
+    private final PointView point = new PointView();
+    private final Vector3 tmpPosition = new Vector3();
+
+    private static class Pair {
+        long key;
+        long pointerA;
+        long pointerB;
+        Pair next;
+        int stamp;
+        boolean begun;
+        final ContactEvent state = new ContactEvent();
+    }
+
+    /**
+     * Points a single wrapper at any manifold
+     */
+    private static class ManifoldView extends btPersistentManifold {
+        ManifoldView() {
+            super(0, false);
+        }
+
+        void set(long cPtr) {
+            reset(cPtr, false);
+        }
+    }
+
+    private static class PointView extends btManifoldPoint {
+        PointView() {
+            super(0, false);
+        }
+
+        void set(long cPtr) {
+            reset(cPtr, false);
+        }
+    }
+
+    ContactEvents(int capacity) {
+        ring = new ContactEvent[Math.max(1, capacity)];
+        for (int i = 0; i < ring.length; i++) {
+            ring[i] = new ContactEvent();
+        }
+    }
+
+    /**
+     * Compares the manifolds with the pairs in contact after the last step and queues the events
+     */
+    void update(btDispatcher dispatcher) {
+        stamp++;
+
+        long dispatcherPtr = btDispatcher.getCPtr(dispatcher);
+        int numManifolds = dispatcher.getNumManifolds();
+        for (int i = 0; i < numManifolds; i++) {
+            long manifoldPtr = CollisionJNI.btDispatcher_getManifoldByIndexInternal(dispatcherPtr, dispatcher, i);
+            manifold.set(manifoldPtr);
+            int numContacts = manifold.getNumContacts();
+            if (numContacts == 0) continue;
+
+            long pointer0 = CollisionJNI.btPersistentManifold_getBody0(manifoldPtr, manifold);
+            long pointer1 = CollisionJNI.btPersistentManifold_getBody1(manifoldPtr, manifold);
+            Pair pair = find(pointer0, pointer1);
+            if (pair == null) {
+                pair = begin(pointer0, pointer1);
+            }
+
+            // The first manifold of the pair this step starts the sums over
+            if (pair.stamp != stamp) {
+                pair.stamp = stamp;
+                pair.state.pointCount = 0;
+                pair.state.distance = Float.MAX_VALUE;
+                pair.state.impulse = 0;
+            }
+            readContact(manifoldPtr, numContacts, pair.state, pointer0 != pair.pointerA);
+        }
+
+        for (int i = pairs.size - 1; i >= 0; i--) {
+            Pair pair = pairs.get(i);
+            if (pair.stamp != stamp) {
+                end(pair, i);
+            } else if (pair.begun || reportPersist) {
+                pair.state.type = pair.begun ? ContactEvent.BEGIN : ContactEvent.PERSIST;
+                pair.begun = false;
+                push(pair.state);
+            }
+        }
+    }
+
+    /**
+     * @return the same key for both orders of the objects
+     */
+    private static long key(long pointer0, long pointer1) {
+        long low = Math.min(pointer0, pointer1);
+        long high = Math.max(pointer0, pointer1);
+        return low * 0x9E3779B97F4A7C15L ^ high;
+    }
+
+    private Pair find(long pointer0, long pointer1) {
+        Pair pair = pairsByObjects.get(key(pointer0, pointer1));
+        while (pair != null && !(pair.pointerA == pointer0 && pair.pointerB == pointer1)
+                && !(pair.pointerA == pointer1 && pair.pointerB == pointer0)) {
+            pair = pair.next;
+        }
+        return pair;
+    }
+
+    private Pair begin(long pointer0, long pointer1) {
+        Pair pair = pairPool.obtain();
+        pair.key = key(pointer0, pointer1);
+        pair.pointerA = pointer0;
+        pair.pointerB = pointer1;
+        pair.begun = true;
+        pair.state.objectA = manifold.getBody0();
+        pair.state.objectB = manifold.getBody1();
+        pair.state.userValueA = pair.state.objectA.getUserValue();
+        pair.state.userValueB = pair.state.objectB.getUserValue();
+
+        pair.next = pairsByObjects.get(pair.key);
+        pairsByObjects.put(pair.key, pair);
+        pairs.add(pair);
+        return pair;
+    }
+
+    /**
+     * Adds the points of a manifold to the sums of its pair
+     * @param swapped whether the manifold has the objects of the pair the other way around
+     */
+    private void readContact(long manifoldPtr, int numContacts, ContactEvent state, boolean swapped) {
+        state.pointCount += numContacts;
+        for (int j = 0; j < numContacts; j++) {
+            point.set(CollisionJNI.btPersistentManifold_getContactPoint(manifoldPtr, manifold, j));
+            state.impulse += point.getAppliedImpulse();
+
+            float distance = point.getDistance();
+            if (distance < state.distance) {
+                state.distance = distance;
+                // Always on objectB of the pair, the normal pointing from it towards objectA
+                if (swapped) {
+                    point.getPositionWorldOnA(tmpPosition);
+                    point.getNormalWorldOnB(state.normal);
+                    state.normal.scl(-1);
+                } else {
+                    point.getPositionWorldOnB(tmpPosition);
+                    point.getNormalWorldOnB(state.normal);
+                }
+                state.position.set(tmpPosition);
+            }
+        }
+    }
+
+    /**
+     * @param index the index of the pair in the pairs, the last pair moves there
+     */
+    private void end(Pair pair, int index) {
+        pair.state.type = ContactEvent.END;
+        pair.state.pointCount = 0;
+        push(pair.state);
+
+        Pair chained = pairsByObjects.get(pair.key);
+        if (chained == pair) {
+            if (pair.next == null) {
+                pairsByObjects.remove(pair.key);
+            } else {
+                pairsByObjects.put(pair.key, pair.next);
+            }
+        } else {
+            while (chained.next != pair) {
+                chained = chained.next;
+            }
+            chained.next = pair.next;
+        }
+        pairs.removeIndex(index);
+        pair.next = null;
+        pair.state.objectA = null;
+        pair.state.objectB = null;
+        pairPool.free(pair);
+    }
+
+    /**
+     * Ends the pairs of an object removed from the world, its manifolds are gone before the next step
+     */
+    void remove(btCollisionObject object) {
+        for (int i = pairs.size - 1; i >= 0; i--) {
+            Pair pair = pairs.get(i);
+            if (pair.state.objectA == object || pair.state.objectB == object) {
+                end(pair, i);
+            }
+        }
+    }
+
+    private void push(ContactEvent event) {
+        if (size == ring.length) {
+            grow();
+        }
+        ring[(head + size) % ring.length].set(event);
+        size++;
+    }
+
+    private void grow() {
+        ContactEvent[] grown = new ContactEvent[ring.length * 2];
+        for (int i = 0; i < size; i++) {
+            grown[i] = ring[(head + i) % ring.length];
+        }
+        for (int i = size; i < grown.length; i++) {
+            grown[i] = new ContactEvent();
+        }
+        ring = grown;
+        head = 0;
+    }
+
+    /**
+     * @return the oldest queued event, null when drained. Valid until the next step, copy what must be kept longer.
+     */
+    public ContactEvent poll() {
+        if (size == 0) return null;
+
+        ContactEvent event = ring[head];
+        head = (head + 1) % ring.length;
+        size--;
+        return event;
+    }
+
+    /**
+     * @return the number of queued events
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Drops every queued event, the pairs in contact are still tracked
+     */
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    /**
+     * @return the number of pairs currently in contact
+     */
+    public int getPairCount() {
+        return pairs.size;
+    }
+
+    /**
+     * @param reportPersist whether to queue a persist event per pair still in contact every step, true by default.
+     *                      Begin and end events are always queued.
+     */
+    public void setReportPersist(boolean reportPersist) {
+        this.reportPersist = reportPersist;
+    }
+
+    public boolean isReportPersist() {
+        return reportPersist;
+    }
+
+    @Override
+    public void dispose() {
+        manifold.dispose();
+        point.dispose();
+    }
+}
@@ -0,0 +1,194 @@
+package com.jpcodes.physics;
+
+import com.badlogic.gdx.physics.bullet.collision.CollisionObjectWrapper;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionAlgorithm;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionConfiguration;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionDispatcher;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionObject;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionShape;
+import com.badlogic.gdx.physics.bullet.collision.btDispatcherInfo;
+import com.badlogic.gdx.physics.bullet.collision.btManifoldResult;
+import com.badlogic.gdx.physics.bullet.collision.btPersistentManifold;
+import com.badlogic.gdx.physics.bullet.collision.btPersistentManifoldArray;
+import com.badlogic.gdx.physics.bullet.collision.ebtDispatcherQueryType;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.LongMap;
+
+/**
+ * Manually checks pairs of collision objects for contact, outside of any world.
+ * <p>
+ * For each pair of shape types, Bullet dispatches a certain collision algorithm, ex. btSphereBoxCollisionAlgorithm.
+ * Looking that algorithm up and wrapping the objects for it costs native allocations, so this keeps:
+ * <ul>
+ *     <li>one CollisionObjectWrapper per collision object, the wrapper references the object's world transform
+ *     so it stays valid as the object moves</li>
+ *     <li>one collision algorithm and contact manifold per pair of convex shape types</li>
+ *     <li>a single btDispatcherInfo and btManifoldResult</li>
+ * </ul>
+ * In steady state a query does no Java or native allocation. Compound and concave shapes keep per pair state in
+ * their algorithm, those pairs look their algorithm up on every query like a one off check would.
+ * <p>
+ * Uses its own dispatcher, so the manifolds of manual queries never show up among the dynamics world manifolds.
+ *
+ * @author JamesTKhan
+ * @version October 17, 2026
+ */
+public class ContactQuery implements Disposable {
+    private final btCollisionDispatcher dispatcher;
+    private final btDispatcherInfo dispatcherInfo = new btDispatcherInfo();
+    private final btManifoldResult result = new btManifoldResult();
+
+    private final LongMap<WrappedObject> wrappers = new LongMap<>();
+    private final IntMap<CachedAlgorithm> algorithms = new IntMap<>();
+
+    private final btPersistentManifoldArray manifoldArray = new btPersistentManifoldArray();
+
+    private btPersistentManifold lastManifold;
+
+    private static class WrappedObject {
+        final CollisionObjectWrapper wrapper;
+        final int shapeType;
+        final boolean cacheable;
+
+        WrappedObject(btCollisionObject collisionObject) {
+            wrapper = new CollisionObjectWrapper(collisionObject);
+            btCollisionShape shape = collisionObject.getCollisionShape();
+            shapeType = shape.getShapeType();
+            cacheable = shape.isConvex();
+        }
+    }
+
+    private static class CachedAlgorithm {
+        final btCollisionAlgorithm algorithm;
+        final btPersistentManifold manifold;
+
+        CachedAlgorithm(btCollisionAlgorithm algorithm, btPersistentManifold manifold) {
+            this.algorithm = algorithm;
+            this.manifold = manifold;
+        }
+    }
+
+    public ContactQuery(btCollisionConfiguration collisionConfig) {
+        dispatcher = new btCollisionDispatcher(collisionConfig);
+    }
+
+    /**
+     * @return true if the two collision objects are in contact
+     */
+    public boolean hasContact(btCollisionObject b1, btCollisionObject b2) {
+        return contactCount(b1, b2) > 0;
+    }
+
+    /**
+     * Runs the narrowphase on the two collision objects. The contact points can be read from
+     * {@link #getLastManifold()} until the next query.
+     * @return the number of contact points between the two collision objects
+     */
+    public int contactCount(btCollisionObject b1, btCollisionObject b2) {
+        WrappedObject co0 = wrap(b1);
+        WrappedObject co1 = wrap(b2);
+
+        if (co0.cacheable && co1.cacheable) {
+            int key = co0.shapeType << 16 | co1.shapeType;
+            CachedAlgorithm cached = algorithms.get(key);
+            if (cached == null) {
+                cached = createAlgorithm(b1, b2, co0, co1);
+                algorithms.put(key, cached);
+            }
+
+            // The manifold is reused between pairs, drop the contacts of the previous pair
+            cached.manifold.clearManifold();
+            cached.manifold.setBodies(b1, b2);
+
+            process(cached.algorithm, co0, co1);
+
+            lastManifold = cached.manifold;
+            return cached.manifold.getNumContacts();
+        }
+
+        // For each pair of shape types, Bullet will dispatch a certain collision algorithm, by using the dispatcher.
+        // So we use the dispatcher here to find the algorithm needed for the two shape types being checked
+        btCollisionAlgorithm algorithm = dispatcher.findAlgorithm(co0.wrapper.wrapper, co1.wrapper.wrapper, null,
+                ebtDispatcherQueryType.BT_CONTACT_POINT_ALGORITHMS);
+
+        result.setPersistentManifold(null);
+        process(algorithm, co0, co1);
+
+        // Free the algorithm back to a pool for reuse later
+        dispatcher.freeCollisionAlgorithm(algorithm.getCPointer());
+
+        lastManifold = result.getPersistentManifold();
+        return lastManifold != null ? lastManifold.getNumContacts() : 0;
+    }
+
+    private CachedAlgorithm createAlgorithm(btCollisionObject b1, btCollisionObject b2, WrappedObject co0, WrappedObject co1) {
+        btPersistentManifold manifold = dispatcher.getNewManifold(b1, b2);
+        btCollisionAlgorithm algorithm = dispatcher.findAlgorithm(co0.wrapper.wrapper, co1.wrapper.wrapper, manifold,
+                ebtDispatcherQueryType.BT_CONTACT_POINT_ALGORITHMS);
+
+        // Not every algorithm takes the shared manifold, ex. box-box always creates its own, so ask it which one it writes to
+        manifoldArray.clear();
+        algorithm.getAllContactManifolds(manifoldArray);
+        if (manifoldArray.size() > 0 && manifoldArray.atConst(0).getCPointer() != manifold.getCPointer()) {
+            dispatcher.releaseManifold(manifold);
+            manifold = manifoldArray.atConst(0);
+        }
+
+        return new CachedAlgorithm(algorithm, manifold);
+    }
+
+    private void process(btCollisionAlgorithm algorithm, WrappedObject co0, WrappedObject co1) {
+        result.setBody0Wrap(co0.wrapper.wrapper);
+        result.setBody1Wrap(co1.wrapper.wrapper);
+
+        // Execute the algorithm using processCollision, this stores the result (the contact points) in the btManifoldResult
+        algorithm.processCollision(co0.wrapper.wrapper, co1.wrapper.wrapper, dispatcherInfo, result);
+    }
+
+    private WrappedObject wrap(btCollisionObject collisionObject) {
+        WrappedObject wrapped = wrappers.get(collisionObject.getCPointer());
+        if (wrapped == null) {
+            wrapped = new WrappedObject(collisionObject);
+            wrappers.put(collisionObject.getCPointer(), wrapped);
+        }
+        return wrapped;
+    }
+
+    /**
+     * Releases the wrapper kept for a collision object, must be called before the object is disposed
+     * or its collision shape is changed.
+     */
+    public void release(btCollisionObject collisionObject) {
+        WrappedObject wrapped = wrappers.remove(collisionObject.getCPointer());
+        if (wrapped != null) {
+            wrapped.wrapper.dispose();
+        }
+    }
+
+    /**
+     * @return the manifold holding the contact points of the last query, null before the first one
+     */
+    public btPersistentManifold getLastManifold() {
+        return lastManifold;
+    }
+
+    @Override
+    public void dispose() {
+        for (CachedAlgorithm cached : algorithms.values()) {
+            dispatcher.freeCollisionAlgorithm(cached.algorithm.getCPointer());
+            dispatcher.releaseManifold(cached.manifold);
+        }
+        algorithms.clear();
+
+        for (WrappedObject wrapped : wrappers.values()) {
+            wrapped.wrapper.dispose();
+        }
+        wrappers.clear();
+
+        manifoldArray.dispose();
+        result.dispose();
+        dispatcherInfo.dispose();
+        dispatcher.dispose();
+    }
+}
@@ -0,0 +1,115 @@
+package com.jpcodes.physics;
+
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionObject;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * The pairs of collision objects in contact after an update, filled in bulk by
+ * {@link BulletPhysicsSystem#collectContacts(ContactResults)}.
+ * <p>
+ * Contact points are stored flat in primitive arrays, the points of pair i are the points
+ * getPointOffset(i) up to getPointOffset(i) + getPointCount(i). The arrays only grow, so
+ * reusing one instance every frame allocates nothing once they are large enough.
+ *
+ * @author JamesTKhan
+ * @version October 17, 2026
+ */
+public class ContactResults {
+    private final Array<btCollisionObject> objectsA = new Array<>();
+    private final Array<btCollisionObject> objectsB = new Array<>();
+    private final IntArray pointOffsets = new IntArray();
+    private final IntArray pointCounts = new IntArray();
+
+    // xyz per point
+    private final FloatArray positions = new FloatArray();
+    private final FloatArray normals = new FloatArray();
+    private final FloatArray distances = new FloatArray();
+
+    public void clear() {
+        objectsA.clear();
+        objectsB.clear();
+        pointOffsets.clear();
+        pointCounts.clear();
+        positions.clear();
+        normals.clear();
+        distances.clear();
+    }
+
+    void addPair(btCollisionObject objectA, btCollisionObject objectB) {
+        objectsA.add(objectA);
+        objectsB.add(objectB);
+        pointOffsets.add(distances.size);
+        pointCounts.add(0);
+    }
+
+    void addPoint(Vector3 positionWorldOnB, Vector3 normalWorldOnB, float distance) {
+        positions.add(positionWorldOnB.x, positionWorldOnB.y, positionWorldOnB.z);
+        normals.add(normalWorldOnB.x, normalWorldOnB.y, normalWorldOnB.z);
+        distances.add(distance);
+        pointCounts.incr(pointCounts.size - 1, 1);
+    }
+
+    public int getPairCount() {
+        return objectsA.size;
+    }
+
+    public btCollisionObject getObjectA(int pair) {
+        return objectsA.get(pair);
+    }
+
+    public btCollisionObject getObjectB(int pair) {
+        return objectsB.get(pair);
+    }
+
+    /**
+     * @return true if the pair is made of the two given objects, in either order
+     */
+    public boolean isPair(int pair, btCollisionObject a, btCollisionObject b) {
+        btCollisionObject objectA = objectsA.get(pair);
+        btCollisionObject objectB = objectsB.get(pair);
+        return (objectA == a && objectB == b) || (objectA == b && objectB == a);
+    }
+
+    /**
+     * @return the index of the first contact point of the pair
+     */
+    public int getPointOffset(int pair) {
+        return pointOffsets.get(pair);
+    }
+
+    public int getPointCount(int pair) {
+        return pointCounts.get(pair);
+    }
+
+    public int getTotalPointCount() {
+        return distances.size;
+    }
+
+    /**
+     * @param point index of the contact point
+     * @param out populated with the world position of the contact point on object B
+     */
+    public Vector3 getPosition(int point, Vector3 out) {
+        int i = point * 3;
+        return out.set(positions.get(i), positions.get(i + 1), positions.get(i + 2));
+    }
+
+    /**
+     * @param point index of the contact point
+     * @param out populated with the contact normal, in world space, pointing from B to A
+     */
+    public Vector3 getNormal(int point, Vector3 out) {
+        int i = point * 3;
+        return out.set(normals.get(i), normals.get(i + 1), normals.get(i + 2));
+    }
+
+    /**
+     * @return the distance between the objects at the contact point, negative when penetrating
+     */
+    public float getDistance(int point) {
+        return distances.get(point);
+    }
+}
@@ -0,0 +1,107 @@
+package com.jpcodes.physics;
+
+import com.badlogic.gdx.physics.bullet.collision.btCollisionObject;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntMap;
+
+/**
+ * Gives every registered {@link BulletEntity} a stable int id, stored as the user value of its body, and finds
+ * entities back by id. Ray hits ({@link RaycastResults#bodyIds}) and contact callbacks taking user values hand out
+ * these ids directly, so getting from a hit to the entity is one IntMap lookup, no instanceof or userData cast.
+ * <p>
+ * Ids start at {@link #FIRST_ID}, user value 0 is the Bullet default and stays free for unregistered objects.
+ * Ids are never reused, not even after {@link #clear()}. Ids still held elsewhere once their entity is gone, ex. in
+ * {@link ContactEvents} not yet polled or in the results of a {@link QueryBatch}, then find no entity instead of
+ * another one. A game spawning and removing entities forever would run out of ids after 2^31 registrations.
+ *
+ * @author JamesTKhan
+ * @version October 18, 2026
+ */
+public class EntityRegistry {
+    public static final int NO_ID = 0;
+    public static final int FIRST_ID = 1;
+
+    private final IntMap<BulletEntity> entities = new IntMap<>();
+    private int nextId = FIRST_ID;
+
+    /**
+     * Assigns the entity an id and sets it as the user value of its body
+     * @return the id of the entity
+     */
+    public int register(BulletEntity entity) {
+        if (entity.getId() != NO_ID) {
+            throw new GdxRuntimeException("The entity is already registered with id " + entity.getId());
+        }
+
+        if (nextId == Integer.MAX_VALUE) {
+            throw new GdxRuntimeException("Out of entity ids");
+        }
+        int id = nextId++;
+        entity.setId(id);
+        entity.getBody().setUserValue(id);
+        entities.put(id, entity);
+        return id;
+    }
+
+    /**
+     * Removes the entity, its id is never given to another entity
+     * @return whether the entity was registered here
+     */
+    public boolean unregister(BulletEntity entity) {
+        int id = entity.getId();
+        if (id == NO_ID || entities.get(id) != entity) return false;
+
+        entities.remove(id);
+        entity.setId(NO_ID);
+        entity.getBody().setUserValue(NO_ID);
+        return true;
+    }
+
+    /**
+     * @return the entity with the id, null if there is none
+     */
+    public BulletEntity get(int id) {
+        return entities.get(id);
+    }
+
+    /**
+     * @return the entity the collision object is the body of, null if it is not registered
+     */
+    public BulletEntity get(btCollisionObject collisionObject) {
+        return entities.get(collisionObject.getUserValue());
+    }
+
+    public boolean contains(int id) {
+        return entities.containsKey(id);
+    }
+
+    public int size() {
+        return entities.size;
+    }
+
+    /**
+     * @return one more than the largest id handed out, the capacity a {@link TransformExport} of every entity needs.
+     * Grows with every registration, removed entities included.
+     */
+    public int getIdLimit() {
+        return nextId;
+    }
+
+    /**
+     * @return all registered entities keyed by id, do not modify
+     */
+    public IntMap<BulletEntity> getEntities() {
+        return entities;
+    }
+
+    /**
+     * Unregisters every entity, the next one still gets a new id
+     */
+    public void clear() {
+        for (BulletEntity entity : entities.values()) {
+            entity.setId(NO_ID);
+            entity.getBody().setUserValue(NO_ID);
+        }
+        entities.clear();
+    }
+}
@@ -0,0 +1,101 @@
+package com.jpcodes.physics;
+
+import java.util.Arrays;
+
+/**
+ * Counts non negative samples in power of two buckets, bucket 0 holds the zeros and bucket i the values in
+ * [2^(i-1), 2^i). Recording a sample is a handful of operations and allocates nothing, percentiles are estimated
+ * from the upper bound of their bucket so they are at most twice the exact value, clamped to the largest sample.
+ *
+ * @author JamesTKhan
+ * @version October 17, 2026
+ */
+public class Histogram {
+    public static final int BUCKET_COUNT = 64;
+
+    private final long[] buckets = new long[BUCKET_COUNT];
+    private long count;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max;
+    private long last;
+
+    /**
+     * @param value the sample, negative values count as 0
+     */
+    public void record(long value) {
+        if (value < 0) value = 0;
+
+        buckets[BUCKET_COUNT - Long.numberOfLeadingZeros(value)]++;
+        count++;
+        sum += value;
+        last = value;
+        if (value < min) min = value;
+        if (value > max) max = value;
+    }
+
+    /**
+     * @param percentile in [0, 100]
+     * @return the upper bound of the bucket holding the percentile, 0 without samples
+     */
+    public long getPercentile(double percentile) {
+        if (count == 0) return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(count * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                long upperBound = i == 0 ? 0 : (1L << i) - 1;
+                return Math.max(min, Math.min(max, upperBound));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * @return the number of samples in the bucket, see the class description for its range
+     */
+    public long getBucket(int bucket) {
+        return buckets[bucket];
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getSum() {
+        return sum;
+    }
+
+    /**
+     * @return the smallest sample, 0 without samples
+     */
+    public long getMin() {
+        return count == 0 ? 0 : min;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * @return the most recent sample
+     */
+    public long getLast() {
+        return last;
+    }
+
+    public double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    public void reset() {
+        Arrays.fill(buckets, 0);
+        count = 0;
+        sum = 0;
+        min = Long.MAX_VALUE;
+        max = 0;
+        last = 0;
+    }
+}
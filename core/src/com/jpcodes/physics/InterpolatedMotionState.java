@@ -0,0 +1,76 @@
+package com.jpcodes.physics;
+
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Quaternion;
+import com.badlogic.gdx.math.Vector3;
+
+/**
+ * A MotionState that keeps the transforms of the last two physics steps and blends between them,
+ * instead of snapping the render transform to the latest step like {@link MotionState} does.
+ * <p>
+ * The {@link BulletPhysicsSystem} drives it, the body must have this motion state set before it is added to the system.
+ * The rendered transform lags one fixed step behind the simulation, in exchange there is no judder
+ * when the display rate and the physics rate differ.
+ *
+ * @author JamesTKhan
+ * @version October 17, 2026
+ */
+public class InterpolatedMotionState extends MotionState {
+    // Only ever used from the thread stepping the physics system
+    private static final Vector3 tmpPosition = new Vector3();
+    private static final Vector3 tmpPreviousPosition = new Vector3();
+    private static final Quaternion tmpRotation = new Quaternion();
+    private static final Quaternion tmpPreviousRotation = new Quaternion();
+
+    private final Matrix4 previous = new Matrix4();
+    private final Matrix4 current = new Matrix4();
+
+    public InterpolatedMotionState(Matrix4 transform) {
+        super(transform);
+        previous.set(transform);
+        current.set(transform);
+    }
+
+    @Override
+    public void getWorldTransform(Matrix4 worldTrans) {
+        worldTrans.set(current);
+    }
+
+    @Override
+    public void setWorldTransform(Matrix4 worldTrans) {
+        current.set(worldTrans);
+        moved();
+    }
+
+    /**
+     * Called before every fixed step, the current transform becomes the previous one.
+     */
+    void beginStep() {
+        previous.set(current);
+    }
+
+    /**
+     * Moves the body to the transform at once, without blending from where it was
+     */
+    void reset(Matrix4 worldTrans) {
+        previous.set(worldTrans);
+        current.set(worldTrans);
+        transform.set(worldTrans);
+    }
+
+    /**
+     * Blends the previous and current step into the render transform.
+     * @param alpha how far between the previous (0) and current (1) step the render time is
+     */
+    void interpolate(float alpha) {
+        previous.getTranslation(tmpPreviousPosition);
+        previous.getRotation(tmpPreviousRotation, true);
+        current.getTranslation(tmpPosition);
+        current.getRotation(tmpRotation, true);
+
+        tmpPreviousPosition.lerp(tmpPosition, alpha);
+        tmpPreviousRotation.slerp(tmpRotation, alpha);
+
+        transform.set(tmpPreviousPosition, tmpPreviousRotation);
+    }
+}
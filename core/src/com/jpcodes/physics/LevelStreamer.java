@@ -0,0 +1,424 @@
+package com.jpcodes.physics;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.g3d.model.Node;
+import com.badlogic.gdx.graphics.g3d.model.NodePart;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.physics.bullet.collision.PHY_ScalarType;
+import com.badlogic.gdx.physics.bullet.collision.btBvhTriangleMeshShape;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionShape;
+import com.badlogic.gdx.physics.bullet.collision.btIndexedMesh;
+import com.badlogic.gdx.physics.bullet.collision.btTriangleIndexVertexArray;
+import com.badlogic.gdx.physics.bullet.dynamics.btRigidBody;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.BufferUtils;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntIntMap;
+import com.badlogic.gdx.utils.LongMap;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+import com.badlogic.gdx.utils.async.AsyncResult;
+import com.badlogic.gdx.utils.async.AsyncTask;
+import com.jpcodes.physics.utils.Utils3D;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Streams the static collision of a large level in square tiles around a point, ex. the player. The triangles of the
+ * level are split once into tiles on the XZ plane, each tile only becomes a btBvhTriangleMeshShape and a static body
+ * while the point is within the load radius of it, and goes away again past the unload radius. The native memory and
+ * broadphase size follow the tiles around the point instead of the whole level, the split itself is a single pass over
+ * the triangles without any BVH build.
+ * <p>
+ * Shapes and their BVH are built on a background loader. {@link #update(Vector3)} only creates the bodies of the tiles
+ * that finished and adds them to the system, on the thread calling it, as gdx-bullet keeps its collision objects in a
+ * map that is not thread safe. Tiles need time to load, the load radius must cover the distance the point travels
+ * meanwhile, {@link #finishLoading()} blocks until they are in, ex. before the first step.
+ * <p>
+ * With a {@link CollisionShapeCache} set through {@link #setShapeCache(CollisionShapeCache, FileHandle)} the loader
+ * takes the shapes of the tiles from the cache, a tile only builds its BVH the first time it streams in.
+ * <p>
+ * A triangle belongs to the tile of its center, the bounds of a tile are the bounds of its triangles, which may reach
+ * into the neighbouring tiles. Distances are measured on the XZ plane only.
+ *
+ * @author JamesTKhan
+ * @version October 18, 2026
+ */
+public class LevelStreamer implements Disposable {
+    private final BulletPhysicsSystem physicsSystem;
+    private final float tileSize;
+    private final LongMap<Tile> tiles = new LongMap<>();
+    // Tiles with a body or a pending build, the only ones that can unload
+    private final Array<Tile> activeTiles = new Array<>();
+    private final AsyncExecutor loader = new AsyncExecutor(1, "level-loader");
+
+    // How far the bounds of a tile reach past its cell at most, widens the cells to look at around the point
+    private float maxOverhang;
+    // Vertices split so far, numbers the vertices of every part apart
+    private int levelVertexCount;
+    private float loadRadius;
+    private float unloadRadius;
+
+    // Where the tiles get their shapes from when set, and the name of the level in it
+    private CollisionShapeCache shapeCache;
+    private String cacheName;
+
+    private class Tile implements AsyncTask<Void> {
+        final long key;
+        final float[] vertices;
+        final int[] indices;
+        float minX = Float.MAX_VALUE, minZ = Float.MAX_VALUE;
+        float maxX = -Float.MAX_VALUE, maxZ = -Float.MAX_VALUE;
+
+        AsyncResult<Void> loading;
+        // Written by the loader, read after the loading result is done
+        btIndexedMesh indexedMesh;
+        btTriangleIndexVertexArray mesh;
+        btCollisionShape shape;
+        ByteBuffer vertexBuffer;
+        ByteBuffer indexBuffer;
+        // Set when the shape is owned by the cache
+        CollisionShapeCache cache;
+
+        btRigidBody body;
+
+        Tile(long key, FloatArray vertices, IntArray indices) {
+            this.key = key;
+            this.vertices = vertices.toArray();
+            this.indices = indices.toArray();
+            for (int i = 0; i < this.vertices.length; i += 3) {
+                minX = Math.min(minX, this.vertices[i]);
+                maxX = Math.max(maxX, this.vertices[i]);
+                minZ = Math.min(minZ, this.vertices[i + 2]);
+                maxZ = Math.max(maxZ, this.vertices[i + 2]);
+            }
+        }
+
+        @Override
+        public Void call() {
+            if (cache != null) {
+                shape = cache.obtainMeshShape(cacheName + "_" + (int) (key >> 32) + "_" + (int) key, vertices, indices);
+                return null;
+            }
+
+            vertexBuffer = BufferUtils.newByteBuffer(vertices.length * 4);
+            vertexBuffer.asFloatBuffer().put(vertices);
+            indexBuffer = BufferUtils.newByteBuffer(indices.length * 4);
+            indexBuffer.asIntBuffer().put(indices);
+
+            indexedMesh = new btIndexedMesh();
+            indexedMesh.setVertexBase(vertexBuffer);
+            indexedMesh.setVertexStride(12);
+            indexedMesh.setNumVertices(vertices.length / 3);
+            indexedMesh.setVertexType(PHY_ScalarType.PHY_FLOAT);
+            indexedMesh.setTriangleIndexBase(indexBuffer);
+            indexedMesh.setTriangleIndexStride(12);
+            indexedMesh.setNumTriangles(indices.length / 3);
+            indexedMesh.setIndexType(PHY_ScalarType.PHY_INTEGER);
+
+            mesh = new btTriangleIndexVertexArray();
+            mesh.addIndexedMesh(indexedMesh, PHY_ScalarType.PHY_INTEGER);
+            shape = new btBvhTriangleMeshShape(mesh, true);
+            return null;
+        }
+
+        /**
+         * @return the squared distance on the XZ plane from the point to the bounds of the tile
+         */
+        float distance2(Vector3 point) {
+            float dx = Math.max(0, Math.max(minX - point.x, point.x - maxX));
+            float dz = Math.max(0, Math.max(minZ - point.z, point.z - maxZ));
+            return dx * dx + dz * dz;
+        }
+
+        void disposeShape() {
+            if (cache != null) {
+                cache.release(shape);
+                cache = null;
+                shape = null;
+                return;
+            }
+
+            shape.dispose();
+            mesh.dispose();
+            indexedMesh.dispose();
+            shape = null;
+            mesh = null;
+            indexedMesh = null;
+            vertexBuffer = null;
+            indexBuffer = null;
+        }
+    }
+
+    /**
+     * Splits the triangles of the nodes into tiles, nothing is loaded until {@link #update(Vector3)}
+     * @param nodes the nodes of the level model, their parts must be triangles
+     * @param tileSize the edge length of a tile on the XZ plane
+     */
+    public LevelStreamer(BulletPhysicsSystem physicsSystem, Array<Node> nodes, float tileSize) {
+        this(physicsSystem, tileSize);
+
+        LongMap<TileBuilder> builders = new LongMap<>();
+        gatherNodes(nodes, new FloatArray(), new IntArray(), new IntIntMap(), builders);
+        createTiles(builders);
+    }
+
+    /**
+     * Splits indexed triangles into tiles, ex. the ones of an {@link com.jpcodes.physics.utils.ObjParser}, nothing is
+     * loaded until {@link #update(Vector3)}
+     * @param positions x, y and z of every vertex, in world space
+     * @param triangles three indices into the positions per triangle
+     * @param tileSize the edge length of a tile on the XZ plane
+     */
+    public LevelStreamer(BulletPhysicsSystem physicsSystem, FloatArray positions, IntArray triangles, float tileSize) {
+        this(physicsSystem, tileSize);
+
+        LongMap<TileBuilder> builders = new LongMap<>();
+        splitTriangles(positions, triangles, builders);
+        createTiles(builders);
+    }
+
+    private LevelStreamer(BulletPhysicsSystem physicsSystem, float tileSize) {
+        if (tileSize <= 0) {
+            throw new GdxRuntimeException("The tile size must be positive");
+        }
+
+        this.physicsSystem = physicsSystem;
+        this.tileSize = tileSize;
+        setRadius(tileSize * 2, tileSize * 3);
+    }
+
+    private void createTiles(LongMap<TileBuilder> builders) {
+        for (TileBuilder builder : builders.values()) {
+            Tile tile = new Tile(builder.key, builder.vertices, builder.indices);
+            tiles.put(tile.key, tile);
+
+            int x = (int) (tile.key >> 32);
+            int z = (int) tile.key;
+            maxOverhang = Math.max(maxOverhang, Math.max(
+                    Math.max(x * tileSize - tile.minX, tile.maxX - (x + 1) * tileSize),
+                    Math.max(z * tileSize - tile.minZ, tile.maxZ - (z + 1) * tileSize)));
+        }
+    }
+
+    /**
+     * Triangles of a tile while splitting, indexed into the vertices the tile uses
+     */
+    private static class TileBuilder {
+        final long key;
+        final FloatArray vertices = new FloatArray();
+        final IntArray indices = new IntArray();
+        // Level wide vertex number to the index in this tile
+        final IntIntMap remap = new IntIntMap();
+
+        TileBuilder(long key) {
+            this.key = key;
+        }
+
+        void add(FloatArray positions, int vertex, int levelVertex) {
+            int index = remap.get(levelVertex, -1);
+            if (index < 0) {
+                index = vertices.size / 3;
+                remap.put(levelVertex, index);
+                vertices.add(positions.get(vertex * 3), positions.get(vertex * 3 + 1), positions.get(vertex * 3 + 2));
+            }
+            indices.add(index);
+        }
+    }
+
+    private void gatherNodes(Iterable<Node> nodes, FloatArray positions, IntArray triangles, IntIntMap remap,
+                             LongMap<TileBuilder> builders) {
+        Vector3 vertex = new Vector3();
+        for (Node node : nodes) {
+            for (NodePart nodePart : node.parts) {
+                positions.clear();
+                triangles.clear();
+                Utils3D.gatherTriangles(nodePart.meshPart, positions, triangles, remap);
+
+                // Tiles are in world space, the bodies have an identity transform
+                for (int i = 0; i < positions.size; i += 3) {
+                    vertex.set(positions.get(i), positions.get(i + 1), positions.get(i + 2)).mul(node.globalTransform);
+                    positions.set(i, vertex.x);
+                    positions.set(i + 1, vertex.y);
+                    positions.set(i + 2, vertex.z);
+                }
+                splitTriangles(positions, triangles, builders);
+            }
+
+            if (node.hasChildren()) {
+                gatherNodes(node.getChildren(), positions, triangles, remap, builders);
+            }
+        }
+    }
+
+    private void splitTriangles(FloatArray positions, IntArray triangles, LongMap<TileBuilder> builders) {
+        for (int i = 0; i < triangles.size; i += 3) {
+            int a = triangles.get(i), b = triangles.get(i + 1), c = triangles.get(i + 2);
+            float centerX = (positions.get(a * 3) + positions.get(b * 3) + positions.get(c * 3)) / 3f;
+            float centerZ = (positions.get(a * 3 + 2) + positions.get(b * 3 + 2) + positions.get(c * 3 + 2)) / 3f;
+            long key = key(MathUtils.floor(centerX / tileSize), MathUtils.floor(centerZ / tileSize));
+
+            TileBuilder builder = builders.get(key);
+            if (builder == null) {
+                builder = new TileBuilder(key);
+                builders.put(key, builder);
+            }
+            builder.add(positions, a, levelVertexCount + a);
+            builder.add(positions, b, levelVertexCount + b);
+            builder.add(positions, c, levelVertexCount + c);
+        }
+        levelVertexCount += positions.size / 3;
+    }
+
+    private static long key(int x, int z) {
+        return ((long) x << 32) | (z & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Starts loading the tiles within the load radius of the point, adds the tiles that finished loading to the system
+     * and removes the tiles past the unload radius. Call once per frame with the position the level streams around.
+     */
+    public void update(Vector3 point) {
+        float reach = loadRadius + maxOverhang;
+        int minX = MathUtils.floor((point.x - reach) / tileSize);
+        int maxX = MathUtils.floor((point.x + reach) / tileSize);
+        int minZ = MathUtils.floor((point.z - reach) / tileSize);
+        int maxZ = MathUtils.floor((point.z + reach) / tileSize);
+        float loadRadius2 = loadRadius * loadRadius;
+
+        for (int x = minX; x <= maxX; x++) {
+            for (int z = minZ; z <= maxZ; z++) {
+                Tile tile = tiles.get(key(x, z));
+                if (tile == null || tile.loading != null || tile.body != null) continue;
+
+                if (tile.distance2(point) <= loadRadius2) {
+                    tile.cache = shapeCache;
+                    tile.loading = loader.submit(tile);
+                    activeTiles.add(tile);
+                }
+            }
+        }
+
+        float unloadRadius2 = unloadRadius * unloadRadius;
+        for (int i = activeTiles.size - 1; i >= 0; i--) {
+            Tile tile = activeTiles.get(i);
+            if (tile.loading != null && tile.loading.isDone()) {
+                finish(tile);
+            }
+
+            // Tiles still loading are unloaded once their build is done
+            if (tile.loading == null && tile.distance2(point) > unloadRadius2) {
+                unload(tile);
+                activeTiles.removeIndex(i);
+            }
+        }
+    }
+
+    /**
+     * Blocks until every tile loading is built and added to the system
+     */
+    public void finishLoading() {
+        for (Tile tile : activeTiles) {
+            if (tile.loading != null) {
+                finish(tile);
+            }
+        }
+    }
+
+    private void finish(Tile tile) {
+        // Rethrows a failed build, and makes the fields written by the loader visible to this thread
+        tile.loading.get();
+        tile.loading = null;
+
+        tile.body = new btRigidBody(0, null, tile.shape, Vector3.Zero);
+        physicsSystem.addBody(tile.body, CollisionLayers.STATIC);
+    }
+
+    private void unload(Tile tile) {
+        physicsSystem.removeBody(tile.body);
+        tile.body.dispose();
+        tile.body = null;
+        tile.disposeShape();
+    }
+
+    /**
+     * Takes the shapes of the tiles loading from now on out of the cache, keyed by the source the triangles of the
+     * level came from, the tile size and the tile. The cache must outlive the streamer.
+     * @param source the file the level was loaded from, its content is part of the key
+     */
+    public void setShapeCache(CollisionShapeCache shapeCache, FileHandle source) {
+        this.shapeCache = shapeCache;
+        cacheName = CollisionShapeCache.hash(source) + "_" + tileSize;
+    }
+
+    /**
+     * @param loadRadius tiles closer than this to the point are loaded
+     * @param unloadRadius tiles further than this are unloaded, at least the load radius so tiles at the edge do not
+     *                     load and unload over and over
+     */
+    public void setRadius(float loadRadius, float unloadRadius) {
+        if (unloadRadius < loadRadius) {
+            throw new GdxRuntimeException("The unload radius must be at least the load radius");
+        }
+        this.loadRadius = loadRadius;
+        this.unloadRadius = unloadRadius;
+    }
+
+    public float getLoadRadius() {
+        return loadRadius;
+    }
+
+    public float getUnloadRadius() {
+        return unloadRadius;
+    }
+
+    public float getTileSize() {
+        return tileSize;
+    }
+
+    /**
+     * @return the number of tiles holding triangles
+     */
+    public int getTileCount() {
+        return tiles.size;
+    }
+
+    /**
+     * @return the number of tiles with a body in the system
+     */
+    public int getLoadedTileCount() {
+        int count = 0;
+        for (Tile tile : activeTiles) {
+            if (tile.body != null) count++;
+        }
+        return count;
+    }
+
+    /**
+     * @return the number of tiles waiting for their shape to be built
+     */
+    public int getLoadingTileCount() {
+        return activeTiles.size - getLoadedTileCount();
+    }
+
+    /**
+     * Waits for the loader, then removes and disposes every loaded tile, before the system is disposed
+     */
+    @Override
+    public void dispose() {
+        loader.dispose();
+        for (Tile tile : activeTiles) {
+            if (tile.loading != null) {
+                tile.loading.get();
+                tile.loading = null;
+                tile.disposeShape();
+            } else {
+                unload(tile);
+            }
+        }
+        activeTiles.clear();
+    }
+}
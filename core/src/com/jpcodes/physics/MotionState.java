@@ -1,15 +1,25 @@
 package com.jpcodes.physics;
 
 import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.physics.bullet.dynamics.btRigidBody;
 import com.badlogic.gdx.physics.bullet.linearmath.btMotionState;
 
 /**
  * @author JamesTKhan
- * @version September 29, 2022
+ * @version October 18, 2026
  */
 public class MotionState extends btMotionState {
     public Matrix4 transform;
 
+    // Set while the body is tracked by a BodyRegistry
+    BodyRegistry registry;
+    btRigidBody body;
+    int movedFrame = -1;
+    int previousMovedFrame = -1;
+
+    // Slot of the body while it is in a TransformExport, -1 otherwise
+    int exportId = -1;
+
     public MotionState(Matrix4 transform) {
         this.transform = transform;
     }
@@ -22,5 +32,16 @@ public class MotionState extends btMotionState {
     @Override
     public void setWorldTransform(Matrix4 worldTrans) {
         transform.set(worldTrans);
+        moved();
+    }
+
+    /**
+     * Tells the registry tracking the body, if any, that Bullet moved the body. Bullet only calls
+     * setWorldTransform for active bodies.
+     */
+    protected final void moved() {
+        if (registry != null) {
+            registry.moved(this);
+        }
     }
 }
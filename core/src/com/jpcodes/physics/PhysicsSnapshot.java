@@ -0,0 +1,511 @@
+package com.jpcodes.physics;
+
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Quaternion;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.physics.bullet.collision.CollisionJNI;
+import com.badlogic.gdx.physics.bullet.collision.btBoxShape;
+import com.badlogic.gdx.physics.bullet.collision.btCapsuleShape;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionObject;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionObjectArray;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionShape;
+import com.badlogic.gdx.physics.bullet.collision.btConeShape;
+import com.badlogic.gdx.physics.bullet.collision.btCylinderShape;
+import com.badlogic.gdx.physics.bullet.collision.btSphereShape;
+import com.badlogic.gdx.physics.bullet.dynamics.btRigidBody;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.BufferUtils;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.ObjectIntMap;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Writes the rigid bodies of a {@link BulletPhysicsSystem} to a flat little endian binary layout and reads them back,
+ * either onto the bodies already in the world, for rollback, or as new bodies, for loading a level.
+ * <p>
+ * The layout is a header, a table of the distinct shapes and one fixed size record per body:
+ * <ul>
+ *     <li>header: magic, version, the time accumulator of the system, shape count, body count</li>
+ *     <li>shape: type then three dimensions, as passed to the {@link ShapeRegistry}</li>
+ *     <li>body: user value, shape index, mass, friction, restitution, linear and angular damping, collision flags,
+ *     activation state, deactivation time, filter group and mask, position, rotation, linear and angular velocity</li>
+ * </ul>
+ * Boxes, spheres, cones, cylinders and capsules along Y are stored in the shape table, any other shape is stored
+ * as {@link #NO_SHAPE}. Such bodies are restored but can not be loaded. Bodies are identified by their user value.
+ * <p>
+ * Snapshots go through any ByteBuffer, a MappedByteBuffer of a file included, or through NIO channels. The byte
+ * order of the buffers given is changed to little endian. Contact caches are not stored, restoring adds the bodies
+ * back to a reset broadphase and solver instead, so stepping from a restored snapshot is reproducible.
+ * Every method holds the monitor of the system, it is safe to use while a {@link SimulationThread} steps it.
+ *
+ * @author JamesTKhan
+ * @version October 17, 2026
+ */
+public class PhysicsSnapshot {
+    public static final int MAGIC = 0x4e535042;
+    public static final int VERSION = 1;
+    public static final int NO_SHAPE = -1;
+
+    public static final int HEADER_BYTES = 5 * 4;
+    public static final int SHAPE_BYTES = 4 * 4;
+    public static final int BODY_BYTES = 25 * 4;
+
+    // Same types as the ShapeRegistry
+    private static final int BOX = 0;
+    private static final int SPHERE = 1;
+    private static final int CONE = 2;
+    private static final int CYLINDER = 3;
+    private static final int CAPSULE = 4;
+
+    // Collected by write
+    private final Array<btRigidBody> bodies = new Array<>(false, 256);
+    private final Array<btCollisionShape> shapes = new Array<>();
+    private final ObjectIntMap<btCollisionShape> shapeIndices = new ObjectIntMap<>();
+
+    // Read by restore and load
+    private final IntMap<btRigidBody> bodiesById = new IntMap<>();
+    private final Array<btRigidBody> insertOrder = new Array<>(false, 256);
+    private final IntArray groups = new IntArray();
+    private final IntArray masks = new IntArray();
+    private final IntArray shapeTypes = new IntArray();
+    private final FloatArray shapeDimensions = new FloatArray();
+    private float accumulator;
+    private int shapeCount;
+    private int bodyCount;
+
+    // The body record being read
+    private int id;
+    private int shapeIndex;
+    private float mass, friction, restitution, linearDamping, angularDamping;
+    private int collisionFlags, activationState;
+    private float deactivationTime;
+    private int group, mask;
+    private final Vector3 position = new Vector3();
+    private final Quaternion rotation = new Quaternion();
+    private final Vector3 linearVelocity = new Vector3();
+    private final Vector3 angularVelocity = new Vector3();
+
+    private final Matrix4 tmpTransform = new Matrix4();
+    private final Vector3 tmpVector = new Vector3();
+
+    // Staging buffer of the channel methods
+    private ByteBuffer channelBuffer;
+
+    /**
+     * @return the number of bytes a snapshot of the system takes right now
+     */
+    public int getSize(BulletPhysicsSystem system) {
+        synchronized (system) {
+            collect(system);
+            return getSize(shapes.size, bodies.size);
+        }
+    }
+
+    private static int getSize(int shapeCount, int bodyCount) {
+        return HEADER_BYTES + shapeCount * SHAPE_BYTES + bodyCount * BODY_BYTES;
+    }
+
+    /**
+     * Writes every rigid body of the system at the position of the buffer, advancing it
+     * @return the number of bytes written
+     */
+    public int write(BulletPhysicsSystem system, ByteBuffer out) {
+        synchronized (system) {
+            collect(system);
+            return writeCollected(system, out);
+        }
+    }
+
+    /**
+     * Writes every rigid body of the system to the channel, for example a FileChannel or a SocketChannel
+     * @return the number of bytes written
+     */
+    public int write(BulletPhysicsSystem system, WritableByteChannel channel) throws IOException {
+        ByteBuffer buffer;
+        synchronized (system) {
+            collect(system);
+            buffer = getChannelBuffer(getSize(shapes.size, bodies.size));
+            writeCollected(system, buffer);
+        }
+        buffer.flip();
+
+        int size = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        return size;
+    }
+
+    private int writeCollected(BulletPhysicsSystem system, ByteBuffer out) {
+        int size = getSize(shapes.size, bodies.size);
+        if (out.remaining() < size) {
+            throw new GdxRuntimeException("The snapshot needs " + size + " bytes, the buffer has " + out.remaining());
+        }
+        out.order(ByteOrder.LITTLE_ENDIAN);
+
+        out.putInt(MAGIC);
+        out.putInt(VERSION);
+        out.putFloat(system.getAccumulator());
+        out.putInt(shapes.size);
+        out.putInt(bodies.size);
+
+        for (int i = 0; i < shapes.size; i++) {
+            writeShape(shapes.get(i), out);
+        }
+        for (int i = 0; i < bodies.size; i++) {
+            writeBody(bodies.get(i), out);
+        }
+
+        bodies.clear();
+        shapes.clear();
+        shapeIndices.clear();
+        return size;
+    }
+
+    private void collect(BulletPhysicsSystem system) {
+        bodies.clear();
+        shapes.clear();
+        shapeIndices.clear();
+
+        btCollisionObjectArray objects = system.getCollisionWorld().getCollisionObjectArray();
+        for (int i = 0; i < objects.size(); i++) {
+            btCollisionObject object = objects.atConst(i);
+            if (!(object instanceof btRigidBody)) continue;
+
+            bodies.add((btRigidBody) object);
+            btCollisionShape shape = object.getCollisionShape();
+            if (getShapeType(shape) != NO_SHAPE && !shapeIndices.containsKey(shape)) {
+                shapeIndices.put(shape, shapes.size);
+                shapes.add(shape);
+            }
+        }
+        objects.dispose();
+    }
+
+    private static int getShapeType(btCollisionShape shape) {
+        if (shape instanceof btBoxShape) return BOX;
+        if (shape instanceof btSphereShape) return SPHERE;
+        if (shape instanceof btConeShape && ((btConeShape) shape).getConeUpIndex() == 1) return CONE;
+        if (shape instanceof btCylinderShape && ((btCylinderShape) shape).getUpAxis() == 1) return CYLINDER;
+        if (shape instanceof btCapsuleShape && ((btCapsuleShape) shape).getUpAxis() == 1) return CAPSULE;
+        return NO_SHAPE;
+    }
+
+    private void writeShape(btCollisionShape shape, ByteBuffer out) {
+        int type = getShapeType(shape);
+        out.putInt(type);
+        switch (type) {
+            case BOX:
+                // The extents the shape was created with, Bullet keeps them without the margin
+                putVector(((btBoxShape) shape).getHalfExtentsWithMargin(), out);
+                break;
+            case SPHERE:
+                putDimensions(((btSphereShape) shape).getRadius(), 0, 0, out);
+                break;
+            case CONE:
+                btConeShape cone = (btConeShape) shape;
+                putDimensions(cone.getRadius(), cone.getHeight(), 0, out);
+                break;
+            case CYLINDER:
+                putVector(((btCylinderShape) shape).getHalfExtentsWithMargin(), out);
+                break;
+            case CAPSULE:
+                btCapsuleShape capsule = (btCapsuleShape) shape;
+                putDimensions(capsule.getRadius(), capsule.getHalfHeight() * 2f, 0, out);
+                break;
+        }
+    }
+
+    private static void putVector(Vector3 vector, ByteBuffer out) {
+        putDimensions(vector.x, vector.y, vector.z, out);
+    }
+
+    private static void putDimensions(float a, float b, float c, ByteBuffer out) {
+        out.putFloat(a);
+        out.putFloat(b);
+        out.putFloat(c);
+    }
+
+    private void writeBody(btRigidBody body, ByteBuffer out) {
+        float invMass = body.getInvMass();
+        long proxyPtr = BulletPhysicsSystem.getBroadphaseHandle(body);
+
+        out.putInt(body.getUserValue());
+        out.putInt(shapeIndices.get(body.getCollisionShape(), NO_SHAPE));
+        out.putFloat(invMass == 0f ? 0f : 1f / invMass);
+        out.putFloat(body.getFriction());
+        out.putFloat(body.getRestitution());
+        out.putFloat(body.getLinearDamping());
+        out.putFloat(body.getAngularDamping());
+        out.putInt(body.getCollisionFlags());
+        out.putInt(body.getActivationState());
+        out.putFloat(body.getDeactivationTime());
+        out.putInt(CollisionJNI.btBroadphaseProxy_collisionFilterGroup_get(proxyPtr, null));
+        out.putInt(CollisionJNI.btBroadphaseProxy_collisionFilterMask_get(proxyPtr, null));
+
+        body.getWorldTransform(tmpTransform);
+        tmpTransform.getTranslation(position);
+        tmpTransform.getRotation(rotation, true);
+        putVector(position, out);
+        out.putFloat(rotation.x);
+        out.putFloat(rotation.y);
+        out.putFloat(rotation.z);
+        out.putFloat(rotation.w);
+        putVector(body.getLinearVelocity(), out);
+        putVector(body.getAngularVelocity(), out);
+    }
+
+    /**
+     * Sets the bodies of the system back to the snapshot at the position of the buffer, advancing it. Bodies are
+     * matched by user value, records without a body in the system are skipped and bodies without a record are left
+     * as they are. Transforms, velocities, activation states, materials and filtering are restored, mass and shape
+     * only through {@link #load(BulletPhysicsSystem, ByteBuffer, ShapeRegistry, Array)}.
+     * @return the number of bodies restored
+     */
+    public int restore(BulletPhysicsSystem system, ByteBuffer in) {
+        synchronized (system) {
+            readHeaderOfComplete(in);
+            in.position(in.position() + shapeCount * SHAPE_BYTES);
+
+            bodies.clear();
+            bodiesById.clear();
+            btCollisionObjectArray objects = system.getCollisionWorld().getCollisionObjectArray();
+            for (int i = 0; i < objects.size(); i++) {
+                btCollisionObject object = objects.atConst(i);
+                if (object instanceof btRigidBody) {
+                    bodies.add((btRigidBody) object);
+                    bodiesById.put(object.getUserValue(), (btRigidBody) object);
+                }
+            }
+            objects.dispose();
+
+            insertOrder.clear();
+            groups.clear();
+            masks.clear();
+
+            int restored = 0;
+            for (int i = 0; i < bodyCount; i++) {
+                readBody(in);
+                btRigidBody body = bodiesById.remove(id);
+                if (body == null) continue;
+
+                applyMaterial(body);
+                applyState(system, body);
+                insertOrder.add(body);
+                groups.add(group);
+                masks.add(mask);
+                restored++;
+            }
+
+            // Bodies without a record go after the restored ones, with the filtering they have
+            for (int i = 0; i < bodies.size; i++) {
+                btRigidBody body = bodies.get(i);
+                if (bodiesById.get(body.getUserValue()) != body) continue;
+
+                long proxyPtr = BulletPhysicsSystem.getBroadphaseHandle(body);
+                insertOrder.add(body);
+                groups.add(CollisionJNI.btBroadphaseProxy_collisionFilterGroup_get(proxyPtr, null));
+                masks.add(CollisionJNI.btBroadphaseProxy_collisionFilterMask_get(proxyPtr, null));
+            }
+
+            if (restored > 0) {
+                system.reinsertBodies(insertOrder, groups, masks);
+            }
+            bodies.clear();
+            bodiesById.clear();
+            insertOrder.clear();
+
+            system.setAccumulator(accumulator);
+            return restored;
+        }
+    }
+
+    /**
+     * Reads a whole snapshot from the channel and restores it, see {@link #restore(BulletPhysicsSystem, ByteBuffer)}
+     * @return the number of bodies restored
+     */
+    public int restore(BulletPhysicsSystem system, ReadableByteChannel channel) throws IOException {
+        return restore(system, readChannel(channel));
+    }
+
+    /**
+     * Creates a rigid body per record of the snapshot at the position of the buffer and adds it to the system,
+     * with the filter group and mask of the snapshot. Shapes are obtained from the registry, release them when
+     * disposing the bodies. Each body gets a {@link MotionState} with a transform of its own, point a ModelInstance
+     * at it to render the body. Records of a shape the format does not store are skipped.
+     * @param out the created bodies are added to it
+     * @return out for chaining
+     */
+    public Array<btRigidBody> load(BulletPhysicsSystem system, ByteBuffer in, ShapeRegistry registry,
+                                   Array<btRigidBody> out) {
+        synchronized (system) {
+            readHeaderOfComplete(in);
+            shapeTypes.clear();
+            shapeDimensions.clear();
+            for (int i = 0; i < shapeCount; i++) {
+                shapeTypes.add(in.getInt());
+                shapeDimensions.add(in.getFloat(), in.getFloat(), in.getFloat());
+            }
+
+            for (int i = 0; i < bodyCount; i++) {
+                readBody(in);
+                if (shapeIndex == NO_SHAPE) continue;
+
+                btCollisionShape shape = obtainShape(registry, shapeIndex);
+                if (mass > 0f) {
+                    registry.calculateLocalInertia(shape, mass, tmpVector);
+                } else {
+                    tmpVector.setZero();
+                }
+
+                MotionState motionState = new MotionState(new Matrix4().set(position, rotation));
+                btRigidBody body = new btRigidBody(mass, motionState, shape, tmpVector);
+                body.setUserValue(id);
+                applyMaterial(body);
+                applyState(system, body);
+
+                system.addRigidBody(body, group, mask);
+                out.add(body);
+            }
+
+            system.setAccumulator(accumulator);
+            return out;
+        }
+    }
+
+    /**
+     * Reads a whole snapshot from the channel and loads it,
+     * see {@link #load(BulletPhysicsSystem, ByteBuffer, ShapeRegistry, Array)}
+     */
+    public Array<btRigidBody> load(BulletPhysicsSystem system, ReadableByteChannel channel, ShapeRegistry registry,
+                                   Array<btRigidBody> out) throws IOException {
+        return load(system, readChannel(channel), registry, out);
+    }
+
+    private btCollisionShape obtainShape(ShapeRegistry registry, int index) {
+        float a = shapeDimensions.get(index * 3);
+        float b = shapeDimensions.get(index * 3 + 1);
+        float c = shapeDimensions.get(index * 3 + 2);
+        switch (shapeTypes.get(index)) {
+            case BOX:
+                return registry.obtainBox(a, b, c);
+            case SPHERE:
+                return registry.obtainSphere(a);
+            case CONE:
+                return registry.obtainCone(a, b);
+            case CYLINDER:
+                return registry.obtainCylinder(a, b, c);
+            case CAPSULE:
+                return registry.obtainCapsule(a, b);
+            default:
+                throw new GdxRuntimeException("Unknown shape type " + shapeTypes.get(index) + " in the snapshot");
+        }
+    }
+
+    private ByteBuffer readChannel(ReadableByteChannel channel) throws IOException {
+        // The header tells the size of the rest
+        ByteBuffer buffer = getChannelBuffer(HEADER_BYTES);
+        buffer.limit(HEADER_BYTES);
+        readFully(channel, buffer);
+        buffer.flip();
+        readHeader(buffer);
+
+        int size = getSize(shapeCount, bodyCount);
+        ByteBuffer header = buffer;
+        buffer = getChannelBuffer(size);
+        if (buffer != header) {
+            header.position(0);
+            buffer.put(header);
+        } else {
+            buffer.position(HEADER_BYTES);
+        }
+        buffer.limit(size);
+        readFully(channel, buffer);
+        buffer.flip();
+        return buffer;
+    }
+
+    private static void readFully(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new GdxRuntimeException("The snapshot ended after " + buffer.position() + " bytes");
+            }
+        }
+    }
+
+    /**
+     * @return the staging buffer, cleared, grown to hold at least size bytes
+     */
+    private ByteBuffer getChannelBuffer(int size) {
+        if (channelBuffer == null || channelBuffer.capacity() < size) {
+            int capacity = channelBuffer == null ? size : Math.max(size, channelBuffer.capacity() * 2);
+            channelBuffer = BufferUtils.newByteBuffer(capacity);
+        }
+        channelBuffer.clear();
+        return channelBuffer;
+    }
+
+    private void readHeader(ByteBuffer in) {
+        in.order(ByteOrder.LITTLE_ENDIAN);
+        if (in.remaining() < HEADER_BYTES || in.getInt() != MAGIC) {
+            throw new GdxRuntimeException("Not a physics snapshot");
+        }
+        int version = in.getInt();
+        if (version != VERSION) {
+            throw new GdxRuntimeException("Unsupported snapshot version " + version);
+        }
+        accumulator = in.getFloat();
+        shapeCount = in.getInt();
+        bodyCount = in.getInt();
+    }
+
+    /**
+     * Reads the header and checks that the rest of the snapshot is in the buffer
+     */
+    private void readHeaderOfComplete(ByteBuffer in) {
+        readHeader(in);
+        int size = getSize(shapeCount, bodyCount) - HEADER_BYTES;
+        if (in.remaining() < size) {
+            throw new GdxRuntimeException("The snapshot needs " + size + " more bytes, the buffer has " + in.remaining());
+        }
+    }
+
+    private void readBody(ByteBuffer in) {
+        id = in.getInt();
+        shapeIndex = in.getInt();
+        mass = in.getFloat();
+        friction = in.getFloat();
+        restitution = in.getFloat();
+        linearDamping = in.getFloat();
+        angularDamping = in.getFloat();
+        collisionFlags = in.getInt();
+        activationState = in.getInt();
+        deactivationTime = in.getFloat();
+        group = in.getInt();
+        mask = in.getInt();
+        position.set(in.getFloat(), in.getFloat(), in.getFloat());
+        rotation.set(in.getFloat(), in.getFloat(), in.getFloat(), in.getFloat());
+        linearVelocity.set(in.getFloat(), in.getFloat(), in.getFloat());
+        angularVelocity.set(in.getFloat(), in.getFloat(), in.getFloat());
+    }
+
+    private void applyMaterial(btRigidBody body) {
+        body.setFriction(friction);
+        body.setRestitution(restitution);
+        body.setDamping(linearDamping, angularDamping);
+        body.setCollisionFlags(collisionFlags);
+    }
+
+    private void applyState(BulletPhysicsSystem system, btRigidBody body) {
+        tmpTransform.set(position, rotation);
+        system.setBodyState(body, tmpTransform, linearVelocity, angularVelocity, activationState, deactivationTime);
+    }
+}
@@ -0,0 +1,186 @@
+package com.jpcodes.physics;
+
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.physics.bullet.collision.bt32BitAxisSweep3;
+import com.badlogic.gdx.physics.bullet.collision.btAxisSweep3;
+import com.badlogic.gdx.physics.bullet.collision.btBroadphaseInterface;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionConfiguration;
+import com.badlogic.gdx.physics.bullet.collision.btDbvtBroadphase;
+import com.badlogic.gdx.physics.bullet.collision.btDefaultCollisionConfiguration;
+import com.badlogic.gdx.physics.bullet.collision.btDefaultCollisionConstructionInfo;
+import com.badlogic.gdx.physics.bullet.dynamics.btConstraintSolver;
+import com.badlogic.gdx.physics.bullet.dynamics.btNNCGConstraintSolver;
+import com.badlogic.gdx.physics.bullet.dynamics.btSequentialImpulseConstraintSolver;
+
+/**
+ * Configures the Bullet objects a {@link BulletPhysicsSystem} is made of. The defaults match
+ * a plain new BulletPhysicsSystem(), ex.
+ * <pre>
+ * new PhysicsWorldBuilder()
+ *         .broadphase(Broadphase.AXIS_SWEEP)
+ *         .worldBounds(new Vector3(-100, -10, -100), new Vector3(100, 50, 100))
+ *         .build();
+ * </pre>
+ *
+ * @author JamesTKhan
+ * @version October 17, 2026
+ */
+public class PhysicsWorldBuilder {
+    /** Bullet's own default pool size for both manifolds and collision algorithms */
+    public static final int DEFAULT_POOL_SIZE = 4096;
+
+    public enum Broadphase {
+        /** Dynamic AABB trees, adapts to any world size, the default */
+        DBVT,
+        /**
+         * Sweep and prune along the three axes, needs fixed world bounds and a maximum number of objects but
+         * can be faster when most objects rest. Switches to the 32 bit variant above 32766 objects.
+         */
+        AXIS_SWEEP
+    }
+
+    public enum Solver {
+        /** Projected Gauss-Seidel, the default */
+        SEQUENTIAL_IMPULSE,
+        /** Nonlinear conjugate gradient, converges faster for stacks at a higher cost per iteration */
+        NNCG
+    }
+
+    private boolean collisionOnly = false;
+    private Broadphase broadphase = Broadphase.DBVT;
+    private final Vector3 worldMin = new Vector3(-1000, -1000, -1000);
+    private final Vector3 worldMax = new Vector3(1000, 1000, 1000);
+    private int maxObjects = 16384;
+    private Solver solver = Solver.SEQUENTIAL_IMPULSE;
+    private int solverIterations = 10;
+    private int manifoldPoolSize = DEFAULT_POOL_SIZE;
+    private int algorithmPoolSize = DEFAULT_POOL_SIZE;
+    private CollisionLayers collisionLayers;
+    private boolean profiling = false;
+
+    /**
+     * @param collisionOnly build a btCollisionWorld without dynamics, the solver settings are ignored
+     */
+    public PhysicsWorldBuilder collisionOnly(boolean collisionOnly) {
+        this.collisionOnly = collisionOnly;
+        return this;
+    }
+
+    public PhysicsWorldBuilder broadphase(Broadphase broadphase) {
+        this.broadphase = broadphase;
+        return this;
+    }
+
+    /**
+     * Bounds of the world for the axis sweep broadphase, objects outside of them are still simulated but
+     * are a lot slower to sort.
+     */
+    public PhysicsWorldBuilder worldBounds(Vector3 min, Vector3 max) {
+        worldMin.set(min);
+        worldMax.set(max);
+        return this;
+    }
+
+    /**
+     * @param maxObjects the most collision objects the axis sweep broadphase can hold
+     */
+    public PhysicsWorldBuilder maxObjects(int maxObjects) {
+        this.maxObjects = maxObjects;
+        return this;
+    }
+
+    public PhysicsWorldBuilder solver(Solver solver) {
+        this.solver = solver;
+        return this;
+    }
+
+    public PhysicsWorldBuilder solverIterations(int solverIterations) {
+        this.solverIterations = solverIterations;
+        return this;
+    }
+
+    /**
+     * Sizes of the pools contact manifolds and collision algorithms are allocated from. Once a pool is full Bullet
+     * falls back to the heap, so large worlds with many touching pairs benefit from larger pools.
+     */
+    public PhysicsWorldBuilder poolSizes(int manifoldPoolSize, int algorithmPoolSize) {
+        this.manifoldPoolSize = manifoldPoolSize;
+        this.algorithmPoolSize = algorithmPoolSize;
+        return this;
+    }
+
+    /**
+     * @param collisionLayers the layer matrix used by the layered add methods of the system, a default one if not set
+     */
+    public PhysicsWorldBuilder collisionLayers(CollisionLayers collisionLayers) {
+        this.collisionLayers = collisionLayers;
+        return this;
+    }
+
+    /**
+     * @param profiling time every step per phase and count its work, see {@link StepProfiler}
+     */
+    public PhysicsWorldBuilder profiling(boolean profiling) {
+        this.profiling = profiling;
+        return this;
+    }
+
+    public BulletPhysicsSystem build() {
+        return new BulletPhysicsSystem(this);
+    }
+
+    boolean isCollisionOnly() {
+        return collisionOnly;
+    }
+
+    boolean isProfiling() {
+        return profiling;
+    }
+
+    int getSolverIterations() {
+        return solverIterations;
+    }
+
+    CollisionLayers getCollisionLayers() {
+        return collisionLayers != null ? collisionLayers : new CollisionLayers();
+    }
+
+    btCollisionConfiguration createCollisionConfiguration() {
+        if (manifoldPoolSize == DEFAULT_POOL_SIZE && algorithmPoolSize == DEFAULT_POOL_SIZE) {
+            return new btDefaultCollisionConfiguration();
+        }
+
+        // The configuration copies what it needs, the info can go right away
+        btDefaultCollisionConstructionInfo info = new btDefaultCollisionConstructionInfo();
+        info.setDefaultMaxPersistentManifoldPoolSize(manifoldPoolSize);
+        info.setDefaultMaxCollisionAlgorithmPoolSize(algorithmPoolSize);
+        btDefaultCollisionConfiguration collisionConfig = new btDefaultCollisionConfiguration(info);
+        info.dispose();
+        return collisionConfig;
+    }
+
+    btBroadphaseInterface createBroadphase() {
+        switch (broadphase) {
+            case AXIS_SWEEP:
+                // The 16 bit handles of btAxisSweep3 only go up to 32766 objects
+                if (maxObjects < 32767) {
+                    return new btAxisSweep3(worldMin, worldMax, maxObjects);
+                }
+                return new bt32BitAxisSweep3(worldMin, worldMax, maxObjects);
+            case DBVT:
+            default:
+                // General purpose, well optimized broadphase, adapts dynamically to the dimensions of the world.
+                return new btDbvtBroadphase();
+        }
+    }
+
+    btConstraintSolver createConstraintSolver() {
+        switch (solver) {
+            case NNCG:
+                return new btNNCGConstraintSolver();
+            case SEQUENTIAL_IMPULSE:
+            default:
+                return new btSequentialImpulseConstraintSolver();
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.jpcodes.physics;
+
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.physics.bullet.collision.btBroadphaseProxy;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionObject;
+import com.badlogic.gdx.physics.bullet.collision.btConvexShape;
+
+import java.util.Arrays;
+
+/**
+ * A queue of ray and convex sweep queries, run together by {@link BulletPhysicsSystem#runQueries(QueryBatch)}.
+ * <p>
+ * Each add method returns the index of the query, which is used to read its closest hit once the batch has run.
+ * The arrays only grow, so reusing one instance every frame allocates nothing once they are large enough.
+ *
+ * @author JamesTKhan
+ * @version October 17, 2026
+ */
+public class QueryBatch {
+    static final int RAY = 0;
+    static final int SWEEP = 1;
+
+    private int size;
+    private int filterGroup = btBroadphaseProxy.CollisionFilterGroups.DefaultFilter;
+    private int filterMask = btBroadphaseProxy.CollisionFilterGroups.AllFilter;
+
+    // Queries
+    int[] types = new int[0];
+    float[] rays = new float[0]; // from xyz, to xyz per query
+    btConvexShape[] shapes = new btConvexShape[0];
+    Matrix4[] sweepFrom = new Matrix4[0];
+    Matrix4[] sweepTo = new Matrix4[0];
+    btCollisionObject[] ignored = new btCollisionObject[0];
+
+    // Results
+    float[] hitFractions = new float[0];
+    float[] hitNormals = new float[0];
+    float[] hitPoints = new float[0];
+    btCollisionObject[] hitObjects = new btCollisionObject[0];
+
+    public int addRay(Vector3 from, Vector3 to) {
+        return addRay(from, to, null);
+    }
+
+    /**
+     * @param ignore a collision object the ray passes through, ex. the character casting it, can be null
+     * @return the index of the query
+     */
+    public int addRay(Vector3 from, Vector3 to, btCollisionObject ignore) {
+        int query = add(RAY, ignore);
+        int offset = query * 6;
+        rays[offset] = from.x;
+        rays[offset + 1] = from.y;
+        rays[offset + 2] = from.z;
+        rays[offset + 3] = to.x;
+        rays[offset + 4] = to.y;
+        rays[offset + 5] = to.z;
+        return query;
+    }
+
+    public int addSweep(btConvexShape shape, Matrix4 from, Matrix4 to) {
+        return addSweep(shape, from, to, null);
+    }
+
+    /**
+     * @param shape the convex shape swept from one transform to the other, only its rotation and translation are used
+     * @param ignore a collision object the shape passes through, can be null
+     * @return the index of the query
+     */
+    public int addSweep(btConvexShape shape, Matrix4 from, Matrix4 to, btCollisionObject ignore) {
+        int query = add(SWEEP, ignore);
+        shapes[query] = shape;
+        if (sweepFrom[query] == null) {
+            sweepFrom[query] = new Matrix4();
+            sweepTo[query] = new Matrix4();
+        }
+        sweepFrom[query].set(from);
+        sweepTo[query].set(to);
+        return query;
+    }
+
+    private int add(int type, btCollisionObject ignore) {
+        if (size == types.length) {
+            grow(Math.max(16, size * 2));
+        }
+        types[size] = type;
+        ignored[size] = ignore;
+        return size++;
+    }
+
+    private void grow(int capacity) {
+        types = Arrays.copyOf(types, capacity);
+        rays = Arrays.copyOf(rays, capacity * 6);
+        shapes = Arrays.copyOf(shapes, capacity);
+        sweepFrom = Arrays.copyOf(sweepFrom, capacity);
+        sweepTo = Arrays.copyOf(sweepTo, capacity);
+        ignored = Arrays.copyOf(ignored, capacity);
+        hitFractions = Arrays.copyOf(hitFractions, capacity);
+        hitNormals = Arrays.copyOf(hitNormals, capacity * 3);
+        hitPoints = Arrays.copyOf(hitPoints, capacity * 3);
+        hitObjects = Arrays.copyOf(hitObjects, capacity);
+    }
+
+    /**
+     * Removes all queued queries and their results
+     */
+    public void clear() {
+        Arrays.fill(shapes, 0, size, null);
+        Arrays.fill(ignored, 0, size, null);
+        Arrays.fill(hitObjects, 0, size, null);
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Sets the collision filter every query of the batch uses, same as a result callback's filter group and mask.
+     */
+    public void setCollisionFilter(int group, int mask) {
+        filterGroup = group;
+        filterMask = mask;
+    }
+
+    public int getFilterGroup() {
+        return filterGroup;
+    }
+
+    public int getFilterMask() {
+        return filterMask;
+    }
+
+    public boolean hasHit(int query) {
+        return hitObjects[query] != null;
+    }
+
+    /**
+     * @return the fraction along the query of the closest hit, 1 if nothing was hit
+     */
+    public float getHitFraction(int query) {
+        return hitFractions[query];
+    }
+
+    /**
+     * @return the closest collision object hit, null if nothing was hit
+     */
+    public btCollisionObject getHitObject(int query) {
+        return hitObjects[query];
+    }
+
+    /**
+     * @param out populated with the world space normal of the closest hit
+     */
+    public Vector3 getHitNormal(int query, Vector3 out) {
+        int offset = query * 3;
+        return out.set(hitNormals[offset], hitNormals[offset + 1], hitNormals[offset + 2]);
+    }
+
+    /**
+     * @param out populated with the world space position of the closest hit
+     */
+    public Vector3 getHitPoint(int query, Vector3 out) {
+        int offset = query * 3;
+        return out.set(hitPoints[offset], hitPoints[offset + 1], hitPoints[offset + 2]);
+    }
+}
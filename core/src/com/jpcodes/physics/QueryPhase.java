@@ -0,0 +1,490 @@
+package com.jpcodes.physics;
+
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.physics.bullet.collision.ClosestConvexResultCallback;
+import com.badlogic.gdx.physics.bullet.collision.ClosestRayResultCallback;
+import com.badlogic.gdx.physics.bullet.collision.CollisionJNI;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionObject;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionObjectArray;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionShape;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionWorld;
+import com.badlogic.gdx.physics.bullet.collision.btConvexShape;
+import com.badlogic.gdx.utils.Disposable;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs the queries of a {@link QueryBatch} in parallel on a fork-join pool, while the world is not being stepped.
+ * <p>
+ * btCollisionWorld.rayTest and convexSweepTest cannot be called from several threads at once, the Dbvt broadphase
+ * walks its tree with a single shared stack. So each run first takes a snapshot of the world, the transform and
+ * broadphase bounds of every collision object, and builds a bounding volume hierarchy over it. The workers walk that
+ * hierarchy with their own stack and only call into Bullet for the narrowphase, through the static
+ * btCollisionWorld.rayTestSingle and objectQuerySingle which share no state. Every worker owns its own result callbacks.
+ * <p>
+ * The snapshot costs a pass over all collision objects, so it pays off for batches of many queries.
+ *
+ * @author JamesTKhan
+ * @version October 18, 2026
+ */
+public class QueryPhase implements Disposable {
+    // Batches smaller than this are run on the calling thread
+    private static final int PARALLEL_THRESHOLD = 32;
+    private static final int LEAF_SIZE = 4;
+    private static final int STACK_SIZE = 64;
+    // The broadphase bounds are grown a little, so rounding in the slab test never drops an object Bullet would test
+    private static final float BOUNDS_MARGIN = 0.05f;
+
+    private final ForkJoinPool pool;
+    private final Worker[] workers;
+    private final RunTask runTask;
+
+    // Snapshot of the world
+    private int objectCount;
+    private btCollisionObject[] objects = new btCollisionObject[0];
+    private btCollisionShape[] objectShapes = new btCollisionShape[0];
+    private Matrix4[] transforms = new Matrix4[0];
+    private int[] filterGroups = new int[0];
+    private int[] filterMasks = new int[0];
+    private float[] bounds = new float[0]; // min xyz, max xyz per object
+    private float[] centers = new float[0];
+
+    // Bounding volume hierarchy over the snapshot, inner nodes have their two children next to each other
+    private int nodeCount;
+    private int[] order = new int[0];
+    private float[] nodeBounds = new float[0];
+    private int[] nodeStart = new int[0]; // first child, or first entry of order for leaves
+    private int[] nodeObjects = new int[0]; // number of objects of a leaf, 0 for inner nodes
+
+    private final Vector3 tmpMin = new Vector3();
+    private final Vector3 tmpMax = new Vector3();
+
+    private QueryBatch batch;
+
+    public QueryPhase(int parallelism) {
+        pool = new ForkJoinPool(parallelism);
+        workers = new Worker[parallelism];
+        for (int i = 0; i < parallelism; i++) {
+            workers[i] = new Worker();
+        }
+        runTask = new RunTask();
+    }
+
+    /**
+     * Runs every query of the batch against the world and blocks until all results are written.
+     * The world must not be changed or stepped until this returns.
+     */
+    public void run(btCollisionWorld world, QueryBatch batch) {
+        int size = batch.size();
+        if (size == 0) return;
+
+        takeSnapshot(world);
+        buildHierarchy();
+
+        this.batch = batch;
+        try {
+            if (size < PARALLEL_THRESHOLD || workers.length == 1) {
+                workers[0].run(0, size);
+            } else {
+                runTask.reinitialize();
+                pool.invoke(runTask);
+            }
+        } finally {
+            this.batch = null;
+        }
+    }
+
+    private void takeSnapshot(btCollisionWorld world) {
+        btCollisionObjectArray array = world.getCollisionObjectArray();
+        objectCount = array.size();
+        ensureObjectCapacity(objectCount);
+        long broadphase = CollisionJNI.btCollisionWorld_getBroadphase(btCollisionWorld.getCPtr(world), world);
+
+        for (int i = 0; i < objectCount; i++) {
+            btCollisionObject object = array.atConst(i);
+            objects[i] = object;
+            objectShapes[i] = object.getCollisionShape();
+            object.getWorldTransform(transforms[i]);
+
+            // Through the pointer of the proxy, a wrapper per object and run would be garbage
+            long proxy = BulletPhysicsSystem.getBroadphaseHandle(object);
+            CollisionJNI.btBroadphaseInterface_getAabb(broadphase, null, proxy, null, tmpMin, tmpMax);
+            filterGroups[i] = CollisionJNI.btBroadphaseProxy_collisionFilterGroup_get(proxy, null);
+            filterMasks[i] = CollisionJNI.btBroadphaseProxy_collisionFilterMask_get(proxy, null);
+            tmpMin.sub(BOUNDS_MARGIN);
+            tmpMax.add(BOUNDS_MARGIN);
+
+            int offset = i * 6;
+            bounds[offset] = tmpMin.x;
+            bounds[offset + 1] = tmpMin.y;
+            bounds[offset + 2] = tmpMin.z;
+            bounds[offset + 3] = tmpMax.x;
+            bounds[offset + 4] = tmpMax.y;
+            bounds[offset + 5] = tmpMax.z;
+            centers[i * 3] = (tmpMin.x + tmpMax.x) * 0.5f;
+            centers[i * 3 + 1] = (tmpMin.y + tmpMax.y) * 0.5f;
+            centers[i * 3 + 2] = (tmpMin.z + tmpMax.z) * 0.5f;
+        }
+        array.dispose();
+
+        // Do not keep removed objects alive
+        Arrays.fill(objects, objectCount, objects.length, null);
+        Arrays.fill(objectShapes, objectCount, objectShapes.length, null);
+    }
+
+    private void ensureObjectCapacity(int capacity) {
+        if (objects.length >= capacity) return;
+
+        int oldCapacity = objects.length;
+        capacity = Math.max(capacity, oldCapacity * 2);
+        objects = Arrays.copyOf(objects, capacity);
+        objectShapes = Arrays.copyOf(objectShapes, capacity);
+        transforms = Arrays.copyOf(transforms, capacity);
+        for (int i = oldCapacity; i < capacity; i++) {
+            transforms[i] = new Matrix4();
+        }
+        filterGroups = new int[capacity];
+        filterMasks = new int[capacity];
+        bounds = new float[capacity * 6];
+        centers = new float[capacity * 3];
+        order = new int[capacity];
+        nodeBounds = new float[capacity * 2 * 6];
+        nodeStart = new int[capacity * 2];
+        nodeObjects = new int[capacity * 2];
+    }
+
+    private void buildHierarchy() {
+        nodeCount = 0;
+        if (objectCount == 0) return;
+
+        for (int i = 0; i < objectCount; i++) {
+            order[i] = i;
+        }
+        buildNode(nodeCount++, 0, objectCount);
+    }
+
+    private void buildNode(int node, int start, int end) {
+        float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE, minZ = Float.MAX_VALUE;
+        float maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE, maxZ = -Float.MAX_VALUE;
+        for (int i = start; i < end; i++) {
+            int offset = order[i] * 6;
+            minX = Math.min(minX, bounds[offset]);
+            minY = Math.min(minY, bounds[offset + 1]);
+            minZ = Math.min(minZ, bounds[offset + 2]);
+            maxX = Math.max(maxX, bounds[offset + 3]);
+            maxY = Math.max(maxY, bounds[offset + 4]);
+            maxZ = Math.max(maxZ, bounds[offset + 5]);
+        }
+        int offset = node * 6;
+        nodeBounds[offset] = minX;
+        nodeBounds[offset + 1] = minY;
+        nodeBounds[offset + 2] = minZ;
+        nodeBounds[offset + 3] = maxX;
+        nodeBounds[offset + 4] = maxY;
+        nodeBounds[offset + 5] = maxZ;
+
+        if (end - start <= LEAF_SIZE) {
+            nodeStart[node] = start;
+            nodeObjects[node] = end - start;
+            return;
+        }
+
+        // Split at the median along the longest axis, which keeps the tree balanced
+        float sizeX = maxX - minX, sizeY = maxY - minY, sizeZ = maxZ - minZ;
+        int axis = sizeX >= sizeY && sizeX >= sizeZ ? 0 : (sizeY >= sizeZ ? 1 : 2);
+        int middle = (start + end) >>> 1;
+        select(start, end - 1, middle, axis);
+
+        int left = nodeCount;
+        nodeCount += 2;
+        nodeStart[node] = left;
+        nodeObjects[node] = 0;
+        buildNode(left, start, middle);
+        buildNode(left + 1, middle, end);
+    }
+
+    /**
+     * Partially sorts order between left and right, inclusive, so the entry at k has its center where it would be
+     * if sorted along the axis, with smaller ones before it and larger ones after it.
+     */
+    private void select(int left, int right, int k, int axis) {
+        while (right > left) {
+            float pivot = centers[order[(left + right) >>> 1] * 3 + axis];
+            int i = left, j = right;
+            while (i <= j) {
+                while (centers[order[i] * 3 + axis] < pivot) i++;
+                while (centers[order[j] * 3 + axis] > pivot) j--;
+                if (i <= j) {
+                    int tmp = order[i];
+                    order[i] = order[j];
+                    order[j] = tmp;
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void dispose() {
+        pool.shutdown();
+        for (Worker worker : workers) {
+            worker.dispose();
+        }
+    }
+
+    /**
+     * Splits the batch in one contiguous range per worker
+     */
+    private class RunTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final WorkerTask[] tasks;
+
+        RunTask() {
+            tasks = new WorkerTask[workers.length];
+            for (int i = 0; i < workers.length; i++) {
+                tasks[i] = new WorkerTask(workers[i]);
+            }
+        }
+
+        @Override
+        protected void compute() {
+            int size = batch.size();
+            for (int i = 0; i < tasks.length; i++) {
+                tasks[i].reinitialize();
+                tasks[i].start = (int) ((long) size * i / tasks.length);
+                tasks[i].end = (int) ((long) size * (i + 1) / tasks.length);
+            }
+            invokeAll(tasks);
+        }
+    }
+
+    private static class WorkerTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Worker worker;
+        int start;
+        int end;
+
+        WorkerTask(Worker worker) {
+            this.worker = worker;
+        }
+
+        @Override
+        protected void compute() {
+            worker.run(start, end);
+        }
+    }
+
+    /**
+     * The callbacks and scratch state of one worker, only ever used by one thread at a time
+     */
+    private class Worker implements Disposable {
+        private final ClosestRayResultCallback rayCallback = new ClosestRayResultCallback(Vector3.Zero, Vector3.Z);
+        private final ClosestConvexResultCallback sweepCallback = new ClosestConvexResultCallback(Vector3.Zero, Vector3.Z);
+        private final int[] stack = new int[STACK_SIZE];
+
+        private final Matrix4 rayFrom = new Matrix4();
+        private final Matrix4 rayTo = new Matrix4();
+        private final Vector3 from = new Vector3();
+        private final Vector3 to = new Vector3();
+        private final Vector3 min = new Vector3();
+        private final Vector3 max = new Vector3();
+        private final Matrix4 identity = new Matrix4();
+
+        // The segment being traced through the hierarchy, and how far boxes are grown for sweeps
+        private final float[] origin = new float[3];
+        private final float[] direction = new float[3];
+        private float margin;
+
+        void run(int start, int end) {
+            for (int query = start; query < end; query++) {
+                if (batch.types[query] == QueryBatch.RAY) {
+                    castRay(query);
+                } else {
+                    sweep(query);
+                }
+            }
+        }
+
+        private void castRay(int query) {
+            int offset = query * 6;
+            from.set(batch.rays[offset], batch.rays[offset + 1], batch.rays[offset + 2]);
+            to.set(batch.rays[offset + 3], batch.rays[offset + 4], batch.rays[offset + 5]);
+            rayFrom.setToTranslation(from);
+            rayTo.setToTranslation(to);
+            setSegment(from, to, 0f);
+
+            // Reset the callback
+            rayCallback.setClosestHitFraction(1.0f);
+            rayCallback.setCollisionObject(null);
+            rayCallback.setRayFromWorld(from);
+            rayCallback.setRayToWorld(to);
+
+            int hit = trace(query, null);
+            if (hit < 0) {
+                writeMiss(query);
+                return;
+            }
+
+            rayCallback.getHitNormalWorld(min);
+            rayCallback.getHitPointWorld(max);
+            writeHit(query, hit, rayCallback.getClosestHitFraction(), min, max);
+        }
+
+        private void sweep(int query) {
+            btConvexShape shape = batch.shapes[query];
+            batch.sweepFrom[query].getTranslation(from);
+            batch.sweepTo[query].getTranslation(to);
+
+            // Grow the boxes by a sphere around the shape, so any rotation along the sweep is covered
+            shape.getAabb(identity, min, max);
+            setSegment(from, to, Math.max(min.len(), max.len()));
+
+            sweepCallback.setClosestHitFraction(1.0f);
+            sweepCallback.setHitCollisionObject(null);
+
+            int hit = trace(query, shape);
+            if (hit < 0) {
+                writeMiss(query);
+                return;
+            }
+
+            sweepCallback.getHitNormalWorld(min);
+            sweepCallback.getHitPointWorld(max);
+            writeHit(query, hit, sweepCallback.getClosestHitFraction(), min, max);
+        }
+
+        private void setSegment(Vector3 from, Vector3 to, float margin) {
+            origin[0] = from.x;
+            origin[1] = from.y;
+            origin[2] = from.z;
+            direction[0] = to.x - from.x;
+            direction[1] = to.y - from.y;
+            direction[2] = to.z - from.z;
+            this.margin = margin;
+        }
+
+        /**
+         * Walks the hierarchy along the segment, running the narrowphase on the objects whose bounds it crosses.
+         * @param shape the swept shape, null for a ray
+         * @return the snapshot index of the closest object hit, -1 if none
+         */
+        private int trace(int query, btConvexShape shape) {
+            if (nodeCount == 0) return -1;
+
+            btCollisionObject ignore = batch.ignored[query];
+            int group = batch.getFilterGroup();
+            int mask = batch.getFilterMask();
+
+            float closest = 1f;
+            int hit = -1;
+
+            int top = 0;
+            stack[top++] = 0;
+            while (top > 0) {
+                int node = stack[--top];
+                if (!crosses(nodeBounds, node * 6, closest)) continue;
+
+                if (nodeObjects[node] == 0) {
+                    stack[top++] = nodeStart[node];
+                    stack[top++] = nodeStart[node] + 1;
+                    continue;
+                }
+
+                int end = nodeStart[node] + nodeObjects[node];
+                for (int i = nodeStart[node]; i < end; i++) {
+                    int object = order[i];
+                    if (objects[object] == ignore) continue;
+                    // Same test as the default needsCollision of the result callbacks
+                    if ((filterGroups[object] & mask) == 0 || (group & filterMasks[object]) == 0) continue;
+                    if (!crosses(bounds, object * 6, closest)) continue;
+
+                    float fraction;
+                    if (shape == null) {
+                        btCollisionWorld.rayTestSingle(rayFrom, rayTo, objects[object], objectShapes[object],
+                                transforms[object], rayCallback);
+                        fraction = rayCallback.getClosestHitFraction();
+                    } else {
+                        btCollisionWorld.objectQuerySingle(shape, batch.sweepFrom[query], batch.sweepTo[query],
+                                objects[object], objectShapes[object], transforms[object], sweepCallback, 0f);
+                        fraction = sweepCallback.getClosestHitFraction();
+                    }
+
+                    // The callbacks only keep a result closer than the current one
+                    if (fraction < closest) {
+                        closest = fraction;
+                        hit = object;
+                    }
+                }
+            }
+            return hit;
+        }
+
+        /**
+         * Slab test of the segment, up to the given fraction, against a box grown by the margin
+         */
+        private boolean crosses(float[] boxes, int offset, float maxFraction) {
+            float tMin = 0f;
+            float tMax = maxFraction;
+            for (int axis = 0; axis < 3; axis++) {
+                float boxMin = boxes[offset + axis] - margin;
+                float boxMax = boxes[offset + 3 + axis] + margin;
+                float o = origin[axis];
+                float d = direction[axis];
+
+                if (d == 0f) {
+                    if (o < boxMin || o > boxMax) return false;
+                    continue;
+                }
+
+                float inverse = 1f / d;
+                float t0 = (boxMin - o) * inverse;
+                float t1 = (boxMax - o) * inverse;
+                if (t0 > t1) {
+                    float tmp = t0;
+                    t0 = t1;
+                    t1 = tmp;
+                }
+                if (t0 > tMin) tMin = t0;
+                if (t1 < tMax) tMax = t1;
+                if (tMin > tMax) return false;
+            }
+            return true;
+        }
+
+        private void writeHit(int query, int object, float fraction, Vector3 normal, Vector3 point) {
+            int offset = query * 3;
+            batch.hitFractions[query] = fraction;
+            batch.hitObjects[query] = objects[object];
+            batch.hitNormals[offset] = normal.x;
+            batch.hitNormals[offset + 1] = normal.y;
+            batch.hitNormals[offset + 2] = normal.z;
+            batch.hitPoints[offset] = point.x;
+            batch.hitPoints[offset + 1] = point.y;
+            batch.hitPoints[offset + 2] = point.z;
+        }
+
+        private void writeMiss(int query) {
+            batch.hitFractions[query] = 1f;
+            batch.hitObjects[query] = null;
+        }
+
+        @Override
+        public void dispose() {
+            rayCallback.dispose();
+            sweepCallback.dispose();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.jpcodes.physics;
+
+/**
+ * Preallocated results of a batch of raycasts, filled by
+ * {@link BulletPhysicsSystem#raycast(float[], float[], int, RaycastResults)}.
+ * <p>
+ * Ray i owns hitFractions[i], bodyIds[i] and the three floats starting at i * 3 of hitNormals and hitPoints.
+ * A ray that hit nothing has a hit fraction of 1 and a body id of {@link #NO_HIT}, its normal and point are left untouched.
+ *
+ * @author JamesTKhan
+ * @version October 17, 2026
+ */
+public class RaycastResults {
+    public static final int NO_HIT = -1;
+
+    /** Fraction along the ray of the closest hit, 0 at the origin, 1 at the end */
+    public final float[] hitFractions;
+
+    /** The user value of the closest collision object hit, or NO_HIT */
+    public final int[] bodyIds;
+
+    /** xyz world space normal of the closest hit per ray */
+    public final float[] hitNormals;
+
+    /** xyz world space position of the closest hit per ray */
+    public final float[] hitPoints;
+
+    private int hitCount;
+
+    public RaycastResults(int capacity) {
+        hitFractions = new float[capacity];
+        bodyIds = new int[capacity];
+        hitNormals = new float[capacity * 3];
+        hitPoints = new float[capacity * 3];
+    }
+
+    public int getCapacity() {
+        return hitFractions.length;
+    }
+
+    /**
+     * @return the number of rays of the last batch that hit something
+     */
+    public int getHitCount() {
+        return hitCount;
+    }
+
+    void setHitCount(int hitCount) {
+        this.hitCount = hitCount;
+    }
+
+    public boolean hasHit(int ray) {
+        return bodyIds[ray] != NO_HIT;
+    }
+}
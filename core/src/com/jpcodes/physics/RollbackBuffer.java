@@ -0,0 +1,282 @@
+package com.jpcodes.physics;
+
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.physics.bullet.collision.CollisionConstants;
+import com.badlogic.gdx.physics.bullet.dynamics.btRigidBody;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.BufferUtils;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntMap;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * The states of the dynamic bodies of a {@link BulletPhysicsSystem} after each of its last fixed steps, for rollback
+ * netcode. Recorded by the system after every step into one direct buffer allocated up front, nothing is allocated
+ * per step. A frame holds the step number, then per body its user value, world transform, linear and angular
+ * velocity, activation state and deactivation time, {@link #BODY_BYTES} bytes per body. Bodies static when added
+ * are not recorded, sleeping bodies are copied from the previous frame, activate a sleeping body moved by hand.
+ * <p>
+ * {@link #rewind(int)} puts the world back in the state of an earlier step, {@link #resimulate(int, Inputs)} rewinds
+ * and steps forward again while the corrected inputs are applied. Rewinding adds the plain collision objects, then
+ * the bodies in the order they were added to the system, back to a reset broadphase and solver, so re-simulating
+ * from a rewound step with the same inputs gives the same states bit for bit, see RollbackBufferTest. That holds
+ * for one build of the natives on one platform, other platforms may round differently. Contact caches are not
+ * recorded, a step first simulated without a rewind right before it may come out slightly different once
+ * re-simulated, even with unchanged inputs.
+ * <p>
+ * Adding and removing bodies is not rolled back, a rewind leaves the bodies missing from the frame as they are.
+ * Every method holds the monitor of the system.
+ *
+ * @author JamesTKhan
+ * @version October 17, 2026
+ */
+public class RollbackBuffer {
+    public static final int FRAME_HEADER_BYTES = 2 * 4;
+    public static final int BODY_BYTES = 21 * 4;
+
+    /**
+     * Applies the inputs of a step while re-simulating, for example the forces of the players
+     */
+    public interface Inputs {
+        /**
+         * @param step the step about to be simulated
+         */
+        void apply(int step);
+    }
+
+    private final BulletPhysicsSystem system;
+    private final int frames;
+    private final int maxBodies;
+    private final int frameBytes;
+    private final ByteBuffer buffer;
+
+    // Every rigid body of the system in the order it was added, which is the order they are reinserted in
+    private final Array<btRigidBody> bodies = new Array<>();
+    private final IntMap<btRigidBody> bodiesById = new IntMap<>();
+
+    // The bodies recorded per frame, in record order
+    private final Array<btRigidBody> dynamicBodies = new Array<>();
+    private boolean dynamicBodiesChanged;
+
+    private int oldestStep;
+    private int newestStep = -1;
+
+    private final Matrix4 tmpTransform = new Matrix4();
+    private final Vector3 tmpLinearVelocity = new Vector3();
+    private final Vector3 tmpAngularVelocity = new Vector3();
+
+    RollbackBuffer(BulletPhysicsSystem system, int frames, int maxBodies) {
+        if (frames < 1) {
+            throw new GdxRuntimeException("The rollback buffer needs at least one frame");
+        }
+        this.system = system;
+        this.frames = frames;
+        this.maxBodies = maxBodies;
+        frameBytes = FRAME_HEADER_BYTES + maxBodies * BODY_BYTES;
+        buffer = BufferUtils.newByteBuffer(frames * frameBytes);
+        buffer.order(ByteOrder.nativeOrder());
+    }
+
+    void add(btRigidBody body) {
+        int id = body.getUserValue();
+        if (bodiesById.containsKey(id)) {
+            throw new GdxRuntimeException("Body id " + id + " is already part of the rollback buffer");
+        }
+        if (!body.isStaticObject()) {
+            if (dynamicBodies.size == maxBodies) {
+                throw new GdxRuntimeException("The rollback buffer can not record more than " + maxBodies + " bodies");
+            }
+            dynamicBodies.add(body);
+            dynamicBodiesChanged = true;
+        }
+        bodies.add(body);
+        bodiesById.put(id, body);
+    }
+
+    void remove(btRigidBody body) {
+        if (bodies.removeValue(body, true)) {
+            bodiesById.remove(body.getUserValue());
+            dynamicBodiesChanged |= dynamicBodies.removeValue(body, true);
+        }
+    }
+
+    /**
+     * Writes the state of every dynamic body as the frame of the step, dropping the oldest frame when full
+     */
+    void record(int step) {
+        int frame = (step % frames) * frameBytes;
+        int previousFrame = ((step - 1 + frames) % frames) * frameBytes;
+
+        // Sleeping bodies do not change, their record is copied from the previous frame instead of read through JNI
+        boolean copySleeping = frames > 1 && newestStep == step - 1 && !dynamicBodiesChanged;
+        dynamicBodiesChanged = false;
+
+        for (int i = 0; i < dynamicBodies.size; i++) {
+            btRigidBody body = dynamicBodies.get(i);
+            int offset = FRAME_HEADER_BYTES + i * BODY_BYTES;
+            int activationState = body.getActivationState();
+            if (copySleeping && activationState == CollisionConstants.ISLAND_SLEEPING) {
+                copyBody(previousFrame + offset, frame + offset);
+            } else {
+                writeBody(body, activationState, frame + offset);
+            }
+        }
+
+        buffer.putInt(frame, step);
+        buffer.putInt(frame + 4, dynamicBodies.size);
+
+        if (newestStep < 0) {
+            oldestStep = step;
+        }
+        newestStep = step;
+        oldestStep = Math.max(oldestStep, step - frames + 1);
+    }
+
+    private void copyBody(int from, int to) {
+        for (int i = 0; i < BODY_BYTES; i += 4) {
+            buffer.putInt(to + i, buffer.getInt(from + i));
+        }
+    }
+
+    private void writeBody(btRigidBody body, int activationState, int offset) {
+        body.getWorldTransform(tmpTransform);
+        tmpLinearVelocity.set(body.getLinearVelocity());
+        tmpAngularVelocity.set(body.getAngularVelocity());
+
+        // The basis and origin as Bullet holds them, so a rewind restores the transform exactly
+        float[] val = tmpTransform.val;
+        buffer.putInt(offset, body.getUserValue());
+        buffer.putFloat(offset + 4, val[Matrix4.M00]);
+        buffer.putFloat(offset + 8, val[Matrix4.M10]);
+        buffer.putFloat(offset + 12, val[Matrix4.M20]);
+        buffer.putFloat(offset + 16, val[Matrix4.M01]);
+        buffer.putFloat(offset + 20, val[Matrix4.M11]);
+        buffer.putFloat(offset + 24, val[Matrix4.M21]);
+        buffer.putFloat(offset + 28, val[Matrix4.M02]);
+        buffer.putFloat(offset + 32, val[Matrix4.M12]);
+        buffer.putFloat(offset + 36, val[Matrix4.M22]);
+        buffer.putFloat(offset + 40, val[Matrix4.M03]);
+        buffer.putFloat(offset + 44, val[Matrix4.M13]);
+        buffer.putFloat(offset + 48, val[Matrix4.M23]);
+        buffer.putFloat(offset + 52, tmpLinearVelocity.x);
+        buffer.putFloat(offset + 56, tmpLinearVelocity.y);
+        buffer.putFloat(offset + 60, tmpLinearVelocity.z);
+        buffer.putFloat(offset + 64, tmpAngularVelocity.x);
+        buffer.putFloat(offset + 68, tmpAngularVelocity.y);
+        buffer.putFloat(offset + 72, tmpAngularVelocity.z);
+        buffer.putInt(offset + 76, activationState);
+        buffer.putFloat(offset + 80, body.getDeactivationTime());
+    }
+
+    private void readBody(btRigidBody body, int offset) {
+        float[] val = tmpTransform.idt().val;
+        val[Matrix4.M00] = buffer.getFloat(offset + 4);
+        val[Matrix4.M10] = buffer.getFloat(offset + 8);
+        val[Matrix4.M20] = buffer.getFloat(offset + 12);
+        val[Matrix4.M01] = buffer.getFloat(offset + 16);
+        val[Matrix4.M11] = buffer.getFloat(offset + 20);
+        val[Matrix4.M21] = buffer.getFloat(offset + 24);
+        val[Matrix4.M02] = buffer.getFloat(offset + 28);
+        val[Matrix4.M12] = buffer.getFloat(offset + 32);
+        val[Matrix4.M22] = buffer.getFloat(offset + 36);
+        val[Matrix4.M03] = buffer.getFloat(offset + 40);
+        val[Matrix4.M13] = buffer.getFloat(offset + 44);
+        val[Matrix4.M23] = buffer.getFloat(offset + 48);
+        tmpLinearVelocity.set(buffer.getFloat(offset + 52), buffer.getFloat(offset + 56), buffer.getFloat(offset + 60));
+        tmpAngularVelocity.set(buffer.getFloat(offset + 64), buffer.getFloat(offset + 68), buffer.getFloat(offset + 72));
+
+        system.setBodyState(body, tmpTransform, tmpLinearVelocity, tmpAngularVelocity, buffer.getInt(offset + 76),
+                buffer.getFloat(offset + 80));
+    }
+
+    /**
+     * Puts the world back in the state it had after the step. The frames after it are dropped, stepping again
+     * records them anew.
+     * @param step a step between {@link #getOldestStep()} and {@link #getNewestStep()}
+     */
+    public void rewind(int step) {
+        synchronized (system) {
+            if (!contains(step)) {
+                throw new GdxRuntimeException("Step " + step + " is not in the rollback buffer, it holds "
+                        + oldestStep + " to " + newestStep);
+            }
+
+            int frame = (step % frames) * frameBytes;
+            int bodyCount = buffer.getInt(frame + 4);
+            int offset = frame + FRAME_HEADER_BYTES;
+            for (int i = 0; i < bodyCount; i++, offset += BODY_BYTES) {
+                btRigidBody body = bodiesById.get(buffer.getInt(offset));
+                if (body != null) {
+                    readBody(body, offset);
+                }
+            }
+
+            system.reinsertBodies(bodies);
+            system.setStepCount(step);
+            newestStep = step;
+        }
+    }
+
+    /**
+     * Rewinds to the step and steps forward to the newest step again, with the inputs applied before each step
+     * @param step the last step whose state is kept, see {@link #rewind(int)}
+     * @param inputs the corrected inputs, null to re-simulate without any
+     */
+    public void resimulate(int step, Inputs inputs) {
+        synchronized (system) {
+            int target = newestStep;
+            rewind(step);
+            for (int next = step + 1; next <= target; next++) {
+                if (inputs != null) {
+                    inputs.apply(next);
+                }
+                system.step();
+            }
+        }
+    }
+
+    /**
+     * @return whether the state of the step is held
+     */
+    public boolean contains(int step) {
+        synchronized (system) {
+            return newestStep >= 0 && step >= oldestStep && step <= newestStep;
+        }
+    }
+
+    /**
+     * @return the oldest step that can be rewound to
+     */
+    public int getOldestStep() {
+        synchronized (system) {
+            return oldestStep;
+        }
+    }
+
+    /**
+     * @return the last recorded step, the one the world is in
+     */
+    public int getNewestStep() {
+        synchronized (system) {
+            return newestStep;
+        }
+    }
+
+    public int getFrameCount() {
+        return frames;
+    }
+
+    public int getMaxBodies() {
+        return maxBodies;
+    }
+
+    /**
+     * @return the off heap memory held by the buffer, in bytes
+     */
+    public int getByteSize() {
+        return buffer.capacity();
+    }
+}
@@ -10,10 +10,13 @@ import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.utils.ChangeListener;
 import com.badlogic.gdx.utils.ScreenUtils;
 import com.badlogic.gdx.utils.viewport.FitViewport;
+import com.jpcodes.physics.rendering.InstancedRenderer;
+import com.jpcodes.physics.screens.BaseScreen;
 import com.jpcodes.physics.screens.BasicCollisionDetection;
 import com.jpcodes.physics.screens.DynamicCharacterScreen;
 import com.jpcodes.physics.screens.RigidBodyPhysics;
 import com.kotcrab.vis.ui.VisUI;
+import com.kotcrab.vis.ui.widget.VisCheckBox;
 import com.kotcrab.vis.ui.widget.VisLabel;
 import com.kotcrab.vis.ui.widget.VisSelectBox;
 import com.kotcrab.vis.ui.widget.VisTable;
@@ -62,8 +65,29 @@ public class SelectScreen extends ScreenAdapter {
             }
         });
 
+        final VisCheckBox simulationThreadBox = new VisCheckBox("Step physics on a simulation thread", BaseScreen.isUseSimulationThread());
+        simulationThreadBox.addListener(new ChangeListener() {
+            @Override
+            public void changed(ChangeEvent event, Actor actor) {
+                BaseScreen.setUseSimulationThread(simulationThreadBox.isChecked());
+            }
+        });
+
+        final VisCheckBox instancedRenderingBox = new VisCheckBox("Instanced rendering (needs --gl30)", BaseScreen.isUseInstancedRendering());
+        instancedRenderingBox.setDisabled(!InstancedRenderer.isSupported());
+        instancedRenderingBox.addListener(new ChangeListener() {
+            @Override
+            public void changed(ChangeEvent event, Actor actor) {
+                BaseScreen.setUseInstancedRendering(instancedRenderingBox.isChecked());
+            }
+        });
+
         selectTable.add(new VisLabel("Screen select: "));
         selectTable.add(screenSelect);
+        selectTable.row();
+        selectTable.add(simulationThreadBox).colspan(2).padTop(10);
+        selectTable.row();
+        selectTable.add(instancedRenderingBox).colspan(2).padTop(10);
         selectTable.setPosition(stage.getWidth() / 2, stage.getHeight() / 2);
         stage.addActor(selectTable);
 
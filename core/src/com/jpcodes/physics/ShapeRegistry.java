@@ -0,0 +1,204 @@
+package com.jpcodes.physics;
+
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.physics.bullet.collision.btBoxShape;
+import com.badlogic.gdx.physics.bullet.collision.btCapsuleShape;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionShape;
+import com.badlogic.gdx.physics.bullet.collision.btConeShape;
+import com.badlogic.gdx.physics.bullet.collision.btCylinderShape;
+import com.badlogic.gdx.physics.bullet.collision.btSphereShape;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.LongMap;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * Hands out shared collision shapes, one native shape per shape type and dimensions. Any number of bodies
+ * can use the same shape, so a thousand identical crates cost a single btBoxShape.
+ * <p>
+ * Shapes are reference counted, every obtain must be matched by a {@link #release(btCollisionShape)} once the body
+ * using the shape is disposed. The shape is disposed with its last release. The local inertia of a shape is cached per
+ * mass as well, see {@link #calculateLocalInertia(btCollisionShape, float, Vector3)}.
+ * <p>
+ * This is independent of the gdx-bullet ref counting, which is off unless Bullet.init(true) is called.
+ *
+ * @author JamesTKhan
+ * @version October 17, 2026
+ */
+public class ShapeRegistry implements Disposable {
+    private static final int BOX = 0;
+    private static final int SPHERE = 1;
+    private static final int CONE = 2;
+    private static final int CYLINDER = 3;
+    private static final int CAPSULE = 4;
+
+    private final ObjectMap<ShapeKey, Entry> entries = new ObjectMap<>();
+    private final LongMap<Entry> entriesByShape = new LongMap<>();
+
+    // Reused for lookups, so obtaining a shape that exists allocates nothing
+    private final ShapeKey lookup = new ShapeKey();
+
+    private static class ShapeKey {
+        int type;
+        float a, b, c;
+
+        ShapeKey set(int type, float a, float b, float c) {
+            this.type = type;
+            this.a = a;
+            this.b = b;
+            this.c = c;
+            return this;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ShapeKey)) return false;
+            ShapeKey other = (ShapeKey) o;
+            return type == other.type && Float.compare(a, other.a) == 0 && Float.compare(b, other.b) == 0
+                    && Float.compare(c, other.c) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = type;
+            result = 31 * result + Float.floatToIntBits(a);
+            result = 31 * result + Float.floatToIntBits(b);
+            result = 31 * result + Float.floatToIntBits(c);
+            return result;
+        }
+    }
+
+    private static class Entry {
+        final ShapeKey key;
+        final btCollisionShape shape;
+        int references;
+
+        // Local inertia per mass, xyz per mass
+        final FloatArray masses = new FloatArray(1);
+        final FloatArray inertias = new FloatArray(3);
+
+        Entry(ShapeKey key, btCollisionShape shape) {
+            this.key = key;
+            this.shape = shape;
+        }
+    }
+
+    public btBoxShape obtainBox(float halfWidth, float halfHeight, float halfDepth) {
+        return (btBoxShape) obtain(BOX, halfWidth, halfHeight, halfDepth);
+    }
+
+    public btSphereShape obtainSphere(float radius) {
+        return (btSphereShape) obtain(SPHERE, radius, 0, 0);
+    }
+
+    public btConeShape obtainCone(float radius, float height) {
+        return (btConeShape) obtain(CONE, radius, height, 0);
+    }
+
+    public btCylinderShape obtainCylinder(float halfWidth, float halfHeight, float halfDepth) {
+        return (btCylinderShape) obtain(CYLINDER, halfWidth, halfHeight, halfDepth);
+    }
+
+    public btCapsuleShape obtainCapsule(float radius, float height) {
+        return (btCapsuleShape) obtain(CAPSULE, radius, height, 0);
+    }
+
+    private btCollisionShape obtain(int type, float a, float b, float c) {
+        Entry entry = entries.get(lookup.set(type, a, b, c));
+        if (entry == null) {
+            ShapeKey key = new ShapeKey().set(type, a, b, c);
+            entry = new Entry(key, create(type, a, b, c));
+            entries.put(key, entry);
+            entriesByShape.put(entry.shape.getCPointer(), entry);
+        }
+        entry.references++;
+        return entry.shape;
+    }
+
+    private btCollisionShape create(int type, float a, float b, float c) {
+        Vector3 halfExtents = new Vector3(a, b, c);
+        switch (type) {
+            case BOX:
+                return new btBoxShape(halfExtents);
+            case SPHERE:
+                return new btSphereShape(a);
+            case CONE:
+                return new btConeShape(a, b);
+            case CYLINDER:
+                return new btCylinderShape(halfExtents);
+            case CAPSULE:
+                return new btCapsuleShape(a, b);
+            default:
+                throw new GdxRuntimeException("Unknown shape type " + type);
+        }
+    }
+
+    /**
+     * Gives back a shape obtained from this registry, disposing it when no body uses it anymore
+     */
+    public void release(btCollisionShape shape) {
+        Entry entry = entriesByShape.get(shape.getCPointer());
+        if (entry == null) {
+            throw new GdxRuntimeException("The shape was not obtained from this registry");
+        }
+
+        if (--entry.references == 0) {
+            entries.remove(entry.key);
+            entriesByShape.remove(shape.getCPointer());
+            shape.dispose();
+        }
+    }
+
+    /**
+     * Same as btCollisionShape.calculateLocalInertia, cached per mass for shapes of this registry.
+     * @param out populated with the local inertia
+     * @return out for chaining
+     */
+    public Vector3 calculateLocalInertia(btCollisionShape shape, float mass, Vector3 out) {
+        Entry entry = entriesByShape.get(shape.getCPointer());
+        if (entry == null) {
+            shape.calculateLocalInertia(mass, out);
+            return out;
+        }
+
+        for (int i = 0; i < entry.masses.size; i++) {
+            if (entry.masses.get(i) == mass) {
+                return out.set(entry.inertias.get(i * 3), entry.inertias.get(i * 3 + 1), entry.inertias.get(i * 3 + 2));
+            }
+        }
+
+        shape.calculateLocalInertia(mass, out);
+        entry.masses.add(mass);
+        entry.inertias.add(out.x, out.y, out.z);
+        return out;
+    }
+
+    /**
+     * @return the number of distinct shapes currently alive
+     */
+    public int getShapeCount() {
+        return entries.size;
+    }
+
+    /**
+     * @return how many times the shape is currently obtained, 0 if it is not part of this registry
+     */
+    public int getReferenceCount(btCollisionShape shape) {
+        Entry entry = entriesByShape.get(shape.getCPointer());
+        return entry != null ? entry.references : 0;
+    }
+
+    /**
+     * Disposes every shape, whether still obtained or not. Bodies using them must not be simulated anymore.
+     */
+    @Override
+    public void dispose() {
+        for (Entry entry : entries.values()) {
+            entry.shape.dispose();
+        }
+        entries.clear();
+        entriesByShape.clear();
+    }
+}
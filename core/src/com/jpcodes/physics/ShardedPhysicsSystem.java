@@ -0,0 +1,427 @@
+package com.jpcodes.physics;
+
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.physics.bullet.collision.CollisionConstants;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionObject;
+import com.badlogic.gdx.physics.bullet.dynamics.btRigidBody;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Splits the world into strips along the X axis, each simulated by its own {@link BulletPhysicsSystem},
+ * and steps all of them in parallel on a fork-join pool so a large scene can use more than one core.
+ * <p>
+ * A body belongs to the strip its center is in and migrates to the neighbouring strip once it is past
+ * the border by more than a small hysteresis. Bodies closer to a border than the ghost margin get a ghost in
+ * the neighbouring strip, a kinematic copy following the body, so objects on either side still collide.
+ * The collision is one way per side, each strip sees the other side's bodies as kinematic, which is
+ * close enough as long as the ghost margin is larger than the largest body.
+ * <p>
+ * Static bodies are added to one strip and copied as plain collision objects into all the others.
+ * Like {@link BulletPhysicsSystem}, bodies added are not disposed by this system, ghosts and static copies are.
+ * <p>
+ * Bodies must not have a motion state. Bullet calls motion states back with a Matrix4 from a static pool of
+ * gdx-bullet that is not thread safe, which strips stepping in parallel would share. Read the transforms from the
+ * bodies once {@link #step()} or {@link #update(float)} returns instead, ex. with btRigidBody.getWorldTransform.
+ *
+ * @author JamesTKhan
+ * @version October 17, 2026
+ */
+public class ShardedPhysicsSystem implements Disposable {
+    private final BulletPhysicsSystem[] shards;
+    private final float minX;
+    private final float regionWidth;
+    private final float ghostMargin;
+    private final float hysteresis;
+
+    private final ForkJoinPool pool;
+    private final StepTask stepTask;
+
+    private final Array<ShardedBody> bodies = new Array<>();
+    private final Array<btRigidBody> staticBodies = new Array<>();
+    private final IntArray staticBodyShards = new IntArray();
+    private final Array<btCollisionObject> staticCopies = new Array<>();
+    private final Array<BulletPhysicsSystem> staticCopyShards = new Array<>();
+
+    private float fixedTimeStep = 1/60f;
+    private int maxSubSteps = 5;
+    private float accumulator = 0f;
+
+    private final Matrix4 tmpTransform = new Matrix4();
+    private final Vector3 tmpPosition = new Vector3();
+
+    private static class ShardedBody {
+        final btRigidBody body;
+        int shard;
+        Ghost left;
+        Ghost right;
+
+        ShardedBody(btRigidBody body, int shard) {
+            this.body = body;
+            this.shard = shard;
+        }
+    }
+
+    /**
+     * A kinematic copy of a body. Bullet derives the velocity of a kinematic body without a motion state from its
+     * interpolation transform, the transform of the last step, to the world transform set in between.
+     */
+    private static class Ghost implements Disposable {
+        final btRigidBody body;
+
+        Ghost(btRigidBody source, Matrix4 sourceTransform) {
+            btRigidBody.btRigidBodyConstructionInfo info = new btRigidBody.btRigidBodyConstructionInfo(0, null,
+                    source.getCollisionShape(), Vector3.Zero);
+            body = new btRigidBody(info);
+            info.dispose();
+
+            // No movement before the first step
+            body.setWorldTransform(sourceTransform);
+            body.setInterpolationWorldTransform(sourceTransform);
+            body.setCollisionFlags(body.getCollisionFlags() | btCollisionObject.CollisionFlags.CF_KINEMATIC_OBJECT);
+            body.setActivationState(CollisionConstants.DISABLE_DEACTIVATION);
+            body.setFriction(source.getFriction());
+            body.setRestitution(source.getRestitution());
+        }
+
+        @Override
+        public void dispose() {
+            body.dispose();
+        }
+    }
+
+    /**
+     * @param shardCount number of strips, also the number of threads stepping them
+     * @param minX where the first strip starts, bodies below it belong to the first strip
+     * @param maxX where the last strip ends, bodies above it belong to the last strip
+     * @param ghostMargin distance to a border under which a body gets a ghost on the other side, at least the size
+     *                    of the largest body
+     */
+    public ShardedPhysicsSystem(int shardCount, float minX, float maxX, float ghostMargin) {
+        this(shardCount, minX, maxX, ghostMargin, new PhysicsWorldBuilder());
+    }
+
+    /**
+     * @param builder configures the world of every strip
+     */
+    public ShardedPhysicsSystem(int shardCount, float minX, float maxX, float ghostMargin, PhysicsWorldBuilder builder) {
+        if (builder.isCollisionOnly()) {
+            throw new GdxRuntimeException("A sharded system needs dynamics worlds");
+        }
+
+        this.minX = minX;
+        this.regionWidth = (maxX - minX) / shardCount;
+        this.ghostMargin = ghostMargin;
+        this.hysteresis = ghostMargin * 0.25f;
+
+        if (ghostMargin * 2 > regionWidth) {
+            throw new GdxRuntimeException("The ghost margin must be less than half the width of a strip");
+        }
+
+        shards = new BulletPhysicsSystem[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = builder.build();
+            shards[i].setFixedTimeStep(fixedTimeStep);
+        }
+
+        pool = new ForkJoinPool(Math.min(shardCount, Runtime.getRuntime().availableProcessors()));
+        stepTask = new StepTask();
+    }
+
+    /**
+     * Update all strips, should be called every frame.
+     * @param delta deltaTime since last frame
+     */
+    public void update(float delta) {
+        accumulator += delta;
+
+        int subSteps = 0;
+        while (accumulator >= fixedTimeStep && subSteps < maxSubSteps) {
+            step();
+            accumulator -= fixedTimeStep;
+            subSteps++;
+        }
+
+        // Too far behind, drop the time we could not simulate like Bullet does
+        if (accumulator >= fixedTimeStep) {
+            accumulator %= fixedTimeStep;
+        }
+    }
+
+    /**
+     * Advance every strip by one fixed time step in parallel, then migrate bodies and move their ghosts.
+     */
+    public void step() {
+        if (shards.length == 1) {
+            shards[0].step();
+        } else {
+            stepTask.reinitialize();
+            pool.invoke(stepTask);
+        }
+
+        for (int i = 0; i < bodies.size; i++) {
+            ShardedBody shardedBody = bodies.get(i);
+            shardedBody.body.getWorldTransform(tmpTransform);
+            tmpTransform.getTranslation(tmpPosition);
+
+            migrate(shardedBody, tmpPosition.x);
+            updateGhosts(shardedBody, tmpPosition.x, tmpTransform);
+        }
+    }
+
+    private void migrate(ShardedBody shardedBody, float x) {
+        int owner = shardOf(x);
+        if (owner == shardedBody.shard) return;
+
+        // Stay a bit past the border before moving, so a body resting on it does not bounce between strips
+        float border = owner > shardedBody.shard ? borderOf(shardedBody.shard + 1) : borderOf(shardedBody.shard);
+        if (Math.abs(x - border) < hysteresis && Math.abs(owner - shardedBody.shard) == 1) return;
+
+        // The ghosts are rebuilt around the new strip
+        removeGhosts(shardedBody);
+        shards[shardedBody.shard].removeBody(shardedBody.body);
+        shards[owner].addBody(shardedBody.body);
+        shardedBody.shard = owner;
+    }
+
+    private void updateGhosts(ShardedBody shardedBody, float x, Matrix4 transform) {
+        int shard = shardedBody.shard;
+
+        boolean nearLeft = shard > 0 && x - borderOf(shard) < ghostMargin;
+        shardedBody.left = updateGhost(shardedBody.left, nearLeft, shardedBody.body, transform, shard - 1);
+
+        boolean nearRight = shard < shards.length - 1 && borderOf(shard + 1) - x < ghostMargin;
+        shardedBody.right = updateGhost(shardedBody.right, nearRight, shardedBody.body, transform, shard + 1);
+    }
+
+    private Ghost updateGhost(Ghost ghost, boolean needed, btRigidBody body, Matrix4 transform, int shard) {
+        if (!needed) {
+            if (ghost != null) {
+                shards[shard].removeBody(ghost.body);
+                ghost.dispose();
+            }
+            return null;
+        }
+
+        if (ghost == null) {
+            ghost = new Ghost(body, transform);
+            shards[shard].addBody(ghost.body);
+        } else {
+            // Bullet takes the movement since the last step as the velocity of the ghost
+            ghost.body.setWorldTransform(transform);
+        }
+        return ghost;
+    }
+
+    private void removeGhosts(ShardedBody shardedBody) {
+        if (shardedBody.left != null) {
+            shards[shardedBody.shard - 1].removeBody(shardedBody.left.body);
+            shardedBody.left.dispose();
+            shardedBody.left = null;
+        }
+        if (shardedBody.right != null) {
+            shards[shardedBody.shard + 1].removeBody(shardedBody.right.body);
+            shardedBody.right.dispose();
+            shardedBody.right = null;
+        }
+    }
+
+    /**
+     * @return the strip a position along the X axis belongs to
+     */
+    public int shardOf(float x) {
+        return MathUtils.clamp((int) Math.floor((x - minX) / regionWidth), 0, shards.length - 1);
+    }
+
+    /**
+     * @return the X coordinate where the given strip starts
+     */
+    private float borderOf(int shard) {
+        return minX + shard * regionWidth;
+    }
+
+    /**
+     * Add a dynamic rigid body to the strip its center is in.
+     * @param body the body to add, without a motion state
+     */
+    public void addBody(btRigidBody body) {
+        if (body.isStaticObject()) {
+            throw new GdxRuntimeException("Static bodies are added with addStaticBody");
+        }
+        if (body.getMotionState() != null) {
+            throw new GdxRuntimeException("Sharded bodies are stepped in parallel and can not have a motion state");
+        }
+
+        body.getWorldTransform(tmpTransform);
+        tmpTransform.getTranslation(tmpPosition);
+
+        ShardedBody shardedBody = new ShardedBody(body, shardOf(tmpPosition.x));
+        shards[shardedBody.shard].addBody(body);
+        bodies.add(shardedBody);
+
+        updateGhosts(shardedBody, tmpPosition.x, tmpTransform);
+    }
+
+    /**
+     * Remove a rigid body and its ghosts, the body is not disposed
+     * @param body the body to remove
+     */
+    public void removeBody(btRigidBody body) {
+        for (int i = 0; i < bodies.size; i++) {
+            ShardedBody shardedBody = bodies.get(i);
+            if (shardedBody.body == body) {
+                removeGhosts(shardedBody);
+                shards[shardedBody.shard].removeBody(body);
+                bodies.removeIndex(i);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Add a static body, ex. the floor. The body goes to the strip its center is in, every other strip gets a static
+     * collision object sharing its shape and transform.
+     * @param body a body with a mass of 0
+     */
+    public void addStaticBody(btRigidBody body) {
+        body.getWorldTransform(tmpTransform);
+        tmpTransform.getTranslation(tmpPosition);
+        int owner = shardOf(tmpPosition.x);
+        shards[owner].addBody(body);
+        staticBodies.add(body);
+        staticBodyShards.add(owner);
+
+        for (int i = 0; i < shards.length; i++) {
+            if (i == owner) continue;
+
+            btCollisionObject copy = new btCollisionObject();
+            copy.setCollisionShape(body.getCollisionShape());
+            copy.setWorldTransform(tmpTransform);
+            copy.setCollisionFlags(copy.getCollisionFlags() | btCollisionObject.CollisionFlags.CF_STATIC_OBJECT);
+            copy.setFriction(body.getFriction());
+            copy.setRestitution(body.getRestitution());
+            shards[i].addCollisionObject(copy);
+
+            staticCopies.add(copy);
+            staticCopyShards.add(shards[i]);
+        }
+    }
+
+    /**
+     * Debug draw every strip
+     * @param camera camera to render to
+     */
+    public void render(Camera camera) {
+        for (BulletPhysicsSystem shard : shards) {
+            shard.render(camera);
+        }
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    public BulletPhysicsSystem getShard(int shard) {
+        return shards[shard];
+    }
+
+    /**
+     * @return the strip a body added with {@link #addBody(btRigidBody)} currently belongs to, -1 if it was not added
+     */
+    public int getShardOf(btRigidBody body) {
+        for (int i = 0; i < bodies.size; i++) {
+            if (bodies.get(i).body == body) return bodies.get(i).shard;
+        }
+        return -1;
+    }
+
+    public float getFixedTimeStep() {
+        return fixedTimeStep;
+    }
+
+    public void setFixedTimeStep(float fixedTimeStep) {
+        this.fixedTimeStep = fixedTimeStep;
+        for (BulletPhysicsSystem shard : shards) {
+            shard.setFixedTimeStep(fixedTimeStep);
+        }
+    }
+
+    public void setMaxSubSteps(int maxSubSteps) {
+        this.maxSubSteps = maxSubSteps;
+    }
+
+    @Override
+    public void dispose() {
+        pool.shutdown();
+
+        for (ShardedBody shardedBody : bodies) {
+            removeGhosts(shardedBody);
+            shards[shardedBody.shard].removeBody(shardedBody.body);
+        }
+        bodies.clear();
+
+        for (int i = 0; i < staticCopies.size; i++) {
+            staticCopyShards.get(i).removeCollisionObject(staticCopies.get(i));
+            staticCopies.get(i).dispose();
+        }
+        staticCopies.clear();
+        staticCopyShards.clear();
+
+        for (int i = 0; i < staticBodies.size; i++) {
+            shards[staticBodyShards.get(i)].removeBody(staticBodies.get(i));
+        }
+        staticBodies.clear();
+        staticBodyShards.clear();
+
+        for (BulletPhysicsSystem shard : shards) {
+            shard.dispose();
+        }
+    }
+
+    /**
+     * Steps every strip on its own task
+     */
+    private class StepTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final ShardStepTask[] tasks;
+
+        StepTask() {
+            tasks = new ShardStepTask[shards.length];
+            for (int i = 0; i < shards.length; i++) {
+                tasks[i] = new ShardStepTask(shards[i]);
+            }
+        }
+
+        @Override
+        protected void compute() {
+            for (ShardStepTask task : tasks) {
+                task.reinitialize();
+            }
+            invokeAll(tasks);
+        }
+    }
+
+    private static class ShardStepTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final BulletPhysicsSystem shard;
+
+        ShardStepTask(BulletPhysicsSystem shard) {
+            this.shard = shard;
+        }
+
+        @Override
+        protected void compute() {
+            shard.step();
+        }
+    }
+}
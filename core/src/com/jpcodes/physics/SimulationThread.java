@@ -0,0 +1,219 @@
+package com.jpcodes.physics;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Quaternion;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Steps a {@link BulletPhysicsSystem} at a fixed rate on its own thread, so a slow physics step
+ * does not hold up the render thread.
+ * <p>
+ * After every step the transforms of all tracked entities are written to a snapshot, the snapshots are
+ * triple buffered so neither side ever waits on the other. The render thread calls {@link #interpolate()}
+ * once per frame, which blends the previous and current step of the newest snapshot into the model instances.
+ * <p>
+ * Tracked bodies must not have a MotionState writing to their model instance, the simulation thread
+ * would be writing the same matrix the renderer reads. Anything else touching the world or its bodies from another
+ * thread must synchronize on the physics system, the simulation thread holds that lock while stepping.
+ *
+ * @author JamesTKhan
+ * @version October 17, 2026
+ */
+public class SimulationThread implements Runnable, Disposable {
+    /** Position xyz and rotation xyzw per body */
+    private static final int STRIDE = 7;
+
+    /** When the simulation falls further behind than this it skips ahead instead of trying to catch up */
+    private static final int MAX_STEPS_BEHIND = 5;
+
+    private final BulletPhysicsSystem physicsSystem;
+    private final long stepNanos;
+
+    // Owned by the simulation thread, guarded by the physics system lock
+    private final Array<BulletEntity> simulationEntities = new Array<>();
+    private final Matrix4 simTransform = new Matrix4();
+    private final Vector3 simPosition = new Vector3();
+    private final Quaternion simRotation = new Quaternion();
+    private float[] lastStep = new float[0];
+    private int lastStepCount = 0;
+    private Snapshot back = new Snapshot();
+    private long stepCount = 0;
+
+    // Owned by the render thread
+    private final Array<BulletEntity> renderEntities = new Array<>();
+    private final Vector3 position = new Vector3();
+    private final Vector3 previousPosition = new Vector3();
+    private final Quaternion rotation = new Quaternion();
+    private final Quaternion previousRotation = new Quaternion();
+    private Snapshot front = new Snapshot();
+
+    // Exchanged between the two
+    private final AtomicReference<Snapshot> ready = new AtomicReference<>(new Snapshot());
+
+    private volatile boolean running = false;
+    private Thread thread;
+
+    /**
+     * The transforms of one step, along with the transforms of the step before it.
+     */
+    private static class Snapshot {
+        float[] previous = new float[0];
+        float[] current = new float[0];
+        int count = 0;
+        long step = -1;
+        long timeNanos = 0;
+
+        void ensureCapacity(int bodies) {
+            if (current.length < bodies * STRIDE) {
+                int size = Math.max(bodies, 16) * STRIDE * 2;
+                previous = new float[size];
+                current = new float[size];
+            }
+        }
+    }
+
+    public SimulationThread(BulletPhysicsSystem physicsSystem) {
+        this.physicsSystem = physicsSystem;
+        this.stepNanos = (long) (physicsSystem.getFixedTimeStep() * 1_000_000_000L);
+    }
+
+    /**
+     * Starts stepping on the simulation thread.
+     */
+    public void start() {
+        if (running) return;
+        running = true;
+        thread = new Thread(this, "physics-simulation");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Track an entity, its model instance transform will be driven by the snapshots from now on.
+     * Should be called from the render thread.
+     * @param entity the entity to track
+     */
+    public void add(BulletEntity entity) {
+        renderEntities.add(entity);
+        synchronized (physicsSystem) {
+            simulationEntities.add(entity);
+        }
+    }
+
+    @Override
+    public void run() {
+        long nextStep = System.nanoTime();
+        while (running) {
+            synchronized (physicsSystem) {
+                physicsSystem.step();
+                capture();
+            }
+            back = ready.getAndSet(back);
+
+            nextStep += stepNanos;
+            long wait = nextStep - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            } else if (-wait > stepNanos * MAX_STEPS_BEHIND) {
+                nextStep = System.nanoTime();
+            }
+        }
+    }
+
+    /**
+     * Writes the transforms of the step that just completed into the back snapshot.
+     */
+    private void capture() {
+        int count = simulationEntities.size;
+        back.ensureCapacity(count);
+
+        if (lastStep.length < back.current.length) {
+            float[] grown = new float[back.current.length];
+            System.arraycopy(lastStep, 0, grown, 0, lastStepCount * STRIDE);
+            lastStep = grown;
+        }
+
+        float[] current = back.current;
+        for (int i = 0; i < count; i++) {
+            simulationEntities.get(i).getBody().getWorldTransform(simTransform);
+            simTransform.getTranslation(simPosition);
+            simTransform.getRotation(simRotation, true);
+
+            int offset = i * STRIDE;
+            current[offset] = simPosition.x;
+            current[offset + 1] = simPosition.y;
+            current[offset + 2] = simPosition.z;
+            current[offset + 3] = simRotation.x;
+            current[offset + 4] = simRotation.y;
+            current[offset + 5] = simRotation.z;
+            current[offset + 6] = simRotation.w;
+        }
+
+        // Bodies added since the last step have no previous state, they start at rest
+        System.arraycopy(lastStep, 0, back.previous, 0, lastStepCount * STRIDE);
+        System.arraycopy(current, lastStepCount * STRIDE, back.previous, lastStepCount * STRIDE, (count - lastStepCount) * STRIDE);
+        System.arraycopy(current, 0, lastStep, 0, count * STRIDE);
+        lastStepCount = count;
+
+        back.count = count;
+        back.step = stepCount++;
+        back.timeNanos = System.nanoTime();
+    }
+
+    /**
+     * Applies the newest snapshot to the model instances of the tracked entities, interpolated between
+     * the last two steps by the time passed since the newest one. Should be called from the render thread once per frame.
+     */
+    public void interpolate() {
+        if (ready.get().step > front.step) {
+            front = ready.getAndSet(front);
+        }
+
+        if (front.step < 0) return;
+
+        float alpha = MathUtils.clamp((System.nanoTime() - front.timeNanos) / (float) stepNanos, 0f, 1f);
+
+        float[] previous = front.previous;
+        float[] current = front.current;
+        int count = Math.min(front.count, renderEntities.size);
+        for (int i = 0; i < count; i++) {
+            int offset = i * STRIDE;
+            previousPosition.set(previous[offset], previous[offset + 1], previous[offset + 2]);
+            previousRotation.set(previous[offset + 3], previous[offset + 4], previous[offset + 5], previous[offset + 6]);
+            position.set(current[offset], current[offset + 1], current[offset + 2]);
+            rotation.set(current[offset + 3], current[offset + 4], current[offset + 5], current[offset + 6]);
+
+            previousPosition.lerp(position, alpha);
+            previousRotation.slerp(rotation, alpha);
+
+            renderEntities.get(i).getModelInstance().transform.set(previousPosition, previousRotation);
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stops the simulation thread and waits for the step in progress to finish.
+     */
+    @Override
+    public void dispose() {
+        running = false;
+        if (thread == null) return;
+
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        thread = null;
+    }
+}
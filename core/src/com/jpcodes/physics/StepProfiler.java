@@ -0,0 +1,347 @@
+package com.jpcodes.physics;
+
+import com.badlogic.gdx.physics.bullet.collision.CollisionJNI;
+import com.badlogic.gdx.physics.bullet.collision.btBroadphaseInterface;
+import com.badlogic.gdx.physics.bullet.collision.btDispatcher;
+import com.badlogic.gdx.physics.bullet.dynamics.CustomActionInterface;
+import com.badlogic.gdx.physics.bullet.dynamics.InternalTickCallback;
+import com.badlogic.gdx.physics.bullet.dynamics.btDynamicsWorld;
+
+import java.util.Arrays;
+
+/**
+ * Times every step of a {@link BulletPhysicsSystem} built with {@link PhysicsWorldBuilder#profiling(boolean)}, per
+ * phase, and counts the work each step did. Every metric is a {@link Histogram}, times are in nanoseconds.
+ * <p>
+ * gdx-bullet does not expose the readout of Bullet's CProfileManager, so the phases are cut where Bullet calls back
+ * into Java. An action added first to the world runs right after integration, and the internal tick callback of the
+ * world right after the activation update, which makes the phases of a step:
+ * <ul>
+ *     <li>{@link Metric#SIMULATION_TIME} gravity, broadphase, narrowphase, islands, solver and integration, only
+ *     broadphase and narrowphase in collision only mode</li>
+ *     <li>{@link Metric#ACTIONS_TIME} the actions of the world, ex. character controllers, and the activation update</li>
+ *     <li>{@link Metric#SYNC_TIME} the motion states and clearing the forces</li>
+ *     <li>{@link Metric#POST_STEP_TIME} the transform export, contact events and rollback buffer</li>
+ * </ul>
+ * The overlapping pairs, manifolds and contact points after each step tell the broadphase and narrowphase load
+ * apart. The profiler owns the internal tick callback of the world, setting another one replaces it.
+ * <p>
+ * A step costs a few timer reads and two upcalls, contact points are only counted on request as that takes one JNI
+ * call per manifold, see {@link #setCountContacts(boolean)}. Recorded while holding the monitor of the system, every
+ * method here synchronizes on it as well.
+ *
+ * @author JamesTKhan
+ * @version October 17, 2026
+ */
+public class StepProfiler {
+
+    public enum Metric {
+        STEP_TIME("step_time", true),
+        SIMULATION_TIME("simulation_time", true),
+        ACTIONS_TIME("actions_time", true),
+        SYNC_TIME("sync_time", true),
+        POST_STEP_TIME("post_step_time", true),
+        /** Fixed steps per update, 0 when the update did not step */
+        SUB_STEPS("sub_steps", false),
+        /** Bodies tracked by the {@link BodyRegistry} that moved in the frame so far */
+        ACTIVE_BODIES("active_bodies", false),
+        OVERLAPPING_PAIRS("overlapping_pairs", false),
+        MANIFOLDS("manifolds", false),
+        CONTACTS("contacts", false);
+
+        private final String key;
+        private final boolean time;
+
+        Metric(String key, boolean time) {
+            this.key = key;
+            this.time = time;
+        }
+
+        /**
+         * @return the name of the metric in the dumps
+         */
+        public String getKey() {
+            return key;
+        }
+
+        /**
+         * @return whether the metric is a time in nanoseconds, a count otherwise
+         */
+        public boolean isTime() {
+            return time;
+        }
+    }
+
+    private static final Metric[] METRICS = Metric.values();
+
+    private final Object lock;
+    private final Histogram[] histograms = new Histogram[METRICS.length];
+
+    // Time spent per phase in the current step, -1 for the phases it did not go through
+    private final long[] phaseNanos = new long[METRICS.length];
+    private boolean inStep;
+    private long phaseStart;
+
+    private long steps;
+    private long updates;
+    private long raycasts;
+    private long sweeps;
+    private boolean countContacts;
+
+    private CustomActionInterface action;
+    private InternalTickCallback tickCallback;
+
+    StepProfiler(Object lock) {
+        this.lock = lock;
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new Histogram();
+        }
+    }
+
+    /**
+     * Hooks the phase boundaries into the world, before any other action is added
+     */
+    void attach(btDynamicsWorld world) {
+        action = new CustomActionInterface() {
+            @Override
+            public void updateAction(float timeStep) {
+                endPhase(Metric.SIMULATION_TIME);
+            }
+
+            @Override
+            public void debugDraw() {
+            }
+        };
+        world.addAction(action);
+
+        tickCallback = new InternalTickCallback(world, false) {
+            @Override
+            public void onInternalTick(btDynamicsWorld dynamicsWorld, float timeStep) {
+                endPhase(Metric.ACTIONS_TIME);
+            }
+        };
+    }
+
+    void beginStep() {
+        Arrays.fill(phaseNanos, -1);
+        inStep = true;
+        phaseStart = System.nanoTime();
+    }
+
+    /**
+     * Ends the phase the step is in, the next one starts right away
+     */
+    void endPhase(Metric phase) {
+        if (!inStep) return;
+
+        long now = System.nanoTime();
+        phaseNanos[phase.ordinal()] = Math.max(0, phaseNanos[phase.ordinal()]) + now - phaseStart;
+        phaseStart = now;
+    }
+
+    /**
+     * Ends the post step phase and records the step
+     * @param activeBodies the active body count, negative when the world has no dynamics
+     */
+    void endStep(btDispatcher dispatcher, btBroadphaseInterface broadphase, int activeBodies) {
+        endPhase(Metric.POST_STEP_TIME);
+        inStep = false;
+
+        long stepNanos = 0;
+        for (int i = 0; i < METRICS.length; i++) {
+            if (phaseNanos[i] >= 0) {
+                histograms[i].record(phaseNanos[i]);
+                stepNanos += phaseNanos[i];
+            }
+        }
+        histograms[Metric.STEP_TIME.ordinal()].record(stepNanos);
+        steps++;
+
+        if (activeBodies >= 0) {
+            histograms[Metric.ACTIVE_BODIES.ordinal()].record(activeBodies);
+        }
+
+        long pairCache = CollisionJNI.btBroadphaseInterface_getOverlappingPairCache(
+                btBroadphaseInterface.getCPtr(broadphase), broadphase);
+        histograms[Metric.OVERLAPPING_PAIRS.ordinal()].record(
+                CollisionJNI.btOverlappingPairCache_getNumOverlappingPairs(pairCache, null));
+
+        long dispatcherPtr = btDispatcher.getCPtr(dispatcher);
+        int numManifolds = CollisionJNI.btDispatcher_getNumManifolds(dispatcherPtr, dispatcher);
+        histograms[Metric.MANIFOLDS.ordinal()].record(numManifolds);
+
+        if (countContacts) {
+            long contacts = 0;
+            for (int i = 0; i < numManifolds; i++) {
+                long manifold = CollisionJNI.btDispatcher_getManifoldByIndexInternal(dispatcherPtr, dispatcher, i);
+                contacts += CollisionJNI.btPersistentManifold_getNumContacts(manifold, null);
+            }
+            histograms[Metric.CONTACTS.ordinal()].record(contacts);
+        }
+    }
+
+    void recordUpdate(int subSteps) {
+        histograms[Metric.SUB_STEPS.ordinal()].record(subSteps);
+        updates++;
+    }
+
+    void countRaycasts(int count) {
+        raycasts += count;
+    }
+
+    void countQueries(QueryBatch batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            if (batch.types[i] == QueryBatch.RAY) {
+                raycasts++;
+            } else {
+                sweeps++;
+            }
+        }
+    }
+
+    /**
+     * @return the live histogram of the metric, read it while holding the monitor of the system
+     */
+    public Histogram getHistogram(Metric metric) {
+        return histograms[metric.ordinal()];
+    }
+
+    public long getStepCount() {
+        synchronized (lock) {
+            return steps;
+        }
+    }
+
+    public long getUpdateCount() {
+        synchronized (lock) {
+            return updates;
+        }
+    }
+
+    /**
+     * @return the rays cast through the system, single, batched and queued in a {@link QueryBatch}
+     */
+    public long getRaycastCount() {
+        synchronized (lock) {
+            return raycasts;
+        }
+    }
+
+    /**
+     * @return the convex sweeps run through a {@link QueryBatch}
+     */
+    public long getSweepCount() {
+        synchronized (lock) {
+            return sweeps;
+        }
+    }
+
+    /**
+     * @param countContacts whether to count the contact points after each step, one JNI call per manifold, about
+     *                      a millisecond per step at 20000 manifolds. False by default, manifolds are always counted.
+     */
+    public void setCountContacts(boolean countContacts) {
+        synchronized (lock) {
+            this.countContacts = countContacts;
+        }
+    }
+
+    public boolean isCountContacts() {
+        synchronized (lock) {
+            return countContacts;
+        }
+    }
+
+    /**
+     * Clears every histogram and counter
+     */
+    public void reset() {
+        synchronized (lock) {
+            for (Histogram histogram : histograms) {
+                histogram.reset();
+            }
+            steps = 0;
+            updates = 0;
+            raycasts = 0;
+            sweeps = 0;
+        }
+    }
+
+    /**
+     * Appends one line per metric with samples, times in microseconds. Percentiles are bucket bounds, see
+     * {@link Histogram#getPercentile(double)}.
+     */
+    public StringBuilder appendText(StringBuilder out) {
+        synchronized (lock) {
+            out.append("steps ").append(steps)
+                    .append(", updates ").append(updates)
+                    .append(", raycasts ").append(raycasts)
+                    .append(", sweeps ").append(sweeps).append('\n');
+
+            for (Metric metric : METRICS) {
+                Histogram histogram = histograms[metric.ordinal()];
+                if (histogram.getCount() == 0) continue;
+
+                double scale = metric.isTime() ? 1e-3 : 1;
+                out.append(metric.getKey()).append(metric.isTime() ? " (us)" : "")
+                        .append(": mean ").append(round(histogram.getMean() * scale))
+                        .append(", p50 ").append(round(histogram.getPercentile(50) * scale))
+                        .append(", p90 ").append(round(histogram.getPercentile(90) * scale))
+                        .append(", p99 ").append(round(histogram.getPercentile(99) * scale))
+                        .append(", max ").append(round(histogram.getMax() * scale))
+                        .append(", last ").append(round(histogram.getLast() * scale))
+                        .append(", count ").append(histogram.getCount()).append('\n');
+            }
+            return out;
+        }
+    }
+
+    /**
+     * Appends the counters and every metric as one JSON object, times in nanoseconds
+     */
+    public StringBuilder appendJson(StringBuilder out) {
+        synchronized (lock) {
+            out.append("{\"steps\":").append(steps)
+                    .append(",\"updates\":").append(updates)
+                    .append(",\"raycasts\":").append(raycasts)
+                    .append(",\"sweeps\":").append(sweeps)
+                    .append(",\"metrics\":{");
+
+            for (int i = 0; i < METRICS.length; i++) {
+                Metric metric = METRICS[i];
+                Histogram histogram = histograms[i];
+                if (i > 0) out.append(',');
+                out.append('"').append(metric.getKey()).append("\":{")
+                        .append("\"unit\":\"").append(metric.isTime() ? "ns" : "count").append('"')
+                        .append(",\"count\":").append(histogram.getCount())
+                        .append(",\"mean\":").append(round(histogram.getMean()))
+                        .append(",\"min\":").append(histogram.getMin())
+                        .append(",\"p50\":").append(histogram.getPercentile(50))
+                        .append(",\"p90\":").append(histogram.getPercentile(90))
+                        .append(",\"p99\":").append(histogram.getPercentile(99))
+                        .append(",\"max\":").append(histogram.getMax())
+                        .append(",\"last\":").append(histogram.getLast())
+                        .append('}');
+            }
+            return out.append("}}");
+        }
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+
+    /**
+     * Removes the hooks from the world, before the world is disposed
+     */
+    void dispose(btDynamicsWorld world) {
+        if (tickCallback != null) {
+            tickCallback.detach();
+            tickCallback.dispose();
+        }
+        if (action != null) {
+            world.removeAction(action);
+            action.dispose();
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.jpcodes.physics;
+
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Quaternion;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.physics.bullet.dynamics.btRigidBody;
+import com.badlogic.gdx.physics.bullet.linearmath.btMotionState;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.BufferUtils;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.nio.FloatBuffer;
+
+/**
+ * The world transforms of rigid bodies in one direct FloatBuffer, written by the {@link BulletPhysicsSystem} after
+ * every step. Each body has a slot given by its stable id, the body's user value, in [0, capacity).
+ * <p>
+ * The layout is a struct of arrays, one run of capacity floats per component in the order position x, y, z then
+ * rotation x, y, z, w. Component c of body id is at index c * capacity + id, see {@link #indexOf(int, int)}.
+ * Renderers and serializers can read the buffer directly instead of one Matrix4 per body.
+ * <p>
+ * Only the bodies that moved are written after a step, a sleeping body keeps the transform of its last active step.
+ * Bodies with a {@link MotionState} are written from the motion states Bullet called back in the step, as recorded
+ * by the {@link BodyRegistry}, which costs no JNI call. Dynamic bodies without one are polled, one JNI call per
+ * body and step, static ones are written once. Written while holding the monitor of the system, readers on another
+ * thread synchronize on it too.
+ *
+ * @author JamesTKhan
+ * @version October 18, 2026
+ */
+public class TransformExport {
+    public static final int POSITION_X = 0;
+    public static final int POSITION_Y = 1;
+    public static final int POSITION_Z = 2;
+    public static final int ROTATION_X = 3;
+    public static final int ROTATION_Y = 4;
+    public static final int ROTATION_Z = 5;
+    public static final int ROTATION_W = 6;
+    public static final int COMPONENT_COUNT = 7;
+
+    private final int capacity;
+    private final FloatBuffer buffer;
+
+    // Indexed by id, null for free slots
+    private final btRigidBody[] bodies;
+
+    // Ids of the dynamic bodies without a motion state, packed for iteration
+    private final int[] polledIds;
+    private int polledCount;
+    private int bodyCount;
+
+    private final Matrix4 tmpTransform = new Matrix4();
+    private final Vector3 tmpPosition = new Vector3();
+    private final Quaternion tmpRotation = new Quaternion();
+
+    TransformExport(int capacity) {
+        this.capacity = capacity;
+        buffer = BufferUtils.newFloatBuffer(capacity * COMPONENT_COUNT);
+        bodies = new btRigidBody[capacity];
+        polledIds = new int[capacity];
+    }
+
+    void add(btRigidBody body) {
+        int id = body.getUserValue();
+        if (id < 0 || id >= capacity) {
+            throw new GdxRuntimeException("Body id " + id + " is outside of the export capacity " + capacity);
+        }
+        if (bodies[id] != null) {
+            throw new GdxRuntimeException("Body id " + id + " is already exported");
+        }
+
+        bodies[id] = body;
+        bodyCount++;
+        btMotionState motionState = body.getMotionState();
+        if (motionState instanceof MotionState) {
+            ((MotionState) motionState).exportId = id;
+        } else if (!body.isStaticObject()) {
+            polledIds[polledCount++] = id;
+        }
+        write(id, body);
+    }
+
+    void remove(btRigidBody body) {
+        int id = body.getUserValue();
+        if (id < 0 || id >= capacity || bodies[id] != body) return;
+
+        bodies[id] = null;
+        bodyCount--;
+        btMotionState motionState = body.getMotionState();
+        if (motionState instanceof MotionState) {
+            ((MotionState) motionState).exportId = -1;
+        }
+        for (int i = 0; i < polledCount; i++) {
+            if (polledIds[i] == id) {
+                polledIds[i] = polledIds[--polledCount];
+                break;
+            }
+        }
+    }
+
+    /**
+     * Writes the transform of every body that moved in the step
+     * @param moved the motion states Bullet called back in the step
+     */
+    void update(Array<MotionState> moved) {
+        for (int i = 0; i < moved.size; i++) {
+            MotionState motionState = moved.get(i);
+            if (motionState.exportId >= 0) {
+                // The motion state holds the transform of the step, read without going through JNI
+                motionState.getWorldTransform(tmpTransform);
+                write(motionState.exportId, tmpTransform);
+            }
+        }
+
+        for (int i = 0; i < polledCount; i++) {
+            int id = polledIds[i];
+            btRigidBody body = bodies[id];
+            if (body.isActive()) {
+                write(id, body);
+            }
+        }
+    }
+
+    /**
+     * Writes the transform of an exported body whether it is active or not, after it was moved by hand
+     */
+    void refresh(btRigidBody body) {
+        int id = body.getUserValue();
+        if (id >= 0 && id < capacity && bodies[id] == body) {
+            write(id, body);
+        }
+    }
+
+    private void write(int id, btRigidBody body) {
+        body.getWorldTransform(tmpTransform);
+        write(id, tmpTransform);
+    }
+
+    private void write(int id, Matrix4 transform) {
+        transform.getTranslation(tmpPosition);
+        transform.getRotation(tmpRotation, true);
+
+        buffer.put(POSITION_X * capacity + id, tmpPosition.x);
+        buffer.put(POSITION_Y * capacity + id, tmpPosition.y);
+        buffer.put(POSITION_Z * capacity + id, tmpPosition.z);
+        buffer.put(ROTATION_X * capacity + id, tmpRotation.x);
+        buffer.put(ROTATION_Y * capacity + id, tmpRotation.y);
+        buffer.put(ROTATION_Z * capacity + id, tmpRotation.z);
+        buffer.put(ROTATION_W * capacity + id, tmpRotation.w);
+    }
+
+    /**
+     * @return the buffer holding every component of every slot, its position and limit are never changed by the export
+     */
+    public FloatBuffer getBuffer() {
+        return buffer;
+    }
+
+    /**
+     * @param component one of the component constants, ex. {@link #POSITION_X}
+     * @param id the body id
+     * @return the index of the component of the body in the buffer
+     */
+    public int indexOf(int component, int id) {
+        return component * capacity + id;
+    }
+
+    public Vector3 getPosition(int id, Vector3 out) {
+        return out.set(buffer.get(POSITION_X * capacity + id), buffer.get(POSITION_Y * capacity + id),
+                buffer.get(POSITION_Z * capacity + id));
+    }
+
+    public Quaternion getRotation(int id, Quaternion out) {
+        return out.set(buffer.get(ROTATION_X * capacity + id), buffer.get(ROTATION_Y * capacity + id),
+                buffer.get(ROTATION_Z * capacity + id), buffer.get(ROTATION_W * capacity + id));
+    }
+
+    /**
+     * @param out set to the exported transform of the body
+     * @return out for chaining
+     */
+    public Matrix4 getTransform(int id, Matrix4 out) {
+        return out.set(buffer.get(POSITION_X * capacity + id), buffer.get(POSITION_Y * capacity + id),
+                buffer.get(POSITION_Z * capacity + id), buffer.get(ROTATION_X * capacity + id),
+                buffer.get(ROTATION_Y * capacity + id), buffer.get(ROTATION_Z * capacity + id),
+                buffer.get(ROTATION_W * capacity + id));
+    }
+
+    /**
+     * @return whether a body is exported in the slot
+     */
+    public boolean contains(int id) {
+        return id >= 0 && id < capacity && bodies[id] != null;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getBodyCount() {
+        return bodyCount;
+    }
+}
@@ -0,0 +1,161 @@
+package com.jpcodes.physics;
+
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.math.Frustum;
+import com.badlogic.gdx.math.Plane;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.physics.bullet.collision.CollisionJNI;
+import com.badlogic.gdx.physics.bullet.collision.ICollide;
+import com.badlogic.gdx.physics.bullet.collision.btBroadphaseProxy;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionObject;
+import com.badlogic.gdx.physics.bullet.collision.btDbvtBroadphase;
+import com.badlogic.gdx.physics.bullet.collision.btDbvtNode;
+import com.badlogic.gdx.utils.BufferUtils;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.nio.FloatBuffer;
+
+/**
+ * Finds the collision objects inside a camera or light frustum by walking the AABB trees of the DBVT broadphase,
+ * which Bullet keeps up to date every step anyway. Subtrees fully outside of a plane are skipped and subtrees fully
+ * inside every plane are taken whole, so the cost grows with the log of the object count plus the visible objects,
+ * instead of testing the bounds of every instance.
+ * <p>
+ * Results are the user values of the objects, the ids of an {@link EntityRegistry}. The broadphase AABBs are the
+ * fattened ones of the last step, a slightly larger set than the exact bounds. The walk runs in native code with one
+ * upcall per visible object and allocates nothing, it holds the monitor of the system while it runs.
+ *
+ * @author JamesTKhan
+ * @version October 17, 2026
+ */
+public class VisibilityQuery implements Disposable {
+    private static final int MAX_PLANES = 7;
+
+    private final Object lock;
+    private final btDbvtBroadphase broadphase;
+
+    // Plane normals as btVector3, four floats each, and the plane offsets, a point is inside when n.p + d >= 0
+    private final FloatBuffer normals = BufferUtils.newFloatBuffer(MAX_PLANES * 4);
+    private final FloatBuffer offsets = BufferUtils.newFloatBuffer(MAX_PLANES);
+
+    private final Collector collector = new Collector();
+
+    /**
+     * Receives the leaves of the tree inside the planes
+     */
+    private static class Collector extends ICollide {
+        IntArray out;
+        int filterMask;
+
+        @Override
+        public void Process(btDbvtNode leaf) {
+            long leafPtr = btDbvtNode.getCPtr(leaf);
+            if (filterMask != btBroadphaseProxy.CollisionFilterGroups.AllFilter) {
+                long proxy = CollisionJNI.btDbvtNode_getDataAsProxy(leafPtr, leaf);
+                if ((CollisionJNI.btBroadphaseProxy_collisionFilterGroup_get(proxy, null) & filterMask) == 0) return;
+            }
+
+            btCollisionObject object = btCollisionObject.getInstance(
+                    CollisionJNI.btDbvtNode_getDataAsProxyClientObject(leafPtr, leaf));
+            if (object != null) {
+                out.add(object.getUserValue());
+            }
+        }
+    }
+
+    VisibilityQuery(Object lock, btDbvtBroadphase broadphase) {
+        this.lock = lock;
+        this.broadphase = broadphase;
+        collector.filterMask = btBroadphaseProxy.CollisionFilterGroups.AllFilter;
+    }
+
+    /**
+     * Adds the user value of every object whose broadphase AABB intersects the frustum, ex. the one of a shadow light
+     * @param out the ids are appended, it is not cleared
+     * @return the number of ids appended
+     */
+    public int cull(Frustum frustum, IntArray out) {
+        synchronized (lock) {
+            setPlanes(frustum);
+            return collect(frustum.planes.length, out);
+        }
+    }
+
+    /**
+     * Same as {@link #cull(Frustum, IntArray)} with the frustum of the camera, also dropping the objects further
+     * than the distance along the view direction
+     * @param camera an updated camera
+     * @param maxDistance the draw distance, 0 or less for only the far plane of the camera
+     */
+    public int cull(Camera camera, float maxDistance, IntArray out) {
+        synchronized (lock) {
+            setPlanes(camera.frustum);
+            int planeCount = camera.frustum.planes.length;
+            if (maxDistance > 0) {
+                // Faces the camera, at maxDistance in front of it
+                Vector3 direction = camera.direction;
+                setPlane(planeCount++, -direction.x, -direction.y, -direction.z,
+                        direction.dot(camera.position) + maxDistance);
+            }
+            return collect(planeCount, out);
+        }
+    }
+
+    private void setPlanes(Frustum frustum) {
+        for (int i = 0; i < frustum.planes.length; i++) {
+            Plane plane = frustum.planes[i];
+            setPlane(i, plane.normal.x, plane.normal.y, plane.normal.z, plane.d);
+        }
+    }
+
+    private void setPlane(int plane, float x, float y, float z, float d) {
+        normals.put(plane * 4, x);
+        normals.put(plane * 4 + 1, y);
+        normals.put(plane * 4 + 2, z);
+        normals.put(plane * 4 + 3, 0);
+        offsets.put(plane, d);
+    }
+
+    private int collect(int planeCount, IntArray out) {
+        int start = out.size;
+        collector.out = out;
+
+        // Moving objects live in the first tree, objects that stopped moving in the second
+        long broadphasePtr = btDbvtBroadphase.getCPtr(broadphase);
+        collect(CollisionJNI.btDbvtBroadphase_getSet0(broadphasePtr, broadphase), planeCount);
+        collect(CollisionJNI.btDbvtBroadphase_getSet1(broadphasePtr, broadphase), planeCount);
+
+        collector.out = null;
+        return out.size - start;
+    }
+
+    private void collect(long tree, int planeCount) {
+        long root = CollisionJNI.btDbvt_root_get(tree, null);
+        if (root == 0) return;
+
+        CollisionJNI.btDbvt_collideKDOP__SWIG_1(root, null, normals, offsets, planeCount,
+                ICollide.getCPtr(collector), collector);
+    }
+
+    /**
+     * @param filterMask only objects whose broadphase filter group is in the mask are reported, ex. to leave out
+     *                   sensors. All objects by default.
+     */
+    public void setFilterMask(int filterMask) {
+        synchronized (lock) {
+            collector.filterMask = filterMask;
+        }
+    }
+
+    public int getFilterMask() {
+        synchronized (lock) {
+            return collector.filterMask;
+        }
+    }
+
+    @Override
+    public void dispose() {
+        collector.dispose();
+    }
+}
@@ -0,0 +1,110 @@
+package com.jpcodes.physics.rendering;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.ModelInstance;
+import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
+import com.badlogic.gdx.graphics.g3d.model.Node;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Packs the world matrix and diffuse color of ModelInstances into one float array, the per instance data of
+ * an instanced draw call. The layout per instance is the 16 floats of the world matrix in the column major order
+ * of Matrix4.val followed by the rgba diffuse color, {@link #FLOATS_PER_INSTANCE} floats in total.
+ * <p>
+ * Needs no GL context, the packed data is uploaded by the {@link InstancedRenderer}.
+ *
+ * @author JamesTKhan
+ * @version October 17, 2026
+ */
+public class InstancePacker {
+    public static final int MATRIX_FLOATS = 16;
+    public static final int COLOR_FLOATS = 4;
+    public static final int FLOATS_PER_INSTANCE = MATRIX_FLOATS + COLOR_FLOATS;
+
+    private float[] data;
+    private int instanceCount;
+
+    private final Matrix4 worldTransform = new Matrix4();
+
+    public InstancePacker() {
+        this(64);
+    }
+
+    public InstancePacker(int initialCapacity) {
+        data = new float[Math.max(1, initialCapacity) * FLOATS_PER_INSTANCE];
+    }
+
+    /**
+     * Starts packing from the first instance again, keeps the storage
+     */
+    public void reset() {
+        instanceCount = 0;
+    }
+
+    /**
+     * Packs an instance with the given world transform and color
+     */
+    public void add(Matrix4 worldTransform, Color color) {
+        ensureCapacity(instanceCount + 1);
+
+        int offset = instanceCount * FLOATS_PER_INSTANCE;
+        System.arraycopy(worldTransform.val, 0, data, offset, MATRIX_FLOATS);
+        data[offset + MATRIX_FLOATS] = color.r;
+        data[offset + MATRIX_FLOATS + 1] = color.g;
+        data[offset + MATRIX_FLOATS + 2] = color.b;
+        data[offset + MATRIX_FLOATS + 3] = color.a;
+        instanceCount++;
+    }
+
+    /**
+     * Packs an instance rendering a single node, the world matrix being the instance transform times the
+     * global transform of its first node and the color the diffuse of its first node part, white without one.
+     */
+    public void add(ModelInstance instance) {
+        Node node = instance.nodes.get(0);
+        worldTransform.set(instance.transform).mul(node.globalTransform);
+
+        Material material = node.parts.get(0).material;
+        ColorAttribute diffuse = material != null ? (ColorAttribute) material.get(ColorAttribute.Diffuse) : null;
+        add(worldTransform, diffuse != null ? diffuse.color : Color.WHITE);
+    }
+
+    /**
+     * Resets the packer and packs all the instances, in order
+     * @return the number of floats packed
+     */
+    public int pack(Array<? extends ModelInstance> instances) {
+        reset();
+        ensureCapacity(instances.size);
+        for (int i = 0; i < instances.size; i++) {
+            add(instances.get(i));
+        }
+        return getFloatCount();
+    }
+
+    private void ensureCapacity(int instances) {
+        int required = instances * FLOATS_PER_INSTANCE;
+        if (required > data.length) {
+            float[] grown = new float[Math.max(required, data.length * 2)];
+            System.arraycopy(data, 0, grown, 0, instanceCount * FLOATS_PER_INSTANCE);
+            data = grown;
+        }
+    }
+
+    /**
+     * @return the packed data, only the first {@link #getFloatCount()} floats are valid
+     */
+    public float[] getData() {
+        return data;
+    }
+
+    public int getInstanceCount() {
+        return instanceCount;
+    }
+
+    public int getFloatCount() {
+        return instanceCount * FLOATS_PER_INSTANCE;
+    }
+}
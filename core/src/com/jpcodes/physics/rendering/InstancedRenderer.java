@@ -0,0 +1,247 @@
+package com.jpcodes.physics.rendering;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.g3d.Environment;
+import com.badlogic.gdx.graphics.g3d.ModelInstance;
+import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
+import com.badlogic.gdx.graphics.g3d.attributes.DirectionalLightsAttribute;
+import com.badlogic.gdx.graphics.g3d.environment.DirectionalLight;
+import com.badlogic.gdx.graphics.g3d.environment.ShadowMap;
+import com.badlogic.gdx.graphics.g3d.model.MeshPart;
+import com.badlogic.gdx.graphics.g3d.model.Node;
+import com.badlogic.gdx.graphics.g3d.utils.DefaultTextureBinder;
+import com.badlogic.gdx.graphics.g3d.utils.RenderContext;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * Renders large numbers of ModelInstances with one instanced draw call per mesh instead of one draw call per
+ * instance. Instances sharing a mesh form a group, every frame {@link #update()} packs the world matrices and
+ * diffuse colors of a group through an {@link InstancePacker} and uploads them in a single buffer.
+ * <p>
+ * Meant for the bodies of the demo scenes, each instance must render a single node with a single part, as
+ * the models of the PrimitiveModelCache do. Lighting is the ambient light, the first directional light and
+ * the shadow map of the environment. Needs a GL30 context, see {@link #isSupported()}.
+ *
+ * @author JamesTKhan
+ * @version October 17, 2026
+ */
+public class InstancedRenderer implements Disposable {
+    private static final VertexAttribute[] INSTANCE_ATTRIBUTES = {
+            new VertexAttribute(VertexAttributes.Usage.Generic, 4, "i_worldTrans0"),
+            new VertexAttribute(VertexAttributes.Usage.Generic, 4, "i_worldTrans1"),
+            new VertexAttribute(VertexAttributes.Usage.Generic, 4, "i_worldTrans2"),
+            new VertexAttribute(VertexAttributes.Usage.Generic, 4, "i_worldTrans3"),
+            new VertexAttribute(VertexAttributes.Usage.ColorUnpacked, 4, "i_color")
+    };
+
+    private final ObjectMap<Mesh, Group> groups = new ObjectMap<>();
+    private final Array<Group> groupList = new Array<>();
+    private final ShaderProgram shader;
+    private final ShaderProgram depthShader;
+    private final RenderContext context = new RenderContext(new DefaultTextureBinder(DefaultTextureBinder.LRU, 1));
+
+    private final Color ambient = new Color();
+    private final Color lightColor = new Color();
+
+    private static class Group {
+        final Mesh mesh;
+        final MeshPart meshPart;
+        final Array<ModelInstance> instances = new Array<>();
+        final InstancePacker packer = new InstancePacker();
+        int capacity;
+
+        Group(MeshPart meshPart) {
+            this.mesh = meshPart.mesh;
+            this.meshPart = meshPart;
+        }
+
+        void upload() {
+            packer.pack(instances);
+            if (packer.getInstanceCount() > capacity) {
+                if (capacity > 0) {
+                    mesh.disableInstancedRendering();
+                }
+                capacity = Math.max(packer.getInstanceCount(), capacity * 2);
+                mesh.enableInstancedRendering(false, capacity, INSTANCE_ATTRIBUTES);
+            }
+            mesh.setInstanceData(packer.getData(), 0, packer.getFloatCount());
+        }
+
+        void render(ShaderProgram shader) {
+            if (packer.getInstanceCount() == 0) return;
+            mesh.render(shader, meshPart.primitiveType, meshPart.offset, meshPart.size);
+        }
+
+        void dispose() {
+            if (capacity > 0) {
+                mesh.disableInstancedRendering();
+            }
+        }
+    }
+
+    /**
+     * @return whether the current context supports instanced draw calls
+     */
+    public static boolean isSupported() {
+        return Gdx.gl30 != null;
+    }
+
+    public InstancedRenderer() {
+        if (!isSupported()) {
+            throw new GdxRuntimeException("Instanced rendering needs a GL30 context");
+        }
+
+        shader = createShader("shaders/instanced.vert.glsl", "shaders/instanced.frag.glsl");
+        depthShader = createShader("shaders/instanced_depth.vert.glsl", "shaders/instanced_depth.frag.glsl");
+    }
+
+    private static ShaderProgram createShader(String vertexPath, String fragmentPath) {
+        ShaderProgram program = new ShaderProgram(Gdx.files.internal(vertexPath), Gdx.files.internal(fragmentPath));
+        if (!program.isCompiled()) {
+            throw new GdxRuntimeException("Could not compile " + vertexPath + ": " + program.getLog());
+        }
+        return program;
+    }
+
+    /**
+     * Adds an instance to the group of its mesh. The instance is rendered by this renderer only, do not render it
+     * through a ModelBatch as well, its mesh now draws instanced.
+     */
+    public void add(ModelInstance instance) {
+        MeshPart meshPart = getMeshPart(instance);
+        Group group = groups.get(meshPart.mesh);
+        if (group == null) {
+            group = new Group(meshPart);
+            groups.put(meshPart.mesh, group);
+            groupList.add(group);
+        } else if (!group.meshPart.equals(meshPart)) {
+            throw new GdxRuntimeException("Instances of a mesh must render the same part of it");
+        }
+        group.instances.add(instance);
+    }
+
+    /**
+     * @return whether the instance was part of this renderer
+     */
+    public boolean remove(ModelInstance instance) {
+        Group group = groups.get(getMeshPart(instance).mesh);
+        return group != null && group.instances.removeValue(instance, true);
+    }
+
+    private static MeshPart getMeshPart(ModelInstance instance) {
+        if (instance.nodes.size != 1 || instance.nodes.get(0).parts.size != 1 || instance.nodes.get(0).hasChildren()) {
+            throw new GdxRuntimeException("Instanced rendering supports instances of a single node with a single part");
+        }
+        Node node = instance.nodes.get(0);
+        return node.parts.get(0).meshPart;
+    }
+
+    /**
+     * Packs and uploads the world matrices of every group, call once per frame after the transforms are updated
+     * and before rendering
+     */
+    public void update() {
+        for (int i = 0; i < groupList.size; i++) {
+            groupList.get(i).upload();
+        }
+    }
+
+    /**
+     * Renders the depth of every instance, to be called while a shadow light is begun
+     * @param lightCamera the camera of the shadow light
+     */
+    public void renderDepth(Camera lightCamera) {
+        context.begin();
+        context.setDepthTest(GL20.GL_LEQUAL);
+        context.setDepthMask(true);
+        context.setCullFace(GL20.GL_BACK);
+
+        depthShader.bind();
+        depthShader.setUniformMatrix("u_projViewTrans", lightCamera.combined);
+        for (int i = 0; i < groupList.size; i++) {
+            groupList.get(i).render(depthShader);
+        }
+        context.end();
+    }
+
+    /**
+     * Renders every instance lit by the environment
+     */
+    public void render(Camera camera, Environment environment) {
+        context.begin();
+        context.setDepthTest(GL20.GL_LEQUAL);
+        context.setDepthMask(true);
+        context.setCullFace(GL20.GL_BACK);
+
+        shader.bind();
+        shader.setUniformMatrix("u_projViewTrans", camera.combined);
+        bindEnvironment(environment);
+        for (int i = 0; i < groupList.size; i++) {
+            groupList.get(i).render(shader);
+        }
+        context.end();
+    }
+
+    private void bindEnvironment(Environment environment) {
+        ColorAttribute ambientAttribute = environment.get(ColorAttribute.class, ColorAttribute.AmbientLight);
+        ambient.set(ambientAttribute != null ? ambientAttribute.color : Color.BLACK);
+        shader.setUniformf("u_ambientLight", ambient.r, ambient.g, ambient.b);
+
+        DirectionalLightsAttribute lights = environment.get(DirectionalLightsAttribute.class, DirectionalLightsAttribute.Type);
+        if (lights != null && lights.lights.size > 0) {
+            DirectionalLight light = lights.lights.first();
+            lightColor.set(light.color);
+            shader.setUniformf("u_lightDirection", light.direction);
+        } else {
+            lightColor.set(Color.BLACK);
+        }
+        shader.setUniformf("u_lightColor", lightColor.r, lightColor.g, lightColor.b);
+
+        ShadowMap shadowMap = environment.shadowMap;
+        shader.setUniformi("u_shadowEnabled", shadowMap != null ? 1 : 0);
+        if (shadowMap != null) {
+            shader.setUniformMatrix("u_shadowMapProjViewTrans", shadowMap.getProjViewTrans());
+            shader.setUniformi("u_shadowTexture", context.textureBinder.bind(shadowMap.getDepthMap()));
+            shader.setUniformf("u_shadowPCFOffset", 1f / (2f * shadowMap.getDepthMap().texture.getWidth()));
+        }
+    }
+
+    /**
+     * @return the number of groups, the draw calls per pass
+     */
+    public int getGroupCount() {
+        return groupList.size;
+    }
+
+    public int getInstanceCount() {
+        int count = 0;
+        for (int i = 0; i < groupList.size; i++) {
+            count += groupList.get(i).instances.size;
+        }
+        return count;
+    }
+
+    /**
+     * Turns instancing off on the meshes again and disposes the shaders, the meshes are left to their models
+     */
+    @Override
+    public void dispose() {
+        for (int i = 0; i < groupList.size; i++) {
+            groupList.get(i).dispose();
+        }
+        groups.clear();
+        groupList.clear();
+        shader.dispose();
+        depthShader.dispose();
+    }
+}
@@ -0,0 +1,134 @@
+package com.jpcodes.physics.rendering;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.g3d.ModelBatch;
+import com.badlogic.gdx.graphics.g3d.ModelInstance;
+import com.badlogic.gdx.graphics.g3d.utils.DefaultTextureBinder;
+import com.badlogic.gdx.graphics.g3d.utils.RenderContext;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the shadow map of the casters that do not move, so a frame only renders the moving casters into the
+ * shadow map instead of every caster. {@link #bake(ModelBatch, Camera, Array)} renders the still casters once into
+ * a frame buffer of its own, {@link #restore()} copies it into the shadow map at the start of every shadow pass,
+ * color and depth, and the moving casters are rendered on top of it as usual.
+ * <p>
+ * The depth of the libGDX shadow map is packed in its RGBA color, the copy writes it back to the depth buffer
+ * through gl_FragDepth, which needs desktop GL, see {@link #isSupported()}. The cache is only valid for the light
+ * camera it was baked with, bake again when the still casters change.
+ *
+ * @author JamesTKhan
+ * @version October 17, 2026
+ */
+public class ShadowCache implements Disposable {
+    private final FrameBuffer frameBuffer;
+    private final ShaderProgram shader;
+    private final Mesh quad;
+    private final RenderContext context = new RenderContext(new DefaultTextureBinder(DefaultTextureBinder.LRU, 1));
+
+    // Combined matrix of the light camera at the last bake, the cache is empty until the first one
+    private final float[] bakedProjView = new float[16];
+    private boolean baked;
+
+    /**
+     * @return whether the current context can write the depth of the cache back, desktop only
+     */
+    public static boolean isSupported() {
+        return Gdx.app.getType() == Application.ApplicationType.Desktop;
+    }
+
+    /**
+     * @param width the width of the shadow map, as given to the shadow light
+     * @param height the height of the shadow map
+     */
+    public ShadowCache(int width, int height) {
+        if (!isSupported()) {
+            throw new GdxRuntimeException("Shadow caching needs a desktop GL context");
+        }
+
+        frameBuffer = new FrameBuffer(Pixmap.Format.RGBA8888, width, height, true);
+        // Packed depth must not be blended between texels
+        frameBuffer.getColorBufferTexture().setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
+
+        shader = new ShaderProgram(Gdx.files.internal("shaders/shadow_cache.vert.glsl"),
+                Gdx.files.internal("shaders/shadow_cache.frag.glsl"));
+        if (!shader.isCompiled()) {
+            throw new GdxRuntimeException("Could not compile shaders/shadow_cache.vert.glsl: " + shader.getLog());
+        }
+
+        quad = new Mesh(true, 4, 0, new VertexAttribute(VertexAttributes.Usage.Position, 2, "a_position"));
+        quad.setVertices(new float[] {-1, -1, 1, -1, -1, 1, 1, 1});
+    }
+
+    /**
+     * @param lightCamera the updated camera of the shadow light
+     * @return whether the cache was baked with this light camera, false before the first bake or after
+     * {@link #invalidate()}
+     */
+    public boolean isValid(Camera lightCamera) {
+        return baked && Arrays.equals(bakedProjView, lightCamera.combined.val);
+    }
+
+    /**
+     * Renders the still casters into the cache, call outside of the shadow pass
+     * @param shadowBatch a batch with a depth shader provider, the one of the shadow pass
+     * @param lightCamera the updated camera of the shadow light
+     */
+    public void bake(ModelBatch shadowBatch, Camera lightCamera, Array<ModelInstance> casters) {
+        frameBuffer.begin();
+        // Cleared like the shadow light clears its map, white is the far plane
+        Gdx.gl.glClearColor(1, 1, 1, 1);
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT | GL20.GL_DEPTH_BUFFER_BIT);
+        shadowBatch.begin(lightCamera);
+        shadowBatch.render(casters);
+        shadowBatch.end();
+        frameBuffer.end();
+
+        System.arraycopy(lightCamera.combined.val, 0, bakedProjView, 0, bakedProjView.length);
+        baked = true;
+    }
+
+    /**
+     * Copies the cache into the bound shadow map, call right after the shadow light is begun
+     */
+    public void restore() {
+        context.begin();
+        context.setDepthTest(GL20.GL_ALWAYS);
+        context.setDepthMask(true);
+        context.setCullFace(0);
+        context.setBlending(false, GL20.GL_ONE, GL20.GL_ZERO);
+
+        shader.bind();
+        shader.setUniformi("u_texture", context.textureBinder.bind(frameBuffer.getColorBufferTexture()));
+        quad.render(shader, GL20.GL_TRIANGLE_STRIP);
+        context.end();
+    }
+
+    /**
+     * Marks the cache as stale, the next {@link #isValid(Camera)} returns false
+     */
+    public void invalidate() {
+        baked = false;
+    }
+
+    @Override
+    public void dispose() {
+        frameBuffer.dispose();
+        shader.dispose();
+        quad.dispose();
+    }
+}
@@ -4,6 +4,7 @@ import com.badlogic.gdx.Game;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
 import com.badlogic.gdx.ScreenAdapter;
+import com.badlogic.gdx.graphics.Camera;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.PerspectiveCamera;
@@ -20,27 +21,35 @@ import com.badlogic.gdx.graphics.g3d.utils.DepthShaderProvider;
 import com.badlogic.gdx.graphics.g3d.utils.MeshPartBuilder;
 import com.badlogic.gdx.graphics.g3d.utils.ModelBuilder;
 import com.badlogic.gdx.graphics.g3d.utils.shapebuilders.BoxShapeBuilder;
-import com.badlogic.gdx.graphics.g3d.utils.shapebuilders.ConeShapeBuilder;
-import com.badlogic.gdx.graphics.g3d.utils.shapebuilders.CylinderShapeBuilder;
-import com.badlogic.gdx.graphics.g3d.utils.shapebuilders.SphereShapeBuilder;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Quaternion;
 import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.physics.bullet.collision.Collision;
 import com.badlogic.gdx.physics.bullet.collision.btBoxShape;
 import com.badlogic.gdx.physics.bullet.collision.btCollisionShape;
-import com.badlogic.gdx.physics.bullet.collision.btConeShape;
-import com.badlogic.gdx.physics.bullet.collision.btCylinderShape;
-import com.badlogic.gdx.physics.bullet.collision.btSphereShape;
 import com.badlogic.gdx.physics.bullet.dynamics.btRigidBody;
 import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.ObjectSet;
 import com.badlogic.gdx.utils.ScreenUtils;
 import com.badlogic.gdx.utils.viewport.FitViewport;
+import com.jpcodes.physics.BulletEntity;
 import com.jpcodes.physics.BulletPhysicsSystem;
-import com.jpcodes.physics.MotionState;
+import com.jpcodes.physics.EntityRegistry;
+import com.jpcodes.physics.InterpolatedMotionState;
+import com.jpcodes.physics.PhysicsWorldBuilder;
 import com.jpcodes.physics.SelectScreen;
+import com.jpcodes.physics.ShapeRegistry;
+import com.jpcodes.physics.SimulationThread;
+import com.jpcodes.physics.StepProfiler;
 import com.jpcodes.physics.controllers.camera.CameraController;
+import com.jpcodes.physics.rendering.InstancedRenderer;
+import com.jpcodes.physics.rendering.ShadowCache;
 import com.jpcodes.physics.controllers.camera.FirstPersonCameraController;
+import com.jpcodes.physics.utils.PrimitiveModelCache;
+import com.jpcodes.physics.utils.PrimitiveShape;
 import com.kotcrab.vis.ui.widget.VisLabel;
 
 /**
@@ -49,6 +58,9 @@ import com.kotcrab.vis.ui.widget.VisLabel;
  */
 public class BaseScreen extends ScreenAdapter {
     private static boolean drawDebug = false;
+    private static boolean useSimulationThread = false;
+    private static boolean useInstancedRendering = false;
+    private static final int SHADOW_MAP_SIZE = 2048;
 
     protected PerspectiveCamera camera;
     protected CameraController cameraController;
@@ -58,21 +70,52 @@ public class BaseScreen extends ScreenAdapter {
     protected Environment environment;
     protected DirectionalShadowLight shadowLight;
     protected BulletPhysicsSystem bulletPhysicsSystem;
+    protected SimulationThread simulationThread;
+    protected InstancedRenderer instancedRenderer;
+    protected ShadowCache shadowCache;
+    protected final ShapeRegistry shapeRegistry = new ShapeRegistry();
+    protected final PrimitiveModelCache modelCache = new PrimitiveModelCache();
+    protected final EntityRegistry entityRegistry = new EntityRegistry();
     protected Game game;
 
+    /**
+     * Objects further than this along the view direction are not drawn, 0 for the far plane of the camera
+     */
+    protected float drawDistance = 0f;
+
+    // Body instances drawn only while their body is in view, found through the broadphase
+    private final ObjectSet<ModelInstance> culledInstances = new ObjectSet<>();
+    private final Array<ModelInstance> visibleInstances = new Array<>();
+    private final Array<ModelInstance> shadowCasters = new Array<>();
+    private final IntArray visibleIds = new IntArray();
+
+    // Instances of static bodies, always drawn, their shadows come from the shadow cache when there is one
+    private final Array<ModelInstance> staticInstances = new Array<>();
+    // Casters of the shadow cache, static and sleeping, the ones of the last bake
+    private final Array<ModelInstance> cachedCasters = new Array<>();
+    private final ObjectSet<ModelInstance> bakedCasters = new ObjectSet<>();
+
     private final Array<Color> colors;
 
     private final Stage stage;
     private final VisLabel fpsLabel;
+    private final StringBuilder fpsText = new StringBuilder();
 
     final float GRID_MIN = -100f;
     final float GRID_MAX = 100f;
     final float GRID_STEP = 10f;
 
     public BaseScreen(Game game) {
+        this(game, new PhysicsWorldBuilder().profiling(true).build());
+    }
+
+    protected BaseScreen(Game game, BulletPhysicsSystem bulletPhysicsSystem) {
 
         this.game = game;
-        bulletPhysicsSystem = new BulletPhysicsSystem();
+        this.bulletPhysicsSystem = bulletPhysicsSystem;
+        if (useSimulationThread) {
+            simulationThread = new SimulationThread(bulletPhysicsSystem);
+        }
 
         camera = new PerspectiveCamera(60f, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
         camera.near = 1f;
@@ -81,7 +124,7 @@ public class BaseScreen extends ScreenAdapter {
 
         environment = new Environment();
         environment.set(new ColorAttribute(ColorAttribute.AmbientLight, 0.4f, 0.4f, 0.4f, 1f));
-        environment.add((shadowLight = new DirectionalShadowLight(2048, 2048, 30f, 30f, 1f, 100f)).set(0.8f, 0.8f, 0.8f, -.4f, -.4f, -.4f));
+        environment.add((shadowLight = new DirectionalShadowLight(SHADOW_MAP_SIZE, SHADOW_MAP_SIZE, 30f, 30f, 1f, 100f)).set(0.8f, 0.8f, 0.8f, -.4f, -.4f, -.4f));
         environment.shadowMap = shadowLight;
 
         stage = new Stage(new FitViewport(Gdx.graphics.getWidth(), Gdx.graphics.getHeight()));
@@ -91,7 +134,13 @@ public class BaseScreen extends ScreenAdapter {
         stage.addActor(fpsLabel);
 
         modelBatch = new ModelBatch();
+        if (useInstancedRendering && InstancedRenderer.isSupported()) {
+            instancedRenderer = new InstancedRenderer();
+        }
         shadowBatch = new ModelBatch(new DepthShaderProvider());
+        if (ShadowCache.isSupported()) {
+            shadowCache = new ShadowCache(SHADOW_MAP_SIZE, SHADOW_MAP_SIZE);
+        }
         renderInstances = new Array<>();
 
         cameraController = new FirstPersonCameraController(camera);
@@ -112,26 +161,49 @@ public class BaseScreen extends ScreenAdapter {
         if (Gdx.input.isKeyJustPressed(Input.Keys.ESCAPE)) {
             game.setScreen(new SelectScreen(game));
             dispose();
+            return;
         }
 
         if (Gdx.input.isKeyJustPressed(Input.Keys.F1)) {
             drawDebug = !drawDebug;
         }
 
-        bulletPhysicsSystem.update(delta);
+        StepProfiler profiler = bulletPhysicsSystem.getProfiler();
+        if (profiler != null && Gdx.input.isKeyJustPressed(Input.Keys.F2)) {
+            Gdx.app.log("StepProfiler", profiler.appendText(new StringBuilder()).toString());
+        }
+
+        if (simulationThread != null) {
+            simulationThread.start();
+            simulationThread.interpolate();
+        } else {
+            bulletPhysicsSystem.update(delta);
+        }
         cameraController.update(delta);
 
         ScreenUtils.clear(Color.BLACK, true);
 
-        shadowLight.begin(Vector3.Zero, camera.direction);
+        shadowLight.update(Vector3.Zero, camera.direction);
+        Array<ModelInstance> casters = gatherShadowCasters(shadowLight.getCamera());
+        shadowLight.begin();
+        if (shadowCache != null) {
+            shadowCache.restore();
+        }
         shadowBatch.begin(shadowLight.getCamera());
-        shadowBatch.render(renderInstances);
+        shadowBatch.render(casters);
         shadowBatch.end();
+        if (instancedRenderer != null) {
+            instancedRenderer.update();
+            instancedRenderer.renderDepth(shadowLight.getCamera());
+        }
         shadowLight.end();
 
         modelBatch.begin(camera);
-        modelBatch.render(renderInstances, environment);
+        modelBatch.render(gatherVisible(camera, drawDistance, visibleInstances), environment);
         modelBatch.end();
+        if (instancedRenderer != null) {
+            instancedRenderer.render(camera, environment);
+        }
 
         if (drawDebug) {
             bulletPhysicsSystem.render(camera);
@@ -140,7 +212,57 @@ public class BaseScreen extends ScreenAdapter {
         stage.act();
         stage.draw();
 
-        fpsLabel.setText("FPS: " + Gdx.graphics.getFramesPerSecond());
+        fpsText.setLength(0);
+        fpsText.append("FPS: ").append(Gdx.graphics.getFramesPerSecond());
+        if (profiler != null) {
+            synchronized (bulletPhysicsSystem) {
+                long stepNanos = profiler.getHistogram(StepProfiler.Metric.STEP_TIME).getLast();
+                fpsText.append("  Step: ").append(stepNanos / 10000 / 100f).append(" ms");
+            }
+        }
+        fpsLabel.setText(fpsText);
+    }
+
+    @Override
+    public void dispose() {
+        if (simulationThread != null) {
+            simulationThread.dispose();
+        }
+
+        // The world goes first, it still references the shared shapes
+        bulletPhysicsSystem.dispose();
+        if (instancedRenderer != null) {
+            instancedRenderer.dispose();
+        }
+        if (shadowCache != null) {
+            shadowCache.dispose();
+        }
+        shapeRegistry.dispose();
+        modelCache.dispose();
+    }
+
+    /**
+     * Sets whether screens created from now on step physics on a {@link SimulationThread}
+     * instead of inline on the render thread.
+     */
+    public static void setUseSimulationThread(boolean useSimulationThread) {
+        BaseScreen.useSimulationThread = useSimulationThread;
+    }
+
+    public static boolean isUseSimulationThread() {
+        return useSimulationThread;
+    }
+
+    /**
+     * Sets whether screens created from now on draw their bodies with one instanced draw call per mesh,
+     * only takes effect with a GL30 context.
+     */
+    public static void setUseInstancedRendering(boolean useInstancedRendering) {
+        BaseScreen.useInstancedRendering = useInstancedRendering;
+    }
+
+    public static boolean isUseInstancedRendering() {
+        return useInstancedRendering;
     }
 
     public void setCameraController(CameraController cameraController) {
@@ -154,7 +276,7 @@ public class BaseScreen extends ScreenAdapter {
         MeshPartBuilder meshBuilder = modelBuilder.part("floor", GL20.GL_TRIANGLES, VertexAttribute.Position().usage |VertexAttribute.Normal().usage | VertexAttribute.TexCoords(0).usage, new Material());
 
         BoxShapeBuilder.build(meshBuilder, width, height, depth);
-        btBoxShape btBoxShape = new btBoxShape(new Vector3(width/2f, height/2f, depth/2f));
+        btBoxShape btBoxShape = shapeRegistry.obtainBox(width/2f, height/2f, depth/2f);
         Model floor = modelBuilder.end();
 
         ModelInstance floorInstance = new ModelInstance(floor);
@@ -165,7 +287,7 @@ public class BaseScreen extends ScreenAdapter {
 
         body.setWorldTransform(floorInstance.transform);
 
-        renderInstances.add(floorInstance);
+        addStaticInstance(floorInstance, body);
         bulletPhysicsSystem.addBody(body);
     }
 
@@ -195,56 +317,164 @@ public class BaseScreen extends ScreenAdapter {
         // Create some random shapes
         for (int i = -6; i < 6; i+=2) {
             for (int j = -6; j < 6; j+=2) {
-                ModelBuilder modelBuilder = new ModelBuilder();
-                modelBuilder.begin();
-                Material material = new Material();
-                material.set(ColorAttribute.createDiffuse(getRandomColor()));
-                MeshPartBuilder builder = modelBuilder.part("box", GL20.GL_TRIANGLES, VertexAttributes.Usage.Position | VertexAttributes.Usage.Normal, material);
-
-                btCollisionShape shape;
-
-                int random = MathUtils.random(1, 4);
-                switch (random) {
-                    case 1:
-                        BoxShapeBuilder.build(builder, 0, 0, 0, 1f, 1f, 1f);
-                        shape = new btBoxShape(new Vector3(0.5f, 0.5f, 0.5f));
-                        break;
-                    case 2:
-                        ConeShapeBuilder.build(builder, 1, 1, 1, 8);
-                        shape = new btConeShape(0.5f, 1f);
-                        break;
-                    case 3:
-                        SphereShapeBuilder.build(builder, 1, 1, 1, 8, 8);
-                        shape = new btSphereShape(0.5f);
-                        break;
-                    case 4:
-                    default:
-                        CylinderShapeBuilder.build(builder, 1, 1, 1, 8);
-                        shape = new btCylinderShape(new Vector3(0.5f, 0.5f, 0.5f));
-                        break;
-                }
+                PrimitiveShape primitive = PrimitiveShape.random();
+                btCollisionShape shape = primitive.obtainCollisionShape(shapeRegistry);
 
-                ModelInstance box = new ModelInstance(modelBuilder.end());
+                // Bodies of the same primitive and color share one model
+                ModelInstance box = new ModelInstance(modelCache.get(primitive, getRandomColor()));
                 box.transform.setToTranslation(i, MathUtils.random(10, 20), j);
                 box.transform.rotate(new Quaternion(Vector3.Z, MathUtils.random(0f, 270f)));
 
                 float mass = 1f;
 
-                Vector3 localInertia = new Vector3();
-                shape.calculateLocalInertia(mass, localInertia);
+                Vector3 localInertia = shapeRegistry.calculateLocalInertia(shape, mass, new Vector3());
 
                 btRigidBody.btRigidBodyConstructionInfo info = new btRigidBody.btRigidBodyConstructionInfo(mass, null, shape, localInertia);
                 btRigidBody body = new btRigidBody(info);
 
-                MotionState motionState = new MotionState(box.transform);
-                body.setMotionState(motionState);
+                body.setWorldTransform(box.transform);
+                linkBody(body, box);
 
-                renderInstances.add(box);
+                addBodyInstance(box);
                 bulletPhysicsSystem.addBody(body);
             }
         }
     }
 
+    /**
+     * Links a dynamic body to the model instance that renders it. Through an InterpolatedMotionState when stepping
+     * on the render thread, through the simulation thread snapshots otherwise. The entity is registered in the
+     * entity registry, its id becomes the user value of the body.
+     * @return the entity of the linked body and model instance
+     */
+    protected BulletEntity linkBody(btRigidBody body, ModelInstance modelInstance) {
+        BulletEntity entity = new BulletEntity(body, modelInstance);
+        entityRegistry.register(entity);
+        if (simulationThread != null) {
+            simulationThread.add(entity);
+        } else {
+            body.setMotionState(new InterpolatedMotionState(modelInstance.transform));
+        }
+        return entity;
+    }
+
+    /**
+     * Adds the model instance of a body to be rendered, through the instanced renderer when enabled. Otherwise it is
+     * only drawn while its body is inside the camera or shadow light frustum, link the body first.
+     */
+    protected void addBodyInstance(ModelInstance modelInstance) {
+        if (instancedRenderer != null) {
+            instancedRenderer.add(modelInstance);
+        } else {
+            culledInstances.add(modelInstance);
+        }
+    }
+
+    /**
+     * Adds the model instance of a static body to be rendered. It is always drawn like the render instances, but
+     * casts its shadow from the shadow cache instead of being drawn into the shadow map every frame, so it must not
+     * move. Instances that move without a body go to the render instances instead.
+     * @param body the body of the instance, of mass 0
+     */
+    protected void addStaticInstance(ModelInstance modelInstance, btRigidBody body) {
+        if (!body.isStaticObject()) {
+            throw new GdxRuntimeException("Static instances need a static body, of mass 0");
+        }
+        addStaticInstance(modelInstance);
+    }
+
+    /**
+     * Same as {@link #addStaticInstance(ModelInstance, btRigidBody)} for static geometry without a body of its own,
+     * ex. a level whose collision is streamed in tiles
+     */
+    protected void addStaticInstance(ModelInstance modelInstance) {
+        staticInstances.add(modelInstance);
+        if (shadowCache != null) {
+            shadowCache.invalidate();
+        }
+    }
+
+    /**
+     * Collects the render instances, the static instances and the body instances whose body is in the view
+     * @param maxDistance the draw distance, 0 for the far plane of the camera
+     * @param out cleared and filled with the instances to draw
+     * @return out for chaining
+     */
+    private Array<ModelInstance> gatherVisible(Camera view, float maxDistance, Array<ModelInstance> out) {
+        out.clear();
+        out.addAll(renderInstances);
+        out.addAll(staticInstances);
+        if (culledInstances.size == 0) return out;
+
+        visibleIds.clear();
+        bulletPhysicsSystem.getVisibilityQuery().cull(view, maxDistance, visibleIds);
+
+        for (int i = 0; i < visibleIds.size; i++) {
+            BulletEntity entity = entityRegistry.get(visibleIds.get(i));
+            if (entity != null && culledInstances.contains(entity.getModelInstance())) {
+                out.add(entity.getModelInstance());
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Collects the instances to draw into the shadow map this frame. With a shadow cache only the render instances
+     * and the awake bodies are drawn, the static instances and the sleeping bodies in the light frustum are baked
+     * into the cache, again whenever a body among them wakes up or falls asleep.
+     * @param lightCamera the updated camera of the shadow light
+     */
+    private Array<ModelInstance> gatherShadowCasters(Camera lightCamera) {
+        if (shadowCache == null) {
+            return gatherVisible(lightCamera, 0, shadowCasters);
+        }
+
+        shadowCasters.clear();
+        shadowCasters.addAll(renderInstances);
+        cachedCasters.clear();
+        cachedCasters.addAll(staticInstances);
+
+        if (culledInstances.size > 0) {
+            visibleIds.clear();
+            bulletPhysicsSystem.getVisibilityQuery().cull(lightCamera, 0, visibleIds);
+
+            // The activation state changes during a step on the simulation thread
+            synchronized (bulletPhysicsSystem) {
+                for (int i = 0; i < visibleIds.size; i++) {
+                    BulletEntity entity = entityRegistry.get(visibleIds.get(i));
+                    if (entity == null || !culledInstances.contains(entity.getModelInstance())) continue;
+
+                    btRigidBody body = entity.getBody();
+                    if (body.isStaticObject() || body.getActivationState() == Collision.ISLAND_SLEEPING) {
+                        cachedCasters.add(entity.getModelInstance());
+                    } else {
+                        shadowCasters.add(entity.getModelInstance());
+                    }
+                }
+            }
+        }
+
+        if (!shadowCache.isValid(lightCamera) || !isBaked(cachedCasters)) {
+            shadowCache.bake(shadowBatch, lightCamera, cachedCasters);
+            bakedCasters.clear();
+            for (int i = 0; i < cachedCasters.size; i++) {
+                bakedCasters.add(cachedCasters.get(i));
+            }
+        }
+        return shadowCasters;
+    }
+
+    /**
+     * @return whether the casters are the ones of the last bake, in any order
+     */
+    private boolean isBaked(Array<ModelInstance> casters) {
+        if (casters.size != bakedCasters.size) return false;
+        for (int i = 0; i < casters.size; i++) {
+            if (!bakedCasters.contains(casters.get(i))) return false;
+        }
+        return true;
+    }
+
     protected Color getRandomColor(){
         return colors.get(MathUtils.random(0, colors.size-1));
     }
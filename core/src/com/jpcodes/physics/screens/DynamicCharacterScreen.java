@@ -2,21 +2,22 @@ package com.jpcodes.physics.screens;
 
 import com.badlogic.gdx.Game;
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.g3d.Model;
 import com.badlogic.gdx.graphics.g3d.ModelInstance;
 import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.math.collision.BoundingBox;
-import com.badlogic.gdx.physics.bullet.Bullet;
 import com.badlogic.gdx.physics.bullet.collision.Collision;
 import com.badlogic.gdx.physics.bullet.collision.btCapsuleShape;
-import com.badlogic.gdx.physics.bullet.collision.btCollisionShape;
 import com.badlogic.gdx.physics.bullet.dynamics.btRigidBody;
 import com.jpcodes.physics.BulletEntity;
-import com.jpcodes.physics.MotionState;
+import com.jpcodes.physics.CollisionShapeCache;
+import com.jpcodes.physics.LevelStreamer;
 import com.jpcodes.physics.controllers.camera.ThirdPersonCameraController;
 import com.jpcodes.physics.controllers.character.DynamicCharacterController;
+import com.jpcodes.physics.utils.ObjParser;
 import com.jpcodes.physics.utils.Utils3D;
 
 /**
@@ -26,13 +27,19 @@ import com.jpcodes.physics.utils.Utils3D;
 public class DynamicCharacterScreen extends BaseScreen {
 
     private final DynamicCharacterController controller;
+    private final BulletEntity player;
+    // The collision of the level is loaded in tiles around the player
+    private final LevelStreamer levelStreamer;
+    // Tile shapes kept next to the assets, the BVH of a tile is only built the first time it streams in
+    private final CollisionShapeCache collisionCache = new CollisionShapeCache(Gdx.files.local("cache/collision"));
+    private final Vector3 playerPosition = new Vector3();
 
     public DynamicCharacterScreen(Game game) {
         super(game);
 
         createObjects();
 
-        BulletEntity player = createPlayer();
+        player = createPlayer();
         controller = new DynamicCharacterController(player, bulletPhysicsSystem);
 
         setCameraController(new ThirdPersonCameraController(camera, player.getModelInstance()));
@@ -40,29 +47,46 @@ public class DynamicCharacterScreen extends BaseScreen {
         camera.position.set(new Vector3(0, 10, -10));
         camera.lookAt(Vector3.Zero);
 
-        // Load a walkable area
-        Model sceneModel = Utils3D.loadOBJ(Gdx.files.internal("models/scene.obj"));
+        // Load a walkable area, the parsed triangles are the level collision as well
+        FileHandle sceneFile = Gdx.files.internal("models/scene.obj");
+        ObjParser sceneParser = new ObjParser().parse(sceneFile);
+        Model sceneModel = sceneParser.createModel();
         ModelInstance sceneInstance = new ModelInstance(sceneModel);
         sceneInstance.materials.get(0).set(ColorAttribute.createDiffuse(Color.FOREST));
         sceneInstance.materials.get(1).set(ColorAttribute.createDiffuse(Color.TEAL));
         sceneInstance.materials.get(2).set(ColorAttribute.createDiffuse(Color.DARK_GRAY));
         sceneInstance.materials.get(3).set(ColorAttribute.createDiffuse(Color.TAN));
 
-        renderInstances.add(sceneInstance);
+        addStaticInstance(sceneInstance);
 
-        btCollisionShape shape = Bullet.obtainStaticNodeShape(sceneInstance.nodes);
-        btRigidBody.btRigidBodyConstructionInfo sceneInfo = new btRigidBody.btRigidBodyConstructionInfo(0f, null, shape, Vector3.Zero);
-        btRigidBody body = new btRigidBody(sceneInfo);
-        bulletPhysicsSystem.addBody(body);
+        // The tiles under the player and the falling objects are in before the first step
+        levelStreamer = new LevelStreamer(bulletPhysicsSystem, sceneParser.getPositions(),
+                sceneParser.getTriangles(), 8f);
+        levelStreamer.setShapeCache(collisionCache, sceneFile);
+        levelStreamer.setRadius(16f, 24f);
+        levelStreamer.update(player.getModelInstance().transform.getTranslation(playerPosition));
+        levelStreamer.finishLoading();
     }
 
     @Override
     public void render(float delta) {
-        controller.update(delta);
+        // The controller pushes the player body around, which must not overlap a step on the simulation thread
+        synchronized (bulletPhysicsSystem) {
+            controller.update(delta);
+        }
+        levelStreamer.update(player.getModelInstance().transform.getTranslation(playerPosition));
 
         super.render(delta);
     }
 
+    @Override
+    public void dispose() {
+        // Removes the tiles from the world before it goes, the cache holds the shapes until the end
+        levelStreamer.dispose();
+        super.dispose();
+        collisionCache.dispose();
+    }
+
     private BulletEntity createPlayer() {
         ModelInstance playerModelInstance = new ModelInstance(Utils3D.buildCapsuleCharacter());
 
@@ -79,7 +103,6 @@ public class DynamicCharacterScreen extends BaseScreen {
         // Scale for half extents
         dimensions.scl(0.5f);
 
-        MotionState motionState = new MotionState(playerModelInstance.transform);
         btCapsuleShape capsuleShape = new btCapsuleShape(dimensions.len() / 2.5f, dimensions.y);
 
         float mass = 2f;
@@ -87,8 +110,9 @@ public class DynamicCharacterScreen extends BaseScreen {
         Vector3 intertia = new Vector3();
         capsuleShape.calculateLocalInertia(mass, intertia);
 
-        btRigidBody.btRigidBodyConstructionInfo info = new btRigidBody.btRigidBodyConstructionInfo(mass, motionState, capsuleShape, intertia);
+        btRigidBody.btRigidBodyConstructionInfo info = new btRigidBody.btRigidBodyConstructionInfo(mass, null, capsuleShape, intertia);
         btRigidBody body = new btRigidBody(info);
+        body.setWorldTransform(playerModelInstance.transform);
 
         // Prevent body from falling over
         body.setAngularFactor(Vector3.Y);
@@ -99,9 +123,11 @@ public class DynamicCharacterScreen extends BaseScreen {
         // Add damping so we dont slide forever!
         body.setDamping(0.75f, 0.99f);
 
+        BulletEntity player = linkBody(body, playerModelInstance);
+
         renderInstances.add(playerModelInstance);
         bulletPhysicsSystem.addBody(body);
 
-        return new BulletEntity(body, playerModelInstance);
+        return player;
     }
 }
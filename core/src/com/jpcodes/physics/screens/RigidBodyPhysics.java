@@ -6,8 +6,8 @@ import com.badlogic.gdx.Input;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.math.collision.Ray;
 import com.badlogic.gdx.physics.bullet.collision.ClosestRayResultCallback;
-import com.badlogic.gdx.physics.bullet.collision.btCollisionObject;
 import com.badlogic.gdx.physics.bullet.dynamics.btRigidBody;
+import com.jpcodes.physics.BulletEntity;
 
 /**
  * @author JamesTKhan
@@ -39,14 +39,19 @@ public class RigidBodyPhysics extends BaseScreen {
             rayFromWorld.set(ray.origin);
             rayToWorld.set(ray.direction).scl(100f).add(ray.origin);
 
-            bulletPhysicsSystem.raycast(rayFromWorld, rayToWorld, callback);
-
-            if (callback.hasHit()) {
-                btCollisionObject collisionObject = callback.getCollisionObject();
-                if (collisionObject instanceof btRigidBody) {
-                    // Activate and push the object in the direction of the ray
-                    collisionObject.activate();
-                    ((btRigidBody) collisionObject).applyCentralImpulse(ray.direction.scl(50f));
+            // Held across the raycast and the push so a step on the simulation thread cannot run in between
+            synchronized (bulletPhysicsSystem) {
+                bulletPhysicsSystem.raycast(rayFromWorld, rayToWorld, callback);
+
+                if (callback.hasHit()) {
+                    // The user value of the hit body is its entity id, only linked bodies are entities
+                    BulletEntity entity = entityRegistry.get(callback.getCollisionObject());
+                    if (entity != null) {
+                        // Activate and push the object in the direction of the ray
+                        btRigidBody body = entity.getBody();
+                        body.activate();
+                        body.applyCentralImpulse(ray.direction.scl(50f));
+                    }
                 }
             }
         }
@@ -0,0 +1,703 @@
+package com.jpcodes.physics.utils;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.graphics.g3d.attributes.BlendingAttribute;
+import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
+import com.badlogic.gdx.graphics.g3d.attributes.FloatAttribute;
+import com.badlogic.gdx.graphics.g3d.attributes.TextureAttribute;
+import com.badlogic.gdx.graphics.g3d.model.MeshPart;
+import com.badlogic.gdx.graphics.g3d.model.Node;
+import com.badlogic.gdx.graphics.g3d.model.NodePart;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.ShortArray;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reads Wavefront .obj files straight from their bytes into primitive arrays, without a String per line or token like
+ * the libGDX ObjLoader. Files are memory mapped where the platform allows it. The parsed triangles feed the Bullet
+ * triangle mesh as is, {@link #getPositions()} and {@link #getTriangles()}, and the render meshes through
+ * {@link #packMesh(int, int, FloatArray, ShortArray)} or {@link #createModel()}.
+ * <p>
+ * Supports v, vt, vn, f with any of the v, v/vt, v//vn and v/vt/vn forms, negative indices, polygons as triangle fans,
+ * o, g, usemtl and mtllib. The .mtl file supports newmtl, Kd, Ks, Ns, d, Tr and map_Kd, with the defaults of the
+ * ObjLoader. Everything else is skipped.
+ * <p>
+ * A parser reuses its arrays from one parse to the next, parsing many files with one parser only allocates when a file
+ * is larger than any before, and for the names of objects and materials. Not thread safe.
+ *
+ * @author JamesTKhan
+ * @version October 17, 2026
+ */
+public class ObjParser {
+    // Vertices of a render mesh at most, its indices are unsigned shorts
+    public static final int MAX_MESH_VERTICES = 1 << 16;
+
+    private static final double[] POW10 = new double[23];
+
+    static {
+        POW10[0] = 1;
+        for (int i = 1; i < POW10.length; i++) {
+            POW10[i] = POW10[i - 1] * 10;
+        }
+    }
+
+    private final FloatArray positions = new FloatArray();
+    private final FloatArray normals = new FloatArray();
+    private final FloatArray texCoords = new FloatArray();
+    // Position index of each triangle corner, the texture coordinate and normal index of each corner, -1 if none
+    private final IntArray triangles = new IntArray();
+    private final IntArray corners = new IntArray();
+
+    // Parts are runs of triangles with the same object name and material
+    private final IntArray partStarts = new IntArray();
+    private final Array<String> partNames = new Array<>();
+    private final IntArray partMaterials = new IntArray();
+    private final Array<String> materialNames = new Array<>();
+
+    // Definitions of the .mtl file, diffuse rgb, specular rgb, shininess and opacity per material
+    private final Array<String> mtlNames = new Array<>();
+    private final FloatArray mtlValues = new FloatArray();
+    private final Array<String> mtlTextures = new Array<>();
+    private String mtllib;
+    private FileHandle mtlDirectory;
+
+    // Hash of the corners packed into the current mesh, v, vt, vn, vertex index and stamp per slot
+    private int[] vertexSlots = new int[0];
+    private int stamp;
+
+    private ByteBuffer buffer;
+    private int position;
+    private int limit;
+    private int line;
+    private byte[] nameBytes = new byte[64];
+
+    /**
+     * Parses the file and the .mtl file it references, memory mapped if the platform can map it
+     */
+    public ObjParser parse(FileHandle file) {
+        parse(read(file));
+
+        if (mtllib != null) {
+            FileHandle mtlFile = file.sibling(mtllib);
+            if (mtlFile.exists()) {
+                parseMaterials(read(mtlFile));
+                mtlDirectory = mtlFile.parent();
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Parses the .obj content between the position and the limit of the buffer. A .mtl file it references is not
+     * read, every material gets the defaults.
+     */
+    public ObjParser parse(ByteBuffer buffer) {
+        clear();
+        begin(buffer);
+        startPart("default");
+        setMaterial("default");
+
+        try {
+            while (nextLine()) {
+                byte c = buffer.get(position);
+                if (c == 'v') {
+                    byte next = peek(1);
+                    if (isSpace(next)) {
+                        position++;
+                        positions.add(parseFloat(), parseFloat(), parseFloat());
+                    } else if (next == 'n' && isSpace(peek(2))) {
+                        position += 2;
+                        normals.add(parseFloat(), parseFloat(), parseFloat());
+                    } else if (next == 't' && isSpace(peek(2))) {
+                        position += 2;
+                        float u = parseFloat();
+                        texCoords.add(u, hasToken() ? parseFloat() : 0);
+                    }
+                } else if (c == 'f' && isSpace(peek(1))) {
+                    position++;
+                    parseFace();
+                } else if (keyword("o") || keyword("g")) {
+                    // The material carries over to the new part
+                    startPart(hasToken() ? readToken() : "default");
+                } else if (keyword("usemtl")) {
+                    setMaterial(hasToken() ? readToken() : "default");
+                } else if (keyword("mtllib") && hasToken()) {
+                    // Read by parse(FileHandle), relative to the .obj file
+                    mtllib = readToken();
+                }
+                skipLine();
+            }
+        } finally {
+            this.buffer = null;
+        }
+
+        // The part open at the end may have no triangles
+        if (partStarts.peek() == getTriangleCount()) {
+            partStarts.pop();
+            partNames.pop();
+            partMaterials.pop();
+        }
+        return this;
+    }
+
+    private void parseMaterials(ByteBuffer buffer) {
+        begin(buffer);
+        int offset = -1;
+
+        try {
+            while (nextLine()) {
+                if (keyword("newmtl")) {
+                    mtlNames.add(hasToken() ? readToken() : "default");
+                    mtlTextures.add(null);
+                    offset = mtlValues.size;
+                    // Defaults of the ObjLoader, white diffuse and specular, no shininess and opaque
+                    mtlValues.addAll(1, 1, 1, 1, 1, 1, 0, 1);
+                } else if (offset < 0) {
+                    // Nothing to set before the first material
+                } else if (keyword("Kd")) {
+                    parseColor(offset);
+                } else if (keyword("Ks")) {
+                    parseColor(offset + 3);
+                } else if (keyword("Ns")) {
+                    mtlValues.set(offset + 6, parseFloat());
+                } else if (keyword("d")) {
+                    mtlValues.set(offset + 7, parseFloat());
+                } else if (keyword("Tr")) {
+                    mtlValues.set(offset + 7, 1 - parseFloat());
+                } else if (keyword("map_Kd") && hasToken()) {
+                    mtlTextures.set(mtlTextures.size - 1, readToken());
+                }
+                skipLine();
+            }
+        } finally {
+            this.buffer = null;
+        }
+    }
+
+    private void parseColor(int offset) {
+        float r = parseFloat();
+        // A single value is grey
+        boolean rgb = hasToken();
+        mtlValues.set(offset, r);
+        mtlValues.set(offset + 1, rgb ? parseFloat() : r);
+        mtlValues.set(offset + 2, rgb ? parseFloat() : r);
+    }
+
+    private void parseFace() {
+        int firstV = 0, firstT = 0, firstN = 0;
+        int lastV = 0, lastT = 0, lastN = 0;
+        int count = 0;
+
+        while (hasToken()) {
+            int v = parseIndex(positions.size / 3);
+            int t = -1, n = -1;
+            if (peek(0) == '/') {
+                position++;
+                if (peek(0) != '/') {
+                    t = parseIndex(texCoords.size / 2);
+                }
+                if (peek(0) == '/') {
+                    position++;
+                    n = parseIndex(normals.size / 3);
+                }
+            }
+
+            if (count == 0) {
+                firstV = v;
+                firstT = t;
+                firstN = n;
+            } else if (count >= 2) {
+                triangles.add(firstV, lastV, v);
+                corners.add(firstT, firstN);
+                corners.add(lastT, lastN);
+                corners.add(t, n);
+            }
+            lastV = v;
+            lastT = t;
+            lastN = n;
+            count++;
+        }
+
+        if (count < 3) {
+            throw error("A face needs at least 3 vertices");
+        }
+    }
+
+    private void startPart(String name) {
+        if (partStarts.size > 0 && partStarts.peek() == getTriangleCount()) {
+            // Nothing in the open part yet, rename it
+            partNames.set(partNames.size - 1, name);
+            return;
+        }
+        partStarts.add(getTriangleCount());
+        partNames.add(name);
+        partMaterials.add(partMaterials.size > 0 ? partMaterials.peek() : 0);
+    }
+
+    private void setMaterial(String name) {
+        int material = materialNames.indexOf(name, false);
+        if (material < 0) {
+            material = materialNames.size;
+            materialNames.add(name);
+        }
+
+        if (partMaterials.peek() != material) {
+            if (partStarts.peek() != getTriangleCount()) {
+                startPart(partNames.peek());
+            }
+            partMaterials.set(partMaterials.size - 1, material);
+        }
+    }
+
+    private void clear() {
+        positions.clear();
+        normals.clear();
+        texCoords.clear();
+        triangles.clear();
+        corners.clear();
+        partStarts.clear();
+        partNames.clear();
+        partMaterials.clear();
+        materialNames.clear();
+        mtlNames.clear();
+        mtlValues.clear();
+        mtlTextures.clear();
+        mtllib = null;
+        mtlDirectory = null;
+    }
+
+    private static ByteBuffer read(FileHandle file) {
+        try {
+            return file.map();
+        } catch (GdxRuntimeException e) {
+            // Classpath files and compressed assets can not be mapped
+            return ByteBuffer.wrap(file.readBytes());
+        }
+    }
+
+    private void begin(ByteBuffer buffer) {
+        this.buffer = buffer;
+        position = buffer.position();
+        limit = buffer.limit();
+        line = 0;
+    }
+
+    /**
+     * Moves to the first token of the next line that is not empty
+     * @return false at the end of the buffer
+     */
+    private boolean nextLine() {
+        while (position < limit) {
+            byte c = buffer.get(position);
+            if (c == '\n') {
+                line++;
+                position++;
+            } else if (isSpace(c) || c == '\r') {
+                position++;
+            } else if (c == '#') {
+                skipLine();
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Moves to the start of the next line
+     */
+    private void skipLine() {
+        while (position < limit && buffer.get(position) != '\n') {
+            position++;
+        }
+    }
+
+    /**
+     * Skips the spaces in front of the next token on this line
+     * @return whether there is one
+     */
+    private boolean hasToken() {
+        while (position < limit && isSpace(buffer.get(position))) {
+            position++;
+        }
+        return position < limit && !isLineEnd(buffer.get(position));
+    }
+
+    /**
+     * Moves past the keyword if the line starts with it
+     */
+    private boolean keyword(String keyword) {
+        int length = keyword.length();
+        if (position + length > limit) return false;
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(position + i) != keyword.charAt(i)) return false;
+        }
+        if (position + length < limit && !isSpace(buffer.get(position + length))
+                && !isLineEnd(buffer.get(position + length))) {
+            return false;
+        }
+        position += length;
+        return true;
+    }
+
+    private String readToken() {
+        int start = position;
+        while (position < limit && !isSpace(buffer.get(position)) && !isLineEnd(buffer.get(position))) {
+            position++;
+        }
+
+        int length = position - start;
+        if (nameBytes.length < length) {
+            nameBytes = new byte[MathUtils.nextPowerOfTwo(length)];
+        }
+        for (int i = 0; i < length; i++) {
+            nameBytes[i] = buffer.get(start + i);
+        }
+        return new String(nameBytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param count the number of elements so far, negative indices count back from it
+     * @return the zero based index
+     */
+    private int parseIndex(int count) {
+        if (!hasToken()) {
+            throw error("Expected an index");
+        }
+
+        boolean negative = peek(0) == '-';
+        if (negative) {
+            position++;
+        }
+
+        int value = 0;
+        int start = position;
+        byte c;
+        while (position < limit && (c = buffer.get(position)) >= '0' && c <= '9') {
+            value = value * 10 + (c - '0');
+            position++;
+        }
+        if (position == start || value == 0) {
+            throw error("Expected an index");
+        }
+
+        int index = negative ? count - value : value - 1;
+        if (index < 0 || index >= count) {
+            throw error("Index out of range " + (negative ? -value : value));
+        }
+        return index;
+    }
+
+    /**
+     * Parses a decimal number with an optional exponent. Up to 18 significant digits are kept, the value is rounded
+     * to a double and then to a float.
+     */
+    private float parseFloat() {
+        if (!hasToken()) {
+            throw error("Expected a number");
+        }
+
+        boolean negative = false;
+        byte c = buffer.get(position);
+        if (c == '-' || c == '+') {
+            negative = c == '-';
+            position++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean fraction = false;
+        boolean any = false;
+        while (position < limit) {
+            c = buffer.get(position);
+            if (c >= '0' && c <= '9') {
+                if (digits < 18) {
+                    mantissa = mantissa * 10 + (c - '0');
+                    if (mantissa != 0) digits++;
+                    if (fraction) exponent--;
+                } else if (!fraction) {
+                    exponent++;
+                }
+                any = true;
+            } else if (c == '.' && !fraction) {
+                fraction = true;
+            } else {
+                break;
+            }
+            position++;
+        }
+        if (!any) {
+            throw error("Expected a number");
+        }
+
+        if (position < limit && ((c = buffer.get(position)) == 'e' || c == 'E')) {
+            position++;
+            boolean negativeExponent = peek(0) == '-';
+            if (negativeExponent || peek(0) == '+') {
+                position++;
+            }
+            int value = 0;
+            while (position < limit && (c = buffer.get(position)) >= '0' && c <= '9') {
+                value = Math.min(value * 10 + (c - '0'), 1000);
+                position++;
+            }
+            exponent += negativeExponent ? -value : value;
+        }
+
+        double value = mantissa;
+        if (exponent < 0) {
+            value = -exponent < POW10.length ? value / POW10[-exponent] : value / Math.pow(10, -exponent);
+        } else if (exponent > 0) {
+            value = exponent < POW10.length ? value * POW10[exponent] : value * Math.pow(10, exponent);
+        }
+        return (float) (negative ? -value : value);
+    }
+
+    private byte peek(int offset) {
+        return position + offset < limit ? buffer.get(position + offset) : (byte) '\n';
+    }
+
+    private static boolean isSpace(byte c) {
+        return c == ' ' || c == '\t';
+    }
+
+    private static boolean isLineEnd(byte c) {
+        return c == '\n' || c == '\r' || c == '#';
+    }
+
+    private GdxRuntimeException error(String message) {
+        return new GdxRuntimeException(message + " on line " + (line + 1));
+    }
+
+    /**
+     * @return x, y and z of every vertex position in the order of the file, the vertices of the Bullet triangle mesh
+     */
+    public FloatArray getPositions() {
+        return positions;
+    }
+
+    /**
+     * @return three indices into the positions per triangle, the indices of the Bullet triangle mesh
+     */
+    public IntArray getTriangles() {
+        return triangles;
+    }
+
+    public int getTriangleCount() {
+        return triangles.size / 3;
+    }
+
+    /**
+     * @return the number of runs of triangles with the same object name and material, each becomes at least one mesh
+     */
+    public int getPartCount() {
+        return partStarts.size;
+    }
+
+    public String getPartName(int part) {
+        return partNames.get(part);
+    }
+
+    public String getPartMaterial(int part) {
+        return materialNames.get(partMaterials.get(part));
+    }
+
+    public int getPartTriangleCount(int part) {
+        int end = part + 1 < partStarts.size ? partStarts.get(part + 1) : getTriangleCount();
+        return end - partStarts.get(part);
+    }
+
+    /**
+     * @return the attributes of the packed vertices, a position, a normal if the file has any, and texture
+     * coordinates if the file has any
+     */
+    public VertexAttributes getVertexAttributes() {
+        Array<VertexAttribute> attributes = new Array<>(VertexAttribute.class);
+        attributes.add(VertexAttribute.Position());
+        if (normals.size > 0) {
+            attributes.add(VertexAttribute.Normal());
+        }
+        if (texCoords.size > 0) {
+            attributes.add(VertexAttribute.TexCoords(0));
+        }
+        return new VertexAttributes(attributes.toArray());
+    }
+
+    /**
+     * Packs the triangles of a part into an indexed render mesh, corners with the same position, texture coordinates
+     * and normal share a vertex. Stops before the mesh would go over {@link #MAX_MESH_VERTICES}, call again from the
+     * triangle it stopped at for the rest of the part.
+     * @param firstTriangle the triangle of the part to start from
+     * @param vertices cleared and filled with the interleaved vertices, laid out as {@link #getVertexAttributes()}
+     * @param indices cleared and filled with three vertex indices per triangle
+     * @return the number of triangles packed
+     */
+    public int packMesh(int part, int firstTriangle, FloatArray vertices, ShortArray indices) {
+        vertices.clear();
+        indices.clear();
+
+        int start = partStarts.get(part) + firstTriangle;
+        int end = partStarts.get(part) + getPartTriangleCount(part);
+        int maxVertices = Math.min((end - start) * 3, MAX_MESH_VERTICES);
+        int mask = prepareSlots(maxVertices);
+
+        boolean hasNormals = normals.size > 0;
+        boolean hasTexCoords = texCoords.size > 0;
+        int vertexCount = 0;
+        int triangle = start;
+        for (; triangle < end && vertexCount + 3 <= MAX_MESH_VERTICES; triangle++) {
+            for (int corner = triangle * 3; corner < triangle * 3 + 3; corner++) {
+                int v = triangles.get(corner);
+                int t = corners.get(corner * 2);
+                int n = corners.get(corner * 2 + 1);
+
+                int slot = (v * 0x9E3779B1 ^ t * 0x85EBCA6B ^ n * 0xC2B2AE35) & mask;
+                int index = -1;
+                while (vertexSlots[slot * 5 + 4] == stamp) {
+                    int s = slot * 5;
+                    if (vertexSlots[s] == v && vertexSlots[s + 1] == t && vertexSlots[s + 2] == n) {
+                        index = vertexSlots[s + 3];
+                        break;
+                    }
+                    slot = (slot + 1) & mask;
+                }
+
+                if (index < 0) {
+                    index = vertexCount++;
+                    int s = slot * 5;
+                    vertexSlots[s] = v;
+                    vertexSlots[s + 1] = t;
+                    vertexSlots[s + 2] = n;
+                    vertexSlots[s + 3] = index;
+                    vertexSlots[s + 4] = stamp;
+
+                    vertices.add(positions.get(v * 3), positions.get(v * 3 + 1), positions.get(v * 3 + 2));
+                    if (hasNormals) {
+                        if (n < 0) {
+                            vertices.add(0, 0, 0);
+                        } else {
+                            vertices.add(normals.get(n * 3), normals.get(n * 3 + 1), normals.get(n * 3 + 2));
+                        }
+                    }
+                    if (hasTexCoords) {
+                        if (t < 0) {
+                            vertices.add(0, 0);
+                        } else {
+                            vertices.add(texCoords.get(t * 2), texCoords.get(t * 2 + 1));
+                        }
+                    }
+                }
+                indices.add((short) index);
+            }
+        }
+        return triangle - start;
+    }
+
+    /**
+     * Makes room for the vertices of a mesh in the hash, and empties it by moving to a new stamp
+     * @return the mask of the slot index
+     */
+    private int prepareSlots(int vertexCount) {
+        // Kept at most half full for short probes
+        int slots = MathUtils.nextPowerOfTwo(Math.max(vertexCount * 2, 16));
+        if (vertexSlots.length < slots * 5) {
+            vertexSlots = new int[slots * 5];
+            stamp = 0;
+        }
+        if (++stamp == 0) {
+            Arrays.fill(vertexSlots, 0);
+            stamp = 1;
+        }
+        return vertexSlots.length / 5 - 1;
+    }
+
+    /**
+     * Creates a model with a node per part, split into more meshes where a part has more than
+     * {@link #MAX_MESH_VERTICES} vertices, and a material per material name the parts use, in the order of first use.
+     * The model manages its meshes and textures.
+     */
+    public Model createModel() {
+        Model model = new Model();
+        VertexAttributes attributes = getVertexAttributes();
+        int vertexSize = attributes.vertexSize / 4;
+        FloatArray vertices = new FloatArray();
+        ShortArray indices = new ShortArray();
+        Material[] materials = new Material[materialNames.size];
+
+        for (int part = 0; part < partStarts.size; part++) {
+            Material material = materials[partMaterials.get(part)];
+            if (material == null) {
+                material = createMaterial(model, materialNames.get(partMaterials.get(part)));
+                materials[partMaterials.get(part)] = material;
+                model.materials.add(material);
+            }
+
+            int triangleCount = getPartTriangleCount(part);
+            for (int triangle = 0; triangle < triangleCount; ) {
+                triangle += packMesh(part, triangle, vertices, indices);
+
+                Mesh mesh = new Mesh(true, vertices.size / vertexSize, indices.size, attributes);
+                mesh.setVertices(vertices.items, 0, vertices.size);
+                mesh.setIndices(indices.items, 0, indices.size);
+                model.meshes.add(mesh);
+                model.manageDisposable(mesh);
+
+                MeshPart meshPart = new MeshPart(partNames.get(part) + model.meshParts.size, mesh, 0, indices.size,
+                        GL20.GL_TRIANGLES);
+                model.meshParts.add(meshPart);
+
+                Node node = new Node();
+                node.id = partNames.get(part);
+                node.parts.add(new NodePart(meshPart, material));
+                model.nodes.add(node);
+            }
+        }
+
+        model.calculateTransforms();
+        return model;
+    }
+
+    private Material createMaterial(Model model, String name) {
+        Material material = new Material(name);
+        int definition = mtlNames.indexOf(name, false);
+        if (definition < 0) {
+            material.set(ColorAttribute.createDiffuse(Color.WHITE), ColorAttribute.createSpecular(Color.WHITE));
+            return material;
+        }
+
+        float[] values = mtlValues.items;
+        int offset = definition * 8;
+        material.set(ColorAttribute.createDiffuse(new Color(values[offset], values[offset + 1], values[offset + 2], 1)));
+        material.set(ColorAttribute.createSpecular(new Color(values[offset + 3], values[offset + 4], values[offset + 5], 1)));
+        if (values[offset + 6] > 0) {
+            material.set(FloatAttribute.createShininess(values[offset + 6]));
+        }
+        if (values[offset + 7] != 1) {
+            material.set(new BlendingAttribute(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA, values[offset + 7]));
+        }
+
+        String texture = mtlTextures.get(definition);
+        if (texture != null) {
+            Texture diffuse = new Texture(mtlDirectory.child(texture));
+            model.manageDisposable(diffuse);
+            material.set(TextureAttribute.createDiffuse(diffuse));
+        }
+        return material;
+    }
+}
@@ -0,0 +1,107 @@
+package com.jpcodes.physics.utils;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
+import com.badlogic.gdx.graphics.g3d.utils.MeshPartBuilder;
+import com.badlogic.gdx.graphics.g3d.utils.ModelBuilder;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.LongMap;
+
+/**
+ * Prototype models for the primitives of the demo scenes, one Model per primitive and color. ModelInstances made
+ * from the same prototype share its mesh and vertex buffer, so building a scene costs a mesh per distinct
+ * primitive and color instead of a mesh per body. A ModelInstance copies the materials of its model, changing the
+ * material of one instance does not affect the others.
+ * <p>
+ * Models are built through a {@link ModelFactory}, the default one needs a GL context. The bookkeeping does not, pass
+ * a factory that skips the mesh to use the cache headless.
+ *
+ * @author JamesTKhan
+ * @version October 17, 2026
+ */
+public class PrimitiveModelCache implements Disposable {
+
+    /**
+     * Builds the prototype model of a primitive and color
+     */
+    public interface ModelFactory {
+        Model createModel(PrimitiveShape primitive, Color color);
+    }
+
+    /**
+     * Builds the mesh of the primitive with a diffuse material of the color, same as the scenes did per body
+     */
+    public static final ModelFactory DEFAULT_FACTORY = new ModelFactory() {
+        @Override
+        public Model createModel(PrimitiveShape primitive, Color color) {
+            ModelBuilder modelBuilder = new ModelBuilder();
+            modelBuilder.begin();
+            Material material = new Material();
+            material.set(ColorAttribute.createDiffuse(color));
+            MeshPartBuilder builder = modelBuilder.part(primitive.name().toLowerCase(), GL20.GL_TRIANGLES,
+                    VertexAttributes.Usage.Position | VertexAttributes.Usage.Normal, material);
+            primitive.build(builder);
+            return modelBuilder.end();
+        }
+    };
+
+    private final ModelFactory factory;
+
+    // Keyed by the primitive ordinal in the high bits and the rgba8888 color in the low bits
+    private final LongMap<Model> models = new LongMap<>();
+    private int requestCount;
+
+    public PrimitiveModelCache() {
+        this(DEFAULT_FACTORY);
+    }
+
+    public PrimitiveModelCache(ModelFactory factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Gets the prototype model of the primitive and color, building it on first use.
+     * The model is owned by the cache, create ModelInstances from it and do not dispose it.
+     */
+    public Model get(PrimitiveShape primitive, Color color) {
+        requestCount++;
+
+        long key = ((long) primitive.ordinal() << 32) | (Color.rgba8888(color) & 0xFFFFFFFFL);
+        Model model = models.get(key);
+        if (model == null) {
+            model = factory.createModel(primitive, color);
+            models.put(key, model);
+        }
+        return model;
+    }
+
+    /**
+     * @return the number of distinct models built, one per primitive and color requested
+     */
+    public int getModelCount() {
+        return models.size;
+    }
+
+    /**
+     * @return the number of calls to {@link #get(PrimitiveShape, Color)}, the models built without the cache
+     */
+    public int getRequestCount() {
+        return requestCount;
+    }
+
+    /**
+     * Disposes every model, instances made from them must not be rendered anymore
+     */
+    @Override
+    public void dispose() {
+        for (Model model : models.values()) {
+            model.dispose();
+        }
+        models.clear();
+        requestCount = 0;
+    }
+}
@@ -0,0 +1,115 @@
+package com.jpcodes.physics.utils;
+
+import com.badlogic.gdx.graphics.g3d.utils.MeshPartBuilder;
+import com.badlogic.gdx.graphics.g3d.utils.shapebuilders.BoxShapeBuilder;
+import com.badlogic.gdx.graphics.g3d.utils.shapebuilders.ConeShapeBuilder;
+import com.badlogic.gdx.graphics.g3d.utils.shapebuilders.CylinderShapeBuilder;
+import com.badlogic.gdx.graphics.g3d.utils.shapebuilders.SphereShapeBuilder;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.physics.bullet.collision.btBoxShape;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionShape;
+import com.badlogic.gdx.physics.bullet.collision.btConeShape;
+import com.badlogic.gdx.physics.bullet.collision.btCylinderShape;
+import com.badlogic.gdx.physics.bullet.collision.btSphereShape;
+import com.jpcodes.physics.ShapeRegistry;
+
+/**
+ * The unit sized primitives used to populate the demo scenes. Keeps the render mesh and the
+ * collision shape of each primitive in one place, the collision shape can be created without
+ * a GL context.
+ *
+ * @author JamesTKhan
+ * @version October 17, 2026
+ */
+public enum PrimitiveShape {
+    BOX {
+        @Override
+        public void build(MeshPartBuilder builder) {
+            BoxShapeBuilder.build(builder, 0, 0, 0, 1f, 1f, 1f);
+        }
+
+        @Override
+        public btCollisionShape createCollisionShape() {
+            return new btBoxShape(new Vector3(0.5f, 0.5f, 0.5f));
+        }
+
+        @Override
+        public btCollisionShape obtainCollisionShape(ShapeRegistry registry) {
+            return registry.obtainBox(0.5f, 0.5f, 0.5f);
+        }
+    },
+    CONE {
+        @Override
+        public void build(MeshPartBuilder builder) {
+            ConeShapeBuilder.build(builder, 1, 1, 1, 8);
+        }
+
+        @Override
+        public btCollisionShape createCollisionShape() {
+            return new btConeShape(0.5f, 1f);
+        }
+
+        @Override
+        public btCollisionShape obtainCollisionShape(ShapeRegistry registry) {
+            return registry.obtainCone(0.5f, 1f);
+        }
+    },
+    SPHERE {
+        @Override
+        public void build(MeshPartBuilder builder) {
+            SphereShapeBuilder.build(builder, 1, 1, 1, 8, 8);
+        }
+
+        @Override
+        public btCollisionShape createCollisionShape() {
+            return new btSphereShape(0.5f);
+        }
+
+        @Override
+        public btCollisionShape obtainCollisionShape(ShapeRegistry registry) {
+            return registry.obtainSphere(0.5f);
+        }
+    },
+    CYLINDER {
+        @Override
+        public void build(MeshPartBuilder builder) {
+            CylinderShapeBuilder.build(builder, 1, 1, 1, 8);
+        }
+
+        @Override
+        public btCollisionShape createCollisionShape() {
+            return new btCylinderShape(new Vector3(0.5f, 0.5f, 0.5f));
+        }
+
+        @Override
+        public btCollisionShape obtainCollisionShape(ShapeRegistry registry) {
+            return registry.obtainCylinder(0.5f, 0.5f, 0.5f);
+        }
+    };
+
+    private static final PrimitiveShape[] VALUES = values();
+
+    /**
+     * Builds the render mesh of this primitive
+     * @param builder the mesh part builder to build into
+     */
+    public abstract void build(MeshPartBuilder builder);
+
+    /**
+     * @return a new collision shape matching the render mesh of this primitive
+     */
+    public abstract btCollisionShape createCollisionShape();
+
+    /**
+     * @return the collision shape of this primitive shared through the registry, release it to the registry when done
+     */
+    public abstract btCollisionShape obtainCollisionShape(ShapeRegistry registry);
+
+    /**
+     * @return a random primitive, using the libGDX MathUtils random generator
+     */
+    public static PrimitiveShape random() {
+        return VALUES[MathUtils.random(0, VALUES.length - 1)];
+    }
+}
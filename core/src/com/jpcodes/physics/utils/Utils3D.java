@@ -3,11 +3,13 @@ package com.jpcodes.physics.utils;
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.VertexAttribute;
 import com.badlogic.gdx.graphics.VertexAttributes;
 import com.badlogic.gdx.graphics.g3d.Material;
 import com.badlogic.gdx.graphics.g3d.Model;
 import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
-import com.badlogic.gdx.graphics.g3d.loader.ObjLoader;
+import com.badlogic.gdx.graphics.g3d.model.MeshPart;
 import com.badlogic.gdx.graphics.g3d.utils.MeshPartBuilder;
 import com.badlogic.gdx.graphics.g3d.utils.ModelBuilder;
 import com.badlogic.gdx.graphics.g3d.utils.shapebuilders.BoxShapeBuilder;
@@ -16,6 +18,10 @@ import com.badlogic.gdx.graphics.g3d.utils.shapebuilders.ConeShapeBuilder;
 import com.badlogic.gdx.graphics.g3d.utils.shapebuilders.SphereShapeBuilder;
 import com.badlogic.gdx.math.Matrix4;
 import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntIntMap;
 
 /**
  * @author JamesTKhan
@@ -46,11 +52,47 @@ public class Utils3D {
     }
 
     /**
-     * Simple load of .obj model
+     * Simple load of .obj model, see {@link ObjParser} to also get the triangles for a collision shape
      */
     public static Model loadOBJ(FileHandle fileHandle) {
-        ObjLoader loader = new ObjLoader();
-        return loader.loadModel(fileHandle);
+        return new ObjParser().parse(fileHandle).createModel();
+    }
+
+    /**
+     * Appends the positions used by the part and its triangles, indexed into the appended positions, ex. to build a
+     * triangle mesh shape from a model
+     *
+     * @param remap cleared and used to share the vertices the triangles of the part share
+     */
+    public static void gatherTriangles(MeshPart part, FloatArray vertices, IntArray indices, IntIntMap remap) {
+        if (part.primitiveType != GL20.GL_TRIANGLES) {
+            throw new GdxRuntimeException("Only triangle mesh parts have triangles, got primitive type " + part.primitiveType);
+        }
+
+        Mesh mesh = part.mesh;
+        VertexAttribute position = mesh.getVertexAttribute(VertexAttributes.Usage.Position);
+        int stride = mesh.getVertexSize() / 4;
+        int positionOffset = position.offset / 4;
+        float[] meshVertices = new float[mesh.getNumVertices() * stride];
+        mesh.getVertices(meshVertices);
+        short[] meshIndices = null;
+        if (mesh.getNumIndices() > 0) {
+            meshIndices = new short[mesh.getNumIndices()];
+            mesh.getIndices(meshIndices);
+        }
+
+        remap.clear();
+        for (int i = part.offset; i < part.offset + part.size; i++) {
+            int vertex = meshIndices != null ? meshIndices[i] & 0xFFFF : i;
+            int index = remap.get(vertex, -1);
+            if (index < 0) {
+                index = vertices.size / 3;
+                remap.put(vertex, index);
+                int start = vertex * stride + positionOffset;
+                vertices.add(meshVertices[start], meshVertices[start + 1], meshVertices[start + 2]);
+            }
+            indices.add(index);
+        }
     }
 
     public static Model buildCapsuleCharacter() {
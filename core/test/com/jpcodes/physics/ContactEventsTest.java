@@ -0,0 +1,172 @@
+package com.jpcodes.physics;
+
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.physics.bullet.collision.CollisionConstants;
+import com.badlogic.gdx.physics.bullet.collision.btBoxShape;
+import com.badlogic.gdx.physics.bullet.collision.btCompoundShape;
+import com.badlogic.gdx.physics.bullet.collision.btPersistentManifold;
+import com.badlogic.gdx.physics.bullet.dynamics.btRigidBody;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * A box slides over a floor made of two boxes in one compound shape, one manifold per floor box, and must be a
+ * single pair in contact the whole way
+ *
+ * @author JamesTKhan
+ * @version October 18, 2026
+ */
+public class ContactEventsTest {
+    private btBoxShape tileShape;
+    private btCompoundShape floorShape;
+    private btBoxShape boxShape;
+    private btRigidBody floor;
+    private btRigidBody box;
+    private BulletPhysicsSystem system;
+    private ContactEvents events;
+
+    @BeforeClass
+    public static void loadNatives() {
+        HeadlessNatives.load();
+    }
+
+    @Before
+    public void setUp() {
+        system = new BulletPhysicsSystem();
+        events = system.enableContactEvents(16);
+
+        // Two tiles side by side along x, meeting at 0
+        tileShape = new btBoxShape(new Vector3(2f, 0.5f, 2f));
+        floorShape = new btCompoundShape();
+        floorShape.addChildShape(new Matrix4().trn(-2f, -0.5f, 0), tileShape);
+        floorShape.addChildShape(new Matrix4().trn(2f, -0.5f, 0), tileShape);
+        floor = new btRigidBody(0, null, floorShape, Vector3.Zero);
+        floor.setFriction(0);
+        floor.setUserValue(1);
+        system.addBody(floor);
+
+        boxShape = new btBoxShape(new Vector3(0.25f, 0.25f, 0.25f));
+        Vector3 inertia = new Vector3();
+        boxShape.calculateLocalInertia(1f, inertia);
+        box = new btRigidBody(1f, null, boxShape, inertia);
+        box.setWorldTransform(new Matrix4().trn(-2.5f, 0.25f, 0));
+        box.setAngularFactor(Vector3.Zero);
+        box.setFriction(0);
+        box.setUserValue(2);
+        box.setActivationState(CollisionConstants.DISABLE_DEACTIVATION);
+        system.addBody(box);
+    }
+
+    @After
+    public void tearDown() {
+        system.removeBody(box);
+        system.removeBody(floor);
+        system.dispose();
+        box.dispose();
+        floor.dispose();
+        boxShape.dispose();
+        floorShape.dispose();
+        tileShape.dispose();
+    }
+
+    /**
+     * @return the contact points of all the manifolds between the floor and the box
+     */
+    private int countManifoldPoints(int[] manifolds) {
+        int points = 0;
+        manifolds[0] = 0;
+        int numManifolds = system.getDispatcher().getNumManifolds();
+        for (int i = 0; i < numManifolds; i++) {
+            btPersistentManifold manifold = system.getDispatcher().getManifoldByIndexInternal(i);
+            if (manifold.getNumContacts() > 0) {
+                points += manifold.getNumContacts();
+                manifolds[0]++;
+            }
+        }
+        return points;
+    }
+
+    @Test
+    public void compoundChildrenAreOnePair() {
+        int begins = 0;
+        int ends = 0;
+        int maxManifolds = 0;
+        int[] manifolds = new int[1];
+        for (int step = 0; step < 120; step++) {
+            // Slides from the first tile over the seam onto the second
+            if (step >= 10) {
+                Vector3 velocity = box.getLinearVelocity();
+                box.setLinearVelocity(velocity.set(2f, velocity.y, 0));
+            }
+            system.step();
+            int points = countManifoldPoints(manifolds);
+            maxManifolds = Math.max(maxManifolds, manifolds[0]);
+
+            int stepEvents = 0;
+            ContactEvent event;
+            while ((event = events.poll()) != null) {
+                stepEvents++;
+                if (event.type == ContactEvent.BEGIN) begins++;
+                if (event.type == ContactEvent.END) ends++;
+                if (event.type != ContactEvent.END) {
+                    assertEquals("Points of step " + step, points, event.pointCount);
+                }
+                assertTrue(event.getOther(box) == floor);
+                assertEquals(1, event.userValueA == 1 ? event.userValueA : event.userValueB);
+            }
+            if (points > 0) {
+                assertEquals("Events of step " + step, 1, stepEvents);
+                assertEquals(1, events.getPairCount());
+            }
+        }
+
+        float x = box.getWorldTransform().getTranslation(new Vector3()).x;
+        assertTrue("The box must slide onto the second tile, ended at " + x, x > 0.5f);
+        assertTrue("The box must touch both tiles at once on the seam", maxManifolds >= 2);
+        assertEquals(1, begins);
+        assertEquals(0, ends);
+    }
+
+    @Test
+    public void deepestPointOverAllManifolds() {
+        // Resting across the seam, the deepest point of either manifold is reported, with its normal
+        box.setWorldTransform(new Matrix4().trn(0, 0.24f, 0));
+        system.step();
+
+        ContactEvent event = events.poll();
+        assertNotNull(event);
+        assertEquals(ContactEvent.BEGIN, event.type);
+        assertTrue(event.distance < 0);
+        assertEquals(1f, Math.abs(event.normal.y), 0.001f);
+
+        float deepest = Float.MAX_VALUE;
+        int numManifolds = system.getDispatcher().getNumManifolds();
+        for (int i = 0; i < numManifolds; i++) {
+            btPersistentManifold manifold = system.getDispatcher().getManifoldByIndexInternal(i);
+            for (int j = 0; j < manifold.getNumContacts(); j++) {
+                deepest = Math.min(deepest, manifold.getContactPoint(j).getDistance());
+            }
+        }
+        assertEquals(deepest, event.distance, 0f);
+    }
+
+    @Test
+    public void removingAnObjectEndsItsPair() {
+        system.step();
+        assertEquals(ContactEvent.BEGIN, events.poll().type);
+
+        system.removeBody(box);
+        ContactEvent event = events.poll();
+        assertNotNull(event);
+        assertEquals(ContactEvent.END, event.type);
+        assertEquals(0, events.getPairCount());
+        system.addBody(box);
+    }
+}
@@ -0,0 +1,167 @@
+package com.jpcodes.physics;
+
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Quaternion;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.physics.bullet.collision.CollisionObjectWrapper;
+import com.badlogic.gdx.physics.bullet.collision.btBoxShape;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionAlgorithm;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionConfiguration;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionDispatcher;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionObject;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionShape;
+import com.badlogic.gdx.physics.bullet.collision.btDefaultCollisionConfiguration;
+import com.badlogic.gdx.physics.bullet.collision.btDispatcherInfo;
+import com.badlogic.gdx.physics.bullet.collision.btManifoldResult;
+import com.badlogic.gdx.physics.bullet.collision.btPersistentManifold;
+import com.badlogic.gdx.physics.bullet.collision.btSphereShape;
+import com.badlogic.gdx.physics.bullet.collision.ebtDispatcherQueryType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The cached algorithms of the {@link ContactQuery} must count the same contacts as looking the algorithm up on
+ * every call, the way BasicCollisionDetection did before, while objects move between queries
+ *
+ * @author JamesTKhan
+ * @version October 18, 2026
+ */
+public class ContactQueryTest {
+    private static final int QUERY_COUNT = 200;
+
+    private btCollisionConfiguration collisionConfig;
+    private btCollisionDispatcher dispatcher;
+    private btSphereShape sphereShape;
+    private btBoxShape boxShape;
+    private btCollisionObject sphere;
+    private btCollisionObject box;
+    private btCollisionObject otherBox;
+    private ContactQuery contactQuery;
+
+    @BeforeClass
+    public static void loadNatives() {
+        HeadlessNatives.load();
+    }
+
+    @Before
+    public void setUp() {
+        collisionConfig = new btDefaultCollisionConfiguration();
+        dispatcher = new btCollisionDispatcher(collisionConfig);
+        contactQuery = new ContactQuery(collisionConfig);
+
+        sphereShape = new btSphereShape(0.5f);
+        boxShape = new btBoxShape(new Vector3(0.5f, 0.5f, 0.5f));
+        sphere = createObject(sphereShape);
+        box = createObject(boxShape);
+        otherBox = createObject(boxShape);
+    }
+
+    private static btCollisionObject createObject(btCollisionShape shape) {
+        btCollisionObject object = new btCollisionObject();
+        object.setCollisionShape(shape);
+        return object;
+    }
+
+    @After
+    public void tearDown() {
+        contactQuery.dispose();
+        dispatcher.dispose();
+        collisionConfig.dispose();
+        sphere.dispose();
+        box.dispose();
+        otherBox.dispose();
+        sphereShape.dispose();
+        boxShape.dispose();
+    }
+
+    /**
+     * The per call path, everything built and freed for the one query
+     */
+    private int perCallContactCount(btCollisionObject b1, btCollisionObject b2) {
+        CollisionObjectWrapper co0 = new CollisionObjectWrapper(b1);
+        CollisionObjectWrapper co1 = new CollisionObjectWrapper(b2);
+        btCollisionAlgorithm algorithm = dispatcher.findAlgorithm(co0.wrapper, co1.wrapper, null,
+                ebtDispatcherQueryType.BT_CONTACT_POINT_ALGORITHMS);
+        btDispatcherInfo info = new btDispatcherInfo();
+        btManifoldResult result = new btManifoldResult(co0.wrapper, co1.wrapper);
+
+        algorithm.processCollision(co0.wrapper, co1.wrapper, info, result);
+        btPersistentManifold manifold = result.getPersistentManifold();
+        int count = manifold != null ? manifold.getNumContacts() : 0;
+
+        dispatcher.freeCollisionAlgorithm(algorithm.getCPointer());
+        result.dispose();
+        info.dispose();
+        co1.dispose();
+        co0.dispose();
+        return count;
+    }
+
+    /**
+     * Places the two objects close enough to touch in about half of the placements
+     */
+    private static void place(RandomXS128 random, btCollisionObject a, btCollisionObject b, Quaternion rotation) {
+        a.setWorldTransform(new Matrix4().set(new Vector3(random.nextFloat() * 0.2f, 0, 0),
+                rotation.setEulerAngles(random.nextFloat() * 90f, random.nextFloat() * 90f, 0)));
+        b.setWorldTransform(new Matrix4().set(new Vector3(0.5f + random.nextFloat() * 1.2f,
+                random.nextFloat() * 0.4f - 0.2f, random.nextFloat() * 0.4f - 0.2f),
+                rotation.setEulerAngles(0, random.nextFloat() * 90f, random.nextFloat() * 90f)));
+    }
+
+    @Test
+    public void cachedMatchesPerCall() {
+        RandomXS128 random = new RandomXS128(1234L);
+        Quaternion rotation = new Quaternion();
+        btCollisionObject[][] pairs = {
+                {sphere, box},
+                {box, otherBox},
+                // Swapped order, its own cache entry
+                {box, sphere}
+        };
+
+        int[] touching = new int[pairs.length];
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            // Interleaved, so every query runs on a manifold last used by another pair or placement
+            for (int p = 0; p < pairs.length; p++) {
+                btCollisionObject a = pairs[p][0];
+                btCollisionObject b = pairs[p][1];
+                place(random, a, b, rotation);
+
+                int expected = perCallContactCount(a, b);
+                int actual = contactQuery.contactCount(a, b);
+                assertEquals("Pair " + p + " query " + i, expected, actual);
+                assertEquals(expected > 0, contactQuery.hasContact(a, b));
+                if (expected > 0) {
+                    touching[p]++;
+                    assertEquals(expected, contactQuery.getLastManifold().getNumContacts());
+                }
+            }
+        }
+
+        // Both outcomes must show up for the comparison to mean anything
+        for (int p = 0; p < pairs.length; p++) {
+            assertTrue("Pair " + p + " touched " + touching[p] + " times",
+                    touching[p] > QUERY_COUNT / 10 && touching[p] < QUERY_COUNT - QUERY_COUNT / 10);
+        }
+    }
+
+    @Test
+    public void boxBoxWritesToItsOwnManifold() {
+        box.setWorldTransform(new Matrix4());
+        otherBox.setWorldTransform(new Matrix4().trn(0.9f, 0, 0));
+        int count = contactQuery.contactCount(box, otherBox);
+        assertEquals(perCallContactCount(box, otherBox), count);
+        assertTrue(count > 0);
+
+        // Apart, the stale contacts of the previous query must be gone
+        otherBox.setWorldTransform(new Matrix4().trn(3f, 0, 0));
+        assertEquals(0, contactQuery.contactCount(box, otherBox));
+        assertEquals(0, contactQuery.getLastManifold().getNumContacts());
+    }
+}
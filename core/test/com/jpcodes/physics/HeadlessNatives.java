@@ -0,0 +1,24 @@
+package com.jpcodes.physics;
+
+import com.badlogic.gdx.physics.bullet.Bullet;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+
+/**
+ * Loads the gdx and Bullet natives for the tests, without starting a libGDX application
+ *
+ * @author JamesTKhan
+ * @version October 18, 2026
+ */
+public final class HeadlessNatives {
+    private static boolean loaded;
+
+    private HeadlessNatives() {
+    }
+
+    public static synchronized void load() {
+        if (loaded) return;
+        GdxNativesLoader.load();
+        Bullet.init();
+        loaded = true;
+    }
+}
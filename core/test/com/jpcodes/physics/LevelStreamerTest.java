@@ -0,0 +1,162 @@
+package com.jpcodes.physics;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Streams a bumpy terrain in tiles through a {@link CollisionShapeCache}, a second run must load every tile from the
+ * cache files and collide the same
+ *
+ * @author JamesTKhan
+ * @version October 18, 2026
+ */
+public class LevelStreamerTest {
+    private static final int GRID_SIZE = 32;
+    private static final float TILE_SIZE = 8f;
+    private static final int RAY_COUNT = 64;
+
+    private final FloatArray positions = new FloatArray();
+    private final IntArray triangles = new IntArray();
+    private FileHandle directory;
+    private FileHandle source;
+
+    @BeforeClass
+    public static void loadNatives() {
+        HeadlessNatives.load();
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        // Quads of one unit from -16 to 16, split into 4 by 4 tiles
+        for (int x = 0; x <= GRID_SIZE; x++) {
+            for (int z = 0; z <= GRID_SIZE; z++) {
+                positions.add(x - GRID_SIZE / 2f, MathUtils.sin(x * 0.4f) * MathUtils.cos(z * 0.3f), z - GRID_SIZE / 2f);
+            }
+        }
+        for (int x = 0; x < GRID_SIZE; x++) {
+            for (int z = 0; z < GRID_SIZE; z++) {
+                int a = x * (GRID_SIZE + 1) + z;
+                int b = a + GRID_SIZE + 1;
+                triangles.addAll(a, a + 1, b + 1, a, b + 1, b);
+            }
+        }
+
+        File file = File.createTempFile("level", "");
+        file.delete();
+        directory = new FileHandle(file);
+        directory.mkdirs();
+        source = directory.child("level.obj");
+        source.writeString("o level\n", false);
+    }
+
+    @After
+    public void tearDown() {
+        directory.deleteDirectory();
+    }
+
+    /**
+     * Streams the whole level in with a new system and cache, casts rays down on it and disposes everything
+     * @return the hit points of the rays
+     */
+    private float[] streamAndRaycast(float tileSize) {
+        BulletPhysicsSystem system = new BulletPhysicsSystem();
+        CollisionShapeCache cache = new CollisionShapeCache(directory.child("cache"));
+        LevelStreamer streamer = new LevelStreamer(system, positions, triangles, tileSize);
+        try {
+            streamer.setShapeCache(cache, source);
+            streamer.setRadius(GRID_SIZE, GRID_SIZE);
+            streamer.update(Vector3.Zero);
+            streamer.finishLoading();
+            streamer.update(Vector3.Zero);
+            assertEquals(streamer.getTileCount(), streamer.getLoadedTileCount());
+
+            float[] origins = new float[RAY_COUNT * 3];
+            float[] ends = new float[RAY_COUNT * 3];
+            for (int i = 0; i < RAY_COUNT; i++) {
+                float x = (i % 8) * 3.9f - 15.5f;
+                float z = (i / 8) * 3.9f - 15.5f;
+                origins[i * 3] = ends[i * 3] = x;
+                origins[i * 3 + 2] = ends[i * 3 + 2] = z;
+                origins[i * 3 + 1] = 5f;
+                ends[i * 3 + 1] = -5f;
+            }
+            RaycastResults results = new RaycastResults(RAY_COUNT);
+            assertEquals(RAY_COUNT, system.raycast(origins, ends, RAY_COUNT, results));
+            return results.hitPoints.clone();
+        } finally {
+            // Unloading releases the tile shapes back to the cache
+            streamer.dispose();
+            system.dispose();
+            cache.dispose();
+        }
+    }
+
+    @Test
+    public void secondRunLoadsTilesFromCache() {
+        float[] built = streamAndRaycast(TILE_SIZE);
+        FileHandle[] files = directory.child("cache").list(".bvh");
+        assertEquals(16, files.length);
+        long[] modified = new long[files.length];
+        for (int i = 0; i < files.length; i++) {
+            modified[i] = files[i].lastModified();
+        }
+
+        float[] cached = streamAndRaycast(TILE_SIZE);
+        assertArrayEquals(built, cached, 0f);
+        files = directory.child("cache").list(".bvh");
+        assertEquals(16, files.length);
+        for (int i = 0; i < files.length; i++) {
+            assertEquals("Rewrote " + files[i].name(), modified[i], files[i].lastModified());
+        }
+    }
+
+    @Test
+    public void tileSizeAndSourceAreInTheKey() {
+        streamAndRaycast(TILE_SIZE);
+        streamAndRaycast(TILE_SIZE * 2);
+        assertEquals(16 + 4, directory.child("cache").list(".bvh").length);
+
+        source.writeString("o other level\n", false);
+        streamAndRaycast(TILE_SIZE * 2);
+        assertEquals(16 + 4 + 4, directory.child("cache").list(".bvh").length);
+    }
+
+    @Test
+    public void cacheReleasesShapesOfUnloadedTiles() {
+        BulletPhysicsSystem system = new BulletPhysicsSystem();
+        CollisionShapeCache cache = new CollisionShapeCache(directory.child("cache"));
+        LevelStreamer streamer = new LevelStreamer(system, positions, triangles, TILE_SIZE);
+        try {
+            streamer.setShapeCache(cache, source);
+            streamer.setRadius(1f, 1f);
+            streamer.update(new Vector3(-12f, 0, -12f));
+            streamer.finishLoading();
+            streamer.update(new Vector3(-12f, 0, -12f));
+            assertEquals(1, streamer.getLoadedTileCount());
+
+            // Far from the first tile, it goes and its shape with it, the new one comes from a build
+            streamer.update(new Vector3(12f, 0, 12f));
+            streamer.finishLoading();
+            streamer.update(new Vector3(12f, 0, 12f));
+            assertEquals(1, streamer.getLoadedTileCount());
+            assertEquals(2, directory.child("cache").list(".bvh").length);
+        } finally {
+            streamer.dispose();
+            system.dispose();
+            cache.dispose();
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.jpcodes.physics;
+
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.physics.bullet.collision.ClosestConvexResultCallback;
+import com.badlogic.gdx.physics.bullet.collision.ClosestRayResultCallback;
+import com.badlogic.gdx.physics.bullet.collision.btBoxShape;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionShape;
+import com.badlogic.gdx.physics.bullet.collision.btSphereShape;
+import com.badlogic.gdx.physics.bullet.dynamics.btRigidBody;
+import com.badlogic.gdx.utils.Array;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Casts rays and sweeps down on a field of boxes and spheres through the parallel {@link QueryPhase}, every query
+ * must hit what btCollisionWorld.rayTest and convexSweepTest hit one at a time
+ *
+ * @author JamesTKhan
+ * @version October 18, 2026
+ */
+public class QueryPhaseTest {
+    private static final int SIDE = 16;
+    private static final int QUERY_COUNT = 128;
+
+    private BulletPhysicsSystem system;
+    private btBoxShape boxShape;
+    private btSphereShape sphereShape;
+    private btSphereShape sweepShape;
+    private final Array<btRigidBody> bodies = new Array<>();
+    private QueryPhase queryPhase;
+
+    @BeforeClass
+    public static void loadNatives() {
+        HeadlessNatives.load();
+    }
+
+    @Before
+    public void setUp() {
+        system = new BulletPhysicsSystem();
+        boxShape = new btBoxShape(new Vector3(0.5f, 0.5f, 0.5f));
+        sphereShape = new btSphereShape(0.5f);
+        sweepShape = new btSphereShape(0.3f);
+
+        RandomXS128 random = new RandomXS128(1234L);
+        for (int x = 0; x < SIDE; x++) {
+            for (int z = 0; z < SIDE; z++) {
+                btCollisionShape shape = random.nextBoolean() ? boxShape : sphereShape;
+                btRigidBody body = new btRigidBody(0, null, shape, Vector3.Zero);
+                body.setWorldTransform(new Matrix4().trn(x * 1.5f - SIDE * 0.75f, random.nextFloat() * 3f,
+                        z * 1.5f - SIDE * 0.75f).rotate(Vector3.Y, random.nextFloat() * 90f));
+                system.addBody(body);
+                bodies.add(body);
+            }
+        }
+
+        // More than one worker, so the batch is split over the pool
+        queryPhase = new QueryPhase(2);
+    }
+
+    @After
+    public void tearDown() {
+        queryPhase.dispose();
+        for (btRigidBody body : bodies) {
+            system.removeBody(body);
+            body.dispose();
+        }
+        system.dispose();
+        boxShape.dispose();
+        sphereShape.dispose();
+        sweepShape.dispose();
+    }
+
+    @Test
+    public void raysHitLikeRayTest() {
+        RandomXS128 random = new RandomXS128(42L);
+        QueryBatch batch = new QueryBatch();
+        Vector3[] from = new Vector3[QUERY_COUNT];
+        Vector3[] to = new Vector3[QUERY_COUNT];
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            float x = random.nextFloat() * SIDE * 1.6f - SIDE * 0.8f;
+            float z = random.nextFloat() * SIDE * 1.6f - SIDE * 0.8f;
+            // Slanted so some rays cross several objects before the closest hit
+            from[i] = new Vector3(x, 10f, z);
+            to[i] = new Vector3(x + random.nextFloat() * 4f - 2f, -2f, z + random.nextFloat() * 4f - 2f);
+            batch.addRay(from[i], to[i]);
+        }
+        queryPhase.run(system.getCollisionWorld(), batch);
+
+        ClosestRayResultCallback callback = new ClosestRayResultCallback(Vector3.Zero, Vector3.Z);
+        Vector3 expected = new Vector3();
+        Vector3 actual = new Vector3();
+        int hits = 0;
+        try {
+            for (int i = 0; i < QUERY_COUNT; i++) {
+                callback.setClosestHitFraction(1f);
+                callback.setCollisionObject(null);
+                callback.setRayFromWorld(from[i]);
+                callback.setRayToWorld(to[i]);
+                system.getCollisionWorld().rayTest(from[i], to[i], callback);
+
+                assertEquals("Ray " + i, callback.hasHit(), batch.hasHit(i));
+                if (!callback.hasHit()) continue;
+                hits++;
+                assertSame("Ray " + i, callback.getCollisionObject(), batch.getHitObject(i));
+                assertEquals("Ray " + i, callback.getClosestHitFraction(), batch.getHitFraction(i), 0f);
+                callback.getHitPointWorld(expected);
+                assertTrue("Ray " + i, expected.epsilonEquals(batch.getHitPoint(i, actual), 0f));
+            }
+        } finally {
+            callback.dispose();
+        }
+        assertTrue("Too few rays hit to compare, " + hits, hits > QUERY_COUNT / 4);
+    }
+
+    @Test
+    public void sweepsHitLikeConvexSweepTest() {
+        RandomXS128 random = new RandomXS128(42L);
+        QueryBatch batch = new QueryBatch();
+        Matrix4[] from = new Matrix4[QUERY_COUNT];
+        Matrix4[] to = new Matrix4[QUERY_COUNT];
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            float x = random.nextFloat() * SIDE * 1.6f - SIDE * 0.8f;
+            float z = random.nextFloat() * SIDE * 1.6f - SIDE * 0.8f;
+            from[i] = new Matrix4().trn(x, 10f, z);
+            to[i] = new Matrix4().trn(x + random.nextFloat() * 4f - 2f, -2f, z + random.nextFloat() * 4f - 2f);
+            batch.addSweep(sweepShape, from[i], to[i]);
+        }
+        queryPhase.run(system.getCollisionWorld(), batch);
+
+        ClosestConvexResultCallback callback = new ClosestConvexResultCallback(Vector3.Zero, Vector3.Z);
+        Vector3 expected = new Vector3();
+        Vector3 actual = new Vector3();
+        int hits = 0;
+        try {
+            for (int i = 0; i < QUERY_COUNT; i++) {
+                callback.setClosestHitFraction(1f);
+                callback.setHitCollisionObject(null);
+                system.getCollisionWorld().convexSweepTest(sweepShape, from[i], to[i], callback, 0f);
+
+                assertEquals("Sweep " + i, callback.hasHit(), batch.hasHit(i));
+                if (!callback.hasHit()) continue;
+                hits++;
+                assertSame("Sweep " + i, callback.getHitCollisionObject(), batch.getHitObject(i));
+                assertEquals("Sweep " + i, callback.getClosestHitFraction(), batch.getHitFraction(i), 0f);
+                callback.getHitPointWorld(expected);
+                assertTrue("Sweep " + i, expected.epsilonEquals(batch.getHitPoint(i, actual), 0f));
+            }
+        } finally {
+            callback.dispose();
+        }
+        assertTrue("Too few sweeps hit to compare, " + hits, hits > QUERY_COUNT / 4);
+    }
+}
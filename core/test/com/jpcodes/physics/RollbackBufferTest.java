@@ -0,0 +1,221 @@
+package com.jpcodes.physics;
+
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Quaternion;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.physics.bullet.collision.btBoxShape;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionObject;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionShape;
+import com.badlogic.gdx.physics.bullet.collision.btGhostObject;
+import com.badlogic.gdx.physics.bullet.collision.btSphereShape;
+import com.badlogic.gdx.physics.bullet.dynamics.btRigidBody;
+import com.badlogic.gdx.utils.Array;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Rewinds and re-simulates a world of falling bodies, the states must come out the same bit for bit
+ *
+ * @author JamesTKhan
+ * @version October 18, 2026
+ */
+public class RollbackBufferTest {
+    private static final int BODY_COUNT = 40;
+    private static final int FRAMES = 120;
+    private static final int STEPS = 90;
+    private static final int REWIND_STEP = 30;
+
+    private btCollisionShape box;
+    private btCollisionShape sphere;
+    private btCollisionShape floorShape;
+    private BulletPhysicsSystem system;
+    private final Array<btRigidBody> bodies = new Array<>();
+    private final Array<btCollisionObject> objects = new Array<>();
+
+    // Pushes the first body around on some steps, the inputs of a player
+    private final RollbackBuffer.Inputs pushes = new RollbackBuffer.Inputs() {
+        @Override
+        public void apply(int step) {
+            if (step % 7 == 0) {
+                bodies.get(1).activate();
+                bodies.get(1).applyCentralImpulse(new Vector3(step % 2 == 0 ? 2f : -2f, 3f, 1f));
+            }
+        }
+    };
+
+    @BeforeClass
+    public static void loadNatives() {
+        HeadlessNatives.load();
+    }
+
+    @Before
+    public void setUp() {
+        box = new btBoxShape(new Vector3(0.5f, 0.5f, 0.5f));
+        sphere = new btSphereShape(0.5f);
+        floorShape = new btBoxShape(new Vector3(20f, 0.5f, 20f));
+        system = new BulletPhysicsSystem();
+
+        btRigidBody floor = new btRigidBody(0, null, floorShape, Vector3.Zero);
+        floor.setWorldTransform(new Matrix4().trn(0, -0.5f, 0));
+        floor.setUserValue(0);
+        system.addBody(floor);
+        bodies.add(floor);
+
+        // Close enough to pile up and collide with each other
+        RandomXS128 random = new RandomXS128(7);
+        Quaternion rotation = new Quaternion();
+        Vector3 inertia = new Vector3();
+        for (int i = 0; i < BODY_COUNT; i++) {
+            btCollisionShape shape = i % 2 == 0 ? box : sphere;
+            shape.calculateLocalInertia(1f, inertia);
+            btRigidBody body = new btRigidBody(1f, null, shape, inertia);
+            rotation.setEulerAngles(random.nextFloat() * 360f, random.nextFloat() * 360f, 0);
+            body.setWorldTransform(new Matrix4().set(new Vector3(random.nextFloat() * 4f - 2f, 1f + i * 0.6f,
+                    random.nextFloat() * 4f - 2f), rotation));
+            body.setUserValue(i + 1);
+            system.addBody(body);
+            bodies.add(body);
+        }
+    }
+
+    @After
+    public void tearDown() {
+        for (btRigidBody body : bodies) {
+            system.removeBody(body);
+            body.dispose();
+        }
+        for (btCollisionObject object : objects) {
+            system.removeCollisionObject(object);
+            object.dispose();
+        }
+        bodies.clear();
+        objects.clear();
+        system.dispose();
+        box.dispose();
+        sphere.dispose();
+        floorShape.dispose();
+    }
+
+    /**
+     * A static obstacle and a sensor ghost, plain collision objects next to the rigid bodies
+     */
+    private void addCollisionObjects() {
+        btCollisionObject obstacle = new btCollisionObject();
+        obstacle.setCollisionShape(box);
+        obstacle.setWorldTransform(new Matrix4().trn(0.5f, 0.5f, 0.5f));
+        obstacle.setCollisionFlags(obstacle.getCollisionFlags() | btCollisionObject.CollisionFlags.CF_STATIC_OBJECT);
+        system.addCollisionObject(obstacle);
+        objects.add(obstacle);
+
+        btGhostObject sensor = new btGhostObject();
+        sensor.setCollisionShape(sphere);
+        sensor.setWorldTransform(new Matrix4().trn(-1f, 2f, 0f));
+        sensor.setCollisionFlags(sensor.getCollisionFlags() | btCollisionObject.CollisionFlags.CF_NO_CONTACT_RESPONSE);
+        system.addCollisionObject(sensor, CollisionLayers.SENSOR);
+        objects.add(sensor);
+    }
+
+    /**
+     * @return the raw bits of the transform, linear and angular velocity of every body
+     */
+    private int[] captureState() {
+        Matrix4 transform = new Matrix4();
+        int[] state = new int[bodies.size * 22];
+        int index = 0;
+        for (btRigidBody body : bodies) {
+            body.getWorldTransform(transform);
+            for (float value : transform.val) {
+                state[index++] = Float.floatToRawIntBits(value);
+            }
+            Vector3 linearVelocity = body.getLinearVelocity();
+            state[index++] = Float.floatToRawIntBits(linearVelocity.x);
+            state[index++] = Float.floatToRawIntBits(linearVelocity.y);
+            state[index++] = Float.floatToRawIntBits(linearVelocity.z);
+            Vector3 angularVelocity = body.getAngularVelocity();
+            state[index++] = Float.floatToRawIntBits(angularVelocity.x);
+            state[index++] = Float.floatToRawIntBits(angularVelocity.y);
+            state[index++] = Float.floatToRawIntBits(angularVelocity.z);
+        }
+        return state;
+    }
+
+    private void step(int steps, RollbackBuffer.Inputs inputs) {
+        for (int i = 0; i < steps; i++) {
+            if (inputs != null) {
+                inputs.apply(system.getStepCount() + 1);
+            }
+            system.step();
+        }
+    }
+
+    @Test
+    public void rewindRestoresRecordedState() {
+        RollbackBuffer rollback = system.enableRollback(FRAMES, BODY_COUNT + 1);
+        step(REWIND_STEP, pushes);
+        int[] recorded = captureState();
+        step(STEPS - REWIND_STEP, pushes);
+        assertFalse(Arrays.equals(recorded, captureState()));
+
+        rollback.rewind(REWIND_STEP);
+        assertEquals(REWIND_STEP, system.getStepCount());
+        assertEquals(REWIND_STEP, rollback.getNewestStep());
+        assertArrayEquals(recorded, captureState());
+    }
+
+    @Test
+    public void resimulationIsBitExact() {
+        assertResimulationIsBitExact();
+    }
+
+    @Test
+    public void resimulationWithCollisionObjectsIsBitExact() {
+        addCollisionObjects();
+        assertResimulationIsBitExact();
+    }
+
+    private void assertResimulationIsBitExact() {
+        RollbackBuffer rollback = system.enableRollback(FRAMES, BODY_COUNT + 1);
+        step(STEPS, pushes);
+
+        // The first run after a rewind is the reference, the contact caches of the original run are not recorded
+        rollback.resimulate(REWIND_STEP, pushes);
+        assertEquals(STEPS, system.getStepCount());
+        int[] reference = captureState();
+
+        for (int run = 0; run < 3; run++) {
+            rollback.resimulate(REWIND_STEP, pushes);
+            assertEquals(STEPS, rollback.getNewestStep());
+            assertArrayEquals("Re-simulation " + run, reference, captureState());
+        }
+
+        // Any other step in the buffer replays the same way, against its own first re-simulation
+        rollback.resimulate(REWIND_STEP + 20, pushes);
+        int[] laterReference = captureState();
+        rollback.resimulate(REWIND_STEP + 20, pushes);
+        assertArrayEquals(laterReference, captureState());
+    }
+
+    @Test
+    public void correctedInputsChangeTheOutcome() {
+        RollbackBuffer rollback = system.enableRollback(FRAMES, BODY_COUNT + 1);
+        step(STEPS, pushes);
+        rollback.resimulate(REWIND_STEP, pushes);
+        int[] pushed = captureState();
+
+        rollback.resimulate(REWIND_STEP, null);
+        int[] unpushed = captureState();
+        assertFalse(Arrays.equals(pushed, unpushed));
+
+        rollback.resimulate(REWIND_STEP, null);
+        assertArrayEquals(unpushed, captureState());
+    }
+}
@@ -0,0 +1,201 @@
+package com.jpcodes.physics;
+
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Quaternion;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.physics.bullet.collision.btBoxShape;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionShape;
+import com.badlogic.gdx.physics.bullet.collision.btSphereShape;
+import com.badlogic.gdx.physics.bullet.dynamics.btRigidBody;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Steps a {@link ShardedPhysicsSystem} next to a single {@link BulletPhysicsSystem} holding the same bodies
+ *
+ * @author JamesTKhan
+ * @version October 18, 2026
+ */
+public class ShardedPhysicsSystemTest {
+    private static final int SHARD_COUNT = 4;
+    // Strips of 20 units
+    private static final float MIN_X = -40f;
+    private static final float MAX_X = 40f;
+    private static final float GHOST_MARGIN = 3f;
+
+    private btCollisionShape box;
+    private btCollisionShape sphere;
+    private btCollisionShape floorShape;
+    private ShardedPhysicsSystem shardedSystem;
+    private BulletPhysicsSystem singleSystem;
+    private final Array<btRigidBody> shardedBodies = new Array<>();
+    private final Array<btRigidBody> singleBodies = new Array<>();
+    private final Array<btRigidBody> floors = new Array<>();
+
+    @BeforeClass
+    public static void loadNatives() {
+        HeadlessNatives.load();
+    }
+
+    @Before
+    public void setUp() {
+        box = new btBoxShape(new Vector3(0.5f, 0.5f, 0.5f));
+        sphere = new btSphereShape(0.5f);
+        floorShape = new btBoxShape(new Vector3(60f, 0.5f, 60f));
+
+        shardedSystem = new ShardedPhysicsSystem(SHARD_COUNT, MIN_X, MAX_X, GHOST_MARGIN);
+        singleSystem = new BulletPhysicsSystem();
+
+        shardedSystem.addStaticBody(createFloor());
+        singleSystem.addBody(createFloor());
+    }
+
+    @After
+    public void tearDown() {
+        shardedSystem.dispose();
+        for (btRigidBody body : singleBodies) {
+            singleSystem.removeBody(body);
+        }
+        for (btRigidBody floor : floors) {
+            singleSystem.removeBody(floor);
+        }
+        singleSystem.dispose();
+
+        for (btRigidBody body : shardedBodies) {
+            body.dispose();
+        }
+        for (btRigidBody body : singleBodies) {
+            body.dispose();
+        }
+        for (btRigidBody floor : floors) {
+            floor.dispose();
+        }
+        shardedBodies.clear();
+        singleBodies.clear();
+        floors.clear();
+        box.dispose();
+        sphere.dispose();
+        floorShape.dispose();
+    }
+
+    private btRigidBody createFloor() {
+        btRigidBody floor = new btRigidBody(0, null, floorShape, Vector3.Zero);
+        floor.setWorldTransform(new Matrix4().trn(0, -0.5f, 0));
+        floors.add(floor);
+        return floor;
+    }
+
+    private btRigidBody createBody(btCollisionShape shape, Matrix4 transform) {
+        Vector3 inertia = new Vector3();
+        shape.calculateLocalInertia(1f, inertia);
+        btRigidBody body = new btRigidBody(1f, null, shape, inertia);
+        body.setWorldTransform(transform);
+        return body;
+    }
+
+    /**
+     * Adds the same body to both systems
+     */
+    private void addBody(btCollisionShape shape, Matrix4 transform, Vector3 linearVelocity, Vector3 angularFactor) {
+        btRigidBody shardedBody = createBody(shape, transform);
+        btRigidBody singleBody = createBody(shape, transform);
+        shardedBody.setLinearVelocity(linearVelocity);
+        singleBody.setLinearVelocity(linearVelocity);
+        shardedBody.setAngularFactor(angularFactor);
+        singleBody.setAngularFactor(angularFactor);
+
+        shardedSystem.addBody(shardedBody);
+        singleSystem.addBody(singleBody);
+        shardedBodies.add(shardedBody);
+        singleBodies.add(singleBody);
+    }
+
+    private void step(int steps) {
+        for (int i = 0; i < steps; i++) {
+            shardedSystem.step();
+            singleSystem.step();
+        }
+    }
+
+    /**
+     * Bodies away from the borders never meet a ghost, each strip must simulate them exactly like the single world
+     */
+    @Test
+    public void bodiesWithinStripsMatchSingleWorldBitForBit() {
+        RandomXS128 random = new RandomXS128(42);
+        Quaternion rotation = new Quaternion();
+        Matrix4 transform = new Matrix4();
+        for (int shard = 0; shard < SHARD_COUNT; shard++) {
+            float center = MIN_X + (shard + 0.5f) * (MAX_X - MIN_X) / SHARD_COUNT;
+            for (int column = -1; column <= 1; column++) {
+                for (int row = -2; row <= 2; row++) {
+                    rotation.setEulerAngles(random.nextFloat() * 360f, random.nextFloat() * 360f, 0);
+                    transform.set(new Vector3(center + column * 4f, 3f + random.nextFloat() * 5f, row * 4f), rotation);
+                    addBody(random.nextBoolean() ? box : sphere, transform, Vector3.Zero, new Vector3(1, 1, 1));
+                }
+            }
+        }
+
+        step(300);
+
+        Matrix4 sharded = new Matrix4();
+        Matrix4 single = new Matrix4();
+        for (int i = 0; i < shardedBodies.size; i++) {
+            assertEquals("Body " + i + " left its strip", shardedSystem.shardOf(singleBodies.get(i)
+                    .getWorldTransform().getTranslation(new Vector3()).x), shardedSystem.getShardOf(shardedBodies.get(i)));
+
+            shardedBodies.get(i).getWorldTransform(sharded);
+            singleBodies.get(i).getWorldTransform(single);
+            for (int j = 0; j < 16; j++) {
+                assertEquals("Body " + i + " transform value " + j, Float.floatToRawIntBits(single.val[j]),
+                        Float.floatToRawIntBits(sharded.val[j]));
+            }
+        }
+    }
+
+    /**
+     * A body sliding over a border migrates to the next strip, losing its contact cache on the way, so it only
+     * ends close to the single world
+     */
+    @Test
+    public void bodyCrossingBorderMigrates() {
+        addBody(box, new Matrix4().trn(-26f, 0.5f, 0f), new Vector3(12f, 0, 0), Vector3.Zero);
+        btRigidBody shardedBody = shardedBodies.first();
+        assertEquals(0, shardedSystem.getShardOf(shardedBody));
+
+        step(180);
+
+        Vector3 sharded = shardedBody.getWorldTransform().getTranslation(new Vector3());
+        Vector3 single = singleBodies.first().getWorldTransform().getTranslation(new Vector3());
+        assertTrue("The box must slide past the border, ended at " + single.x, single.x > -19f);
+        assertEquals(1, shardedSystem.getShardOf(shardedBody));
+        assertEquals(single.x, sharded.x, 0.05f);
+        assertEquals(single.y, sharded.y, 0.01f);
+        assertEquals(single.z, sharded.z, 0.01f);
+    }
+
+    @Test
+    public void rejectsBodiesWithMotionState() {
+        MotionState motionState = new MotionState(new Matrix4());
+        btRigidBody body = createBody(box, new Matrix4());
+        body.setMotionState(motionState);
+        try {
+            shardedSystem.addBody(body);
+            fail("A body with a motion state was added");
+        } catch (GdxRuntimeException expected) {
+            // Bullet would call the motion state back from the stepping threads
+        } finally {
+            body.dispose();
+            motionState.dispose();
+        }
+    }
+}
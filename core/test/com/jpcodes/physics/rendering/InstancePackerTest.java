@@ -0,0 +1,136 @@
+package com.jpcodes.physics.rendering;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.graphics.g3d.ModelInstance;
+import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
+import com.badlogic.gdx.graphics.g3d.model.MeshPart;
+import com.badlogic.gdx.graphics.g3d.model.Node;
+import com.badlogic.gdx.graphics.g3d.model.NodePart;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Quaternion;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Checks the per instance layout of the {@link InstancePacker} on models without meshes, no GL context needed
+ *
+ * @author JamesTKhan
+ * @version October 18, 2026
+ */
+public class InstancePackerTest {
+
+    /**
+     * @return a model of a single node offset from the model origin, with one part of the material
+     */
+    private static Model createModel(Material material) {
+        Node node = new Node();
+        node.id = "node";
+        node.translation.set(0, 2f, 0);
+        node.rotation.set(Vector3.Y, 90f);
+        node.parts.add(new NodePart(new MeshPart(), material));
+
+        Model model = new Model();
+        model.nodes.add(node);
+        model.materials.add(material);
+        return model;
+    }
+
+    /**
+     * @return the packed floats of one instance
+     */
+    private static float[] instanceData(InstancePacker packer, int instance) {
+        float[] floats = new float[InstancePacker.FLOATS_PER_INSTANCE];
+        System.arraycopy(packer.getData(), instance * InstancePacker.FLOATS_PER_INSTANCE, floats, 0, floats.length);
+        return floats;
+    }
+
+    private static float[] expected(Matrix4 transform, Color color) {
+        float[] floats = new float[InstancePacker.FLOATS_PER_INSTANCE];
+        System.arraycopy(transform.val, 0, floats, 0, InstancePacker.MATRIX_FLOATS);
+        floats[InstancePacker.MATRIX_FLOATS] = color.r;
+        floats[InstancePacker.MATRIX_FLOATS + 1] = color.g;
+        floats[InstancePacker.MATRIX_FLOATS + 2] = color.b;
+        floats[InstancePacker.MATRIX_FLOATS + 3] = color.a;
+        return floats;
+    }
+
+    @Test
+    public void matrixColumnMajorThenColor() {
+        InstancePacker packer = new InstancePacker();
+        Matrix4 transform = new Matrix4().set(new Vector3(1f, 2f, 3f), new Quaternion(Vector3.X, 30f));
+        Color color = new Color(0.1f, 0.2f, 0.3f, 0.4f);
+        packer.add(transform, color);
+
+        assertEquals(1, packer.getInstanceCount());
+        assertEquals(InstancePacker.FLOATS_PER_INSTANCE, packer.getFloatCount());
+        float[] data = instanceData(packer, 0);
+        // Matrix4.val is column major, the translation is in the last column
+        assertEquals(1f, data[12], 0f);
+        assertEquals(2f, data[13], 0f);
+        assertEquals(3f, data[14], 0f);
+        assertArrayEquals(expected(transform, color), data, 0f);
+    }
+
+    @Test
+    public void instanceTransformTimesNodeTransform() {
+        Color color = new Color(0.5f, 0.25f, 1f, 1f);
+        Model model = createModel(new Material(ColorAttribute.createDiffuse(color)));
+        ModelInstance instance = new ModelInstance(model);
+        instance.transform.set(new Vector3(-4f, 0, 6f), new Quaternion(Vector3.Z, 45f));
+
+        InstancePacker packer = new InstancePacker();
+        packer.add(instance);
+
+        Matrix4 world = new Matrix4(instance.transform).mul(instance.nodes.get(0).globalTransform);
+        // The node offset goes through the rotation of the instance, so both matrices count
+        assertEquals(-4f - 2f * (float) Math.sin(Math.PI / 4), world.val[12], 0.0001f);
+        assertArrayEquals(expected(world, color), instanceData(packer, 0), 0f);
+    }
+
+    @Test
+    public void whiteWithoutDiffuse() {
+        ModelInstance instance = new ModelInstance(createModel(new Material()));
+
+        InstancePacker packer = new InstancePacker();
+        packer.add(instance);
+
+        float[] data = instanceData(packer, 0);
+        assertEquals(1f, data[InstancePacker.MATRIX_FLOATS], 0f);
+        assertEquals(1f, data[InstancePacker.MATRIX_FLOATS + 1], 0f);
+        assertEquals(1f, data[InstancePacker.MATRIX_FLOATS + 2], 0f);
+        assertEquals(1f, data[InstancePacker.MATRIX_FLOATS + 3], 0f);
+    }
+
+    @Test
+    public void growingKeepsPackedInstances() {
+        InstancePacker packer = new InstancePacker(2);
+        Matrix4 transform = new Matrix4();
+        Color color = new Color();
+        for (int i = 0; i < 9; i++) {
+            packer.add(transform.setToTranslation(i, 0, 0), color.set(i / 10f, 0, 0, 1f));
+        }
+
+        assertEquals(9, packer.getInstanceCount());
+        assertEquals(9 * InstancePacker.FLOATS_PER_INSTANCE, packer.getFloatCount());
+        for (int i = 0; i < 9; i++) {
+            assertArrayEquals("Instance " + i, expected(transform.setToTranslation(i, 0, 0),
+                    color.set(i / 10f, 0, 0, 1f)), instanceData(packer, i), 0f);
+        }
+
+        // Packing a list starts over on the same storage
+        Model model = createModel(new Material(ColorAttribute.createDiffuse(Color.RED)));
+        Array<ModelInstance> instances = new Array<>();
+        instances.add(new ModelInstance(model));
+        float[] data = packer.getData();
+        assertEquals(InstancePacker.FLOATS_PER_INSTANCE, packer.pack(instances));
+        assertEquals(1, packer.getInstanceCount());
+        assertSame(data, packer.getData());
+    }
+}
@@ -0,0 +1,302 @@
+package com.jpcodes.physics.utils;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.g3d.loader.ObjLoader;
+import com.badlogic.gdx.graphics.g3d.model.data.ModelData;
+import com.badlogic.gdx.graphics.g3d.model.data.ModelMesh;
+import com.badlogic.gdx.graphics.g3d.model.data.ModelNode;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.ShortArray;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks the {@link ObjParser} against the libGDX ObjLoader and on the parts of the format scene.obj does not use
+ *
+ * @author JamesTKhan
+ * @version October 18, 2026
+ */
+public class ObjParserTest {
+    private final ObjParser parser = new ObjParser();
+    private final FloatArray vertices = new FloatArray();
+    private final ShortArray indices = new ShortArray();
+
+    private ObjParser parse(String obj) {
+        return parser.parse(ByteBuffer.wrap(obj.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * @return the vertices of every triangle corner of every part in order, unpacked from the indexed meshes
+     */
+    private FloatArray unpackCorners() {
+        int vertexSize = parser.getVertexAttributes().vertexSize / 4;
+        FloatArray corners = new FloatArray();
+        for (int part = 0; part < parser.getPartCount(); part++) {
+            int triangleCount = parser.getPartTriangleCount(part);
+            for (int triangle = 0; triangle < triangleCount; ) {
+                triangle += parser.packMesh(part, triangle, vertices, indices);
+                for (int i = 0; i < indices.size; i++) {
+                    int vertex = (indices.get(i) & 0xFFFF) * vertexSize;
+                    corners.addAll(vertices, vertex, vertexSize);
+                }
+            }
+        }
+        return corners;
+    }
+
+    /**
+     * Compares the parts, materials, triangles and every corner of the render meshes with the ObjLoader, bit for bit
+     */
+    private void assertMatchesObjLoader(FileHandle file) {
+        ModelData data = new ObjLoader().loadModelData(file, new ObjLoader.ObjLoaderParameters());
+        parser.parse(file);
+
+        // The loader has a node and mesh per group, with a vertex per triangle corner
+        assertEquals(data.nodes.size, parser.getPartCount());
+        FloatArray loaderCorners = new FloatArray();
+        int loaderTriangles = 0;
+        int vertexSize = 0;
+        for (ModelMesh mesh : data.meshes) {
+            vertexSize = 0;
+            for (VertexAttribute attribute : mesh.attributes) {
+                vertexSize += attribute.numComponents;
+            }
+            loaderCorners.addAll(mesh.vertices);
+            loaderTriangles += mesh.vertices.length / vertexSize / 3;
+        }
+        assertEquals(loaderTriangles, parser.getTriangleCount());
+        assertEquals(vertexSize, parser.getVertexAttributes().vertexSize / 4);
+
+        for (int part = 0; part < parser.getPartCount(); part++) {
+            ModelNode node = data.nodes.get(part);
+            assertEquals("Material of part " + part, node.parts[0].materialId, parser.getPartMaterial(part));
+            int nodeTriangles = 0;
+            for (ModelMesh mesh : data.meshes) {
+                if (mesh.id.equals(node.meshId)) {
+                    nodeTriangles = mesh.vertices.length / vertexSize / 3;
+                }
+            }
+            assertEquals("Triangles of part " + part, nodeTriangles, parser.getPartTriangleCount(part));
+        }
+
+        // Positions, normals and texture coordinates of every corner in order
+        assertArrayEquals(loaderCorners.toArray(), unpackCorners().toArray(), 0f);
+
+        // The collision triangles index the positions of the file directly
+        IntArray triangles = parser.getTriangles();
+        FloatArray positions = parser.getPositions();
+        for (int i = 0; i < triangles.size; i++) {
+            for (int axis = 0; axis < 3; axis++) {
+                assertEquals(loaderCorners.get(i * vertexSize + axis), positions.get(triangles.get(i) * 3 + axis), 0f);
+            }
+        }
+    }
+
+    @Test
+    public void matchesObjLoaderOnScene() {
+        assertMatchesObjLoader(new FileHandle("models/scene.obj"));
+    }
+
+    /**
+     * The scene has no texture coordinates, a generated terrain of quads in two groups has them
+     */
+    @Test
+    public void matchesObjLoaderWithTextureCoordinates() throws IOException {
+        int gridSize = 12;
+        StringBuilder obj = new StringBuilder("o terrain\n");
+        for (int x = 0; x <= gridSize; x++) {
+            for (int z = 0; z <= gridSize; z++) {
+                obj.append("v ").append(x * 0.5f).append(' ').append((x * 7 + z * 3) % 5 * 0.25f).append(' ')
+                        .append(z * -0.5f).append('\n');
+                obj.append("vt ").append(x / (float) gridSize).append(' ').append(z / (float) gridSize).append('\n');
+                obj.append("vn 0 1 0\n");
+            }
+        }
+        for (int x = 0; x < gridSize; x++) {
+            if (x == gridSize / 2) {
+                obj.append("g terrain_far\nusemtl rock\n");
+            }
+            for (int z = 0; z < gridSize; z++) {
+                int a = x * (gridSize + 1) + z + 1;
+                int b = a + gridSize + 1;
+                obj.append("f ").append(a).append('/').append(a).append('/').append(a).append(' ')
+                        .append(a + 1).append('/').append(a + 1).append('/').append(a + 1).append(' ')
+                        .append(b + 1).append('/').append(b + 1).append('/').append(b + 1).append(' ')
+                        .append(b).append('/').append(b).append('/').append(b).append('\n');
+            }
+        }
+
+        File file = File.createTempFile("terrain", ".obj");
+        try {
+            FileHandle fileHandle = new FileHandle(file);
+            fileHandle.writeString(obj.toString(), false, "UTF-8");
+            assertMatchesObjLoader(fileHandle);
+            assertEquals(gridSize * gridSize * 2, parser.getTriangleCount());
+            assertEquals(2, parser.getPartCount());
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void parsesAllFaceForms() {
+        parse("v 0 0 0\nv 1 0 0\nv 1 0 1\nv 0 0 1\n"
+                + "vt 0.25 0.75\nvt 0.5\n"
+                + "vn 0 1 0\nvn 0 -1 0\n"
+                + "f 1 2 3\n"
+                + "f 1/1 2/2 3/1\n"
+                + "f 1//2 3//2 4//2\n"
+                + "f 1/2/1 2/1/1 4/2/1\n");
+
+        assertEquals(4, parser.getTriangleCount());
+        assertArrayEquals(new int[] {0, 1, 2, 0, 1, 2, 0, 2, 3, 0, 1, 3}, parser.getTriangles().toArray());
+
+        // Position, normal and texture coordinates, missing ones are zero, a lone u has a v of zero
+        FloatArray corners = unpackCorners();
+        assertEquals(8, parser.getVertexAttributes().vertexSize / 4);
+        assertValues(new float[] {0, 0, 0, 0, 0, 0, 0, 0}, corners.items, 0, 8);
+        assertValues(new float[] {1, 0, 0, 0, 0, 0, 0.5f, 0}, corners.items, 4 * 8, 8);
+        assertValues(new float[] {0, 0, 1, 0, -1, 0, 0, 0}, corners.items, 8 * 8, 8);
+        assertValues(new float[] {0, 0, 0, 0, 1, 0, 0.5f, 0}, corners.items, 9 * 8, 8);
+    }
+
+    private static void assertValues(float[] expected, float[] actual, int offset, int length) {
+        for (int i = 0; i < length; i++) {
+            assertEquals("Value " + (offset + i), expected[i], actual[offset + i], 0f);
+        }
+    }
+
+    @Test
+    public void resolvesNegativeIndices() {
+        parse("v 0 0 0\nv 1 0 0\nv 1 0 1\nvn 0 1 0\n"
+                + "f -3//-1 -2//-1 -1//-1\n"
+                + "v 0 0 1\n"
+                + "f -4 -2 -1\n");
+
+        assertArrayEquals(new int[] {0, 1, 2, 0, 2, 3}, parser.getTriangles().toArray());
+    }
+
+    @Test
+    public void splitsPolygonsIntoFans() {
+        parse("v 0 0 0\nv 1 0 0\nv 2 0 1\nv 1 0 2\nv 0 0 1\n"
+                + "f 1 2 3 4 5\n");
+
+        assertEquals(3, parser.getTriangleCount());
+        assertArrayEquals(new int[] {0, 1, 2, 0, 2, 3, 0, 3, 4}, parser.getTriangles().toArray());
+    }
+
+    @Test
+    public void parsesNumbersLikeFloatParseFloat() {
+        String[] numbers = {"0", "-0", "+1", "1.", ".5", "-.25", "3.14159265358979", "1e3", "1E3", "-2.5e-3",
+                "6.02214076e+23", "1.17549435e-38", "3.4028235e38", "123456789012345678901234", "0.000000000000001",
+                "-0.0000", "7.038531e-26", "16777217", "0.1", "0.3"};
+        StringBuilder obj = new StringBuilder();
+        for (String number : numbers) {
+            obj.append("v ").append(number).append(' ').append(number).append('\t').append(number).append("\r\n");
+        }
+        parse(obj.toString());
+
+        FloatArray positions = parser.getPositions();
+        for (int i = 0; i < numbers.length; i++) {
+            assertEquals(numbers[i], Float.floatToRawIntBits(Float.parseFloat(numbers[i])),
+                    Float.floatToRawIntBits(positions.get(i * 3)));
+            assertEquals(positions.get(i * 3), positions.get(i * 3 + 2), 0f);
+        }
+    }
+
+    @Test
+    public void splitsPartsByObjectAndMaterial() {
+        parse("# comment\nmtllib scene.mtl\nv 0 0 0\nv 1 0 0\nv 1 0 1\n"
+                + "f 1 2 3\n"
+                + "o first\nusemtl red\nf 1 2 3\nusemtl blue\nf 1 2 3\nf 1 2 3\n"
+                + "g second\nf 1 2 3\n"
+                + "o empty\n");
+
+        assertEquals(4, parser.getPartCount());
+        assertEquals("default", parser.getPartName(0));
+        assertEquals("default", parser.getPartMaterial(0));
+        assertEquals("first", parser.getPartName(1));
+        assertEquals("red", parser.getPartMaterial(1));
+        assertEquals("first", parser.getPartName(2));
+        assertEquals("blue", parser.getPartMaterial(2));
+        assertEquals(2, parser.getPartTriangleCount(2));
+        assertEquals("second", parser.getPartName(3));
+        assertEquals("blue", parser.getPartMaterial(3));
+    }
+
+    @Test
+    public void splitsPartsOverMaxMeshVertices() {
+        // Every corner its own vertex, 30000 triangles make 90000 vertices in one part
+        int triangleCount = 30000;
+        StringBuilder obj = new StringBuilder();
+        for (int i = 0; i < triangleCount * 3; i++) {
+            obj.append("v ").append(i).append(' ').append(i % 7).append(" 0\n");
+        }
+        for (int i = 0; i < triangleCount; i++) {
+            obj.append("f ").append(i * 3 + 1).append(' ').append(i * 3 + 2).append(' ').append(i * 3 + 3).append('\n');
+        }
+        parse(obj.toString());
+        assertEquals(1, parser.getPartCount());
+
+        int meshes = 0;
+        int packed = 0;
+        while (packed < triangleCount) {
+            int triangles = parser.packMesh(0, packed, vertices, indices);
+            assertTrue(triangles > 0);
+            assertTrue(vertices.size / 3 <= ObjParser.MAX_MESH_VERTICES);
+            assertEquals(triangles * 3, indices.size);
+
+            // Each mesh indexes its own vertices, in the order of the file
+            for (int i = 0; i < indices.size; i++) {
+                int vertex = indices.get(i) & 0xFFFF;
+                assertTrue(vertex < vertices.size / 3);
+                assertEquals((packed + i / 3) * 3 + i % 3, vertices.get(vertex * 3), 0f);
+            }
+            packed += triangles;
+            meshes++;
+        }
+        assertEquals(triangleCount, packed);
+        assertEquals(2, meshes);
+    }
+
+    @Test
+    public void sharesVerticesWithinMesh() {
+        parse("v 0 0 0\nv 1 0 0\nv 1 0 1\nv 0 0 1\nf 1 2 3 4\n");
+
+        assertEquals(2, parser.packMesh(0, 0, vertices, indices));
+        assertEquals(4 * 3, vertices.size);
+        assertArrayEquals(new short[] {0, 1, 2, 0, 2, 3}, indices.toArray());
+    }
+
+    @Test
+    public void rejectsIndicesOutOfRange() {
+        try {
+            parse("v 0 0 0\nv 1 0 0\nv 1 0 1\n\nf 1 2 4\n");
+            fail("An index past the vertices was accepted");
+        } catch (GdxRuntimeException e) {
+            assertTrue(e.getMessage(), e.getMessage().endsWith("line 5"));
+        }
+    }
+
+    @Test
+    public void reusesArraysBetweenParses() {
+        parse("v 0 0 0\nv 1 0 0\nv 1 0 1\nf 1 2 3\n");
+        parse("v 0 0 0\nv 1 0 0\nv 1 0 1\nv 0 0 1\nf 1 2 3 4\n");
+
+        assertEquals(4 * 3, parser.getPositions().size);
+        assertEquals(2, parser.getTriangleCount());
+        assertEquals(1, parser.getPartCount());
+    }
+}
@@ -0,0 +1,92 @@
+package com.jpcodes.physics.utils;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.utils.Array;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Checks the bookkeeping of the {@link PrimitiveModelCache} headless, through a factory that builds empty models
+ *
+ * @author JamesTKhan
+ * @version October 18, 2026
+ */
+public class PrimitiveModelCacheTest {
+    private final Array<CountingModel> built = new Array<>();
+    private PrimitiveModelCache cache;
+
+    /**
+     * An empty model that counts how often it is disposed
+     */
+    private static class CountingModel extends Model {
+        int disposeCount;
+
+        @Override
+        public void dispose() {
+            disposeCount++;
+            super.dispose();
+        }
+    }
+
+    @Before
+    public void setUp() {
+        cache = new PrimitiveModelCache(new PrimitiveModelCache.ModelFactory() {
+            @Override
+            public Model createModel(PrimitiveShape primitive, Color color) {
+                CountingModel model = new CountingModel();
+                built.add(model);
+                return model;
+            }
+        });
+    }
+
+    @Test
+    public void oneModelPerPrimitiveAndColor() {
+        Model redBox = cache.get(PrimitiveShape.BOX, Color.RED);
+        assertSame(redBox, cache.get(PrimitiveShape.BOX, new Color(Color.RED)));
+        assertNotSame(redBox, cache.get(PrimitiveShape.BOX, Color.BLUE));
+        assertNotSame(redBox, cache.get(PrimitiveShape.SPHERE, Color.RED));
+
+        // Keyed by value, a color differing only in alpha is another model
+        assertNotSame(redBox, cache.get(PrimitiveShape.BOX, new Color(1, 0, 0, 0.5f)));
+
+        for (PrimitiveShape primitive : PrimitiveShape.values()) {
+            for (int i = 0; i < 10; i++) {
+                cache.get(primitive, Color.GREEN);
+            }
+        }
+
+        int primitives = PrimitiveShape.values().length;
+        assertEquals(5 + primitives * 10, cache.getRequestCount());
+        // Red box, blue box, red sphere, translucent red box and a green model per primitive
+        assertEquals(4 + primitives, cache.getModelCount());
+        assertEquals(cache.getModelCount(), built.size);
+    }
+
+    @Test
+    public void disposeClearsTheModels() {
+        cache.get(PrimitiveShape.BOX, Color.RED);
+        cache.get(PrimitiveShape.CONE, Color.RED);
+        cache.get(PrimitiveShape.CONE, Color.RED);
+        assertEquals(2, cache.getModelCount());
+
+        cache.dispose();
+        assertEquals(0, cache.getModelCount());
+        assertEquals(0, cache.getRequestCount());
+        for (CountingModel model : built) {
+            assertEquals(1, model.disposeCount);
+        }
+
+        // Requested again after a dispose, the model is built anew
+        Model box = cache.get(PrimitiveShape.BOX, Color.RED);
+        assertEquals(3, built.size);
+        assertSame(built.peek(), box);
+        assertEquals(1, cache.getModelCount());
+        assertEquals(1, cache.getRequestCount());
+    }
+}
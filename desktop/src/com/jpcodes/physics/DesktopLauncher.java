@@ -2,6 +2,7 @@ package com.jpcodes.physics;
 
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Application;
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
 
 // Please note that on macOS your application needs to be started with the -XstartOnFirstThread JVM argument
 public class DesktopLauncher {
@@ -11,6 +12,16 @@ public class DesktopLauncher {
 		config.setBackBufferConfig(8,8,8,8,16, 0, 4);
 		config.setWindowedMode(1280, 720);
 		config.setTitle("libGDX Bullet Tutorials");
+
+		// A GL 3.2 core context enables the instanced renderer, the GLSL 1.x shaders are translated through the prepends
+		for (String argument : arg) {
+			if (argument.equals("--gl30")) {
+				config.useOpenGL3(true, 3, 2);
+				ShaderProgram.prependVertexCode = "#version 150\n#define attribute in\n#define varying out\n";
+				ShaderProgram.prependFragmentCode = "#version 150\n#define varying in\n#define texture2D texture\n"
+						+ "#define textureCube texture\nout vec4 fragColor;\n#define gl_FragColor fragColor\n";
+			}
+		}
 		new Lwjgl3Application(new BulletPhysics(), config);
 	}
 }